@@ -5,6 +5,7 @@ import io.jenetics.engine.EvolutionResult;
 import io.jenetics.engine.EvolutionStatistics;
 import io.jenetics.stat.DoubleMomentStatistics;
 import models.applications.Application;
+import models.auxiliary.RunResult;
 import models.auxiliary.TimeLimit;
 import models.enums.CONFIG;
 import models.enums.Header;
@@ -106,6 +107,10 @@ public class App {
         return combinations;
     }
 
+    public static void updateData(Map<Header, List<Object>> data, RunResult result) {
+        updateData(data, result.toMap());
+    }
+
     public static void updateData(Map<Header, List<Object>> data, Map<Header, Object> information) {
         // Extract key set
         Set<Header> keys = data.keySet();
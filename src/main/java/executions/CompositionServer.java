@@ -0,0 +1,618 @@
+package executions;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import generators.Applications;
+import generators.ArchitectureProbabilities;
+import generators.GenerationContext;
+import models.applications.Application;
+import models.applications.UtilityBase;
+import models.auxiliary.Range;
+import models.auxiliary.RunResult;
+import models.auxiliary.TimeLimit;
+import models.enums.ArchitecturePattern;
+import models.enums.CONFIG;
+import models.enums.NormalizedMethod;
+import models.enums.QoS;
+import resolvers.*;
+import utils.InstanceFile;
+import utils.InstanceJson;
+import utils.LatencyRecorder;
+import utils.RunConf;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded composition server (HTTP/JSON on localhost), so catalogs are loaded once and kept warm between requests.
+ * <p>
+ * Endpoints:
+ * - `POST /catalogs/{name}`: load a catalog from an instance file (`?path=` with a `.bin` or `.json` file), generate
+ * it (`?providers=&services=&seed=`) or read it from the body (see `InstanceJson`).
+ * - `GET /catalogs`, `DELETE /catalogs/{name}`: list and remove catalogs.
+ * - `POST /compose/{name}`: resolve a catalog, with a body like `{"resolver": "U", "degrees": 100, "seed": -1}`
+ * (resolvers EXPRESS, RND, GA, U and UM). Answers the result of the resolution and its queueing and solve times.
+ * - `GET /stats`: queue size, counters and percentiles of queueing and solve latencies.
+ * <p>
+ * Requests are queued in a bounded queue, and rejected (503) when it's full. A dispatcher takes the requests that
+ * arrive together (micro-batches), groups them by catalog and solves each group on a shared pool of solvers only when
+ * a solver is free, so the queue fills up when solvers are busy. Equal deterministic requests of a batch (EXPRESS, or
+ * RND with a seed) are solved once, and utility tables of each catalog are built once and shared by U and UM requests.
+ * Resolvers use the shared GA evaluator pool, and the global configuration (time limit) is given on start.
+ */
+public final class CompositionServer {
+    // Requests of a micro-batch, and time to wait for them after the first one
+    private static final int MAX_BATCH = 32;
+    private static final long BATCH_WINDOW = TimeUnit.MILLISECONDS.toNanos(2);
+    // Samples kept to compute percentiles
+    private static final int LATENCY_SAMPLES = 8192;
+
+    /**
+     * Resolvers that can be requested
+     */
+    private enum Method {
+        EXPRESS, RND, GA, U, UM
+    }
+
+    private final HttpServer _server;
+    private final ExecutorService _http;
+    private final Map<String, Catalog> _catalogs = new ConcurrentHashMap<>();
+    private final BlockingQueue<Job> _queue;
+    private final ExecutorService _solvers;
+    private final Semaphore _freeSolvers;
+    // Groups of requests that are being solved
+    private final Set<List<Job>> _running = ConcurrentHashMap.newKeySet();
+    private final Thread _dispatcher;
+    // Set when the server is stopping, new requests are rejected
+    private volatile boolean _stopping;
+
+    // Statistics
+    private final LatencyRecorder _queueLatency = new LatencyRecorder(LATENCY_SAMPLES);
+    private final LatencyRecorder _solveLatency = new LatencyRecorder(LATENCY_SAMPLES);
+    private final AtomicLong _rejected = new AtomicLong(), _batches = new AtomicLong(), _shared = new AtomicLong();
+
+    /**
+     * @param port          Port on localhost
+     * @param queueCapacity Requests that can be waiting, the rest are rejected
+     * @param nOfSolvers    Requests solved at the same time
+     */
+    public CompositionServer(int port, int queueCapacity, int nOfSolvers) throws IOException {
+        _queue = new ArrayBlockingQueue<>(queueCapacity);
+        _solvers = Executors.newFixedThreadPool(nOfSolvers, daemon("composition-solver"));
+        _freeSolvers = new Semaphore(nOfSolvers);
+
+        _server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        _http = Executors.newFixedThreadPool(4, daemon("composition-http"));
+        _server.setExecutor(_http);
+        _server.createContext("/catalogs", exchange -> handle(exchange, this::catalogs));
+        _server.createContext("/compose", exchange -> handle(exchange, this::compose));
+        _server.createContext("/stats", exchange -> handle(exchange, this::stats));
+
+        _dispatcher = daemon("composition-dispatcher").newThread(this::dispatch);
+    }
+
+    /**
+     * Start a server with the arguments: port (8080), time limit of resolvers in seconds (10) and queue capacity
+     * (256)
+     */
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 8080;
+        int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        int queueCapacity = (args.length > 2) ? Integer.parseInt(args[2]) : 256;
+
+        RunConf.instance().set(CONFIG.TIME_LIMIT, new TimeLimit(Duration.ofSeconds(seconds)));
+
+        // Warm up the default locations and its distances
+        GenerationContext.get();
+
+        CompositionServer server = new CompositionServer(
+            port, queueCapacity, Runtime.getRuntime().availableProcessors()
+        );
+        server.start();
+        System.out.printf("Composition server listening on http://localhost:%d%n", port);
+    }
+
+    public void start() {
+        _dispatcher.start();
+        _server.start();
+    }
+
+    /**
+     * Stop the server: requests that are waiting or being solved are answered with 503, and the solvers are
+     * interrupted.
+     */
+    public void stop() {
+        _stopping = true;
+
+        // 1. Stop the dispatcher first, so nothing is given to the solvers once they are stopped
+        _dispatcher.interrupt();
+
+        try {
+            _dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 2. Requests still in the queue or being solved aren't answered with its result
+        List<Job> queued = new ArrayList<>();
+        _queue.drainTo(queued);
+        queued.forEach(CompositionServer::reject);
+        _running.forEach(jobs -> jobs.forEach(CompositionServer::reject));
+
+        // 3. Solvers, and the HTTP server once the answers are sent
+        _solvers.shutdownNow();
+        _server.stop(1);
+        _http.shutdownNow();
+    }
+
+    /**
+     * Add a catalog (replacing the one with the same name), building the indexes shared by its requests
+     */
+    public void putCatalog(String name, Application app) {
+        if (app.getQoSList().contains(QoS.LATENCY)) {
+            app.getLatencyIndex();
+        }
+
+        _catalogs.put(name, new Catalog(app));
+    }
+
+    // MARK: Queue and micro-batches
+
+    /**
+     * Request waiting to be solved
+     */
+    private static final class Job {
+        private final Catalog _catalog;
+        private final Method _method;
+        private final int _degrees;
+        private final long _seed;
+        private final long _enqueued = System.nanoTime();
+        private final CompletableFuture<RunResult> _result = new CompletableFuture<>();
+        private long _queueTime, _solveTime;
+
+        private Job(Catalog catalog, Method method, int degrees, long seed) {
+            _catalog = catalog;
+            _method = method;
+            _degrees = degrees;
+            _seed = seed;
+        }
+
+        /**
+         * Key of equal requests, or the job itself if its result can't be shared (random resolutions). Only the
+         * parameters used by the resolver are in the key.
+         */
+        private Object key() {
+            if (_method == Method.EXPRESS) {
+                return _method;
+            }
+
+            return (_method == Method.RND && _seed >= 0) ? List.of(_method, _seed) : this;
+        }
+    }
+
+    /**
+     * Catalog loaded, with the tables shared by its requests
+     */
+    private static final class Catalog {
+        private final Application _app;
+        private volatile UtilityBase _base;
+
+        private Catalog(Application app) {
+            _app = app;
+        }
+
+        /**
+         * Tables of utility resolvers, built with the first request that needs them
+         */
+        private UtilityBase getBase() {
+            if (_base == null) {
+                synchronized (this) {
+                    if (_base == null) {
+                        _base = new UtilityBase(_app);
+                    }
+                }
+            }
+
+            return _base;
+        }
+    }
+
+    private void dispatch() {
+        // Requests taken from the queue, and groups that haven't been given to a solver yet
+        List<Job> batch = new ArrayList<>();
+        Deque<List<Job>> pending = new ArrayDeque<>();
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // 1. Wait for a request and take the ones that arrive in the batch window
+                batch.add(_queue.take());
+                long deadline = System.nanoTime() + BATCH_WINDOW;
+
+                while (batch.size() < MAX_BATCH) {
+                    Job job = _queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                    if (job == null) {
+                        break;
+                    }
+
+                    batch.add(job);
+                }
+
+                _batches.incrementAndGet();
+
+                // 2. Group by catalog, and equal requests of each catalog
+                Map<Catalog, Map<Object, List<Job>>> groups = new IdentityHashMap<>();
+
+                for (Job job : batch) {
+                    groups.computeIfAbsent(job._catalog, c -> new LinkedHashMap<>())
+                        .computeIfAbsent(job.key(), k -> new ArrayList<>())
+                        .add(job);
+                }
+
+                groups.values().forEach(catalogGroups -> pending.addAll(catalogGroups.values()));
+                batch.clear();
+
+                // 3. Solve each group when a solver is free
+                while (!pending.isEmpty()) {
+                    _freeSolvers.acquire();
+                    List<Job> jobs = pending.poll();
+                    _running.add(jobs);
+                    _solvers.execute(() -> {
+                        try {
+                            solve(jobs);
+                        } finally {
+                            _running.remove(jobs);
+                            _freeSolvers.release();
+                        }
+                    });
+                }
+            }
+        } catch (InterruptedException e) {
+            // Server stopped, requests that haven't been given to a solver aren't solved
+            batch.forEach(CompositionServer::reject);
+            pending.forEach(jobs -> jobs.forEach(CompositionServer::reject));
+        }
+    }
+
+    private static void reject(Job job) {
+        job._result.completeExceptionally(new HttpError(503, "Server is stopping, please retry later"));
+    }
+
+    /**
+     * Solve equal requests once and give the result to all of them
+     */
+    private void solve(List<Job> jobs) {
+        long start = System.nanoTime();
+        Job first = jobs.get(0);
+
+        for (Job job : jobs) {
+            job._queueTime = start - job._enqueued;
+            _queueLatency.record(job._queueTime);
+        }
+
+        try {
+            Application app = first._catalog._app;
+            RunResult result = switch (first._method) {
+                case EXPRESS -> Express.resolve(app);
+                case RND -> RND.resolve(app, first._seed);
+                case GA -> GA.resolvePair(app);
+                case U -> Utility.resolve(first._catalog.getBase(), first._degrees);
+                case UM -> UtilityModified.resolve(first._catalog.getBase(), first._degrees);
+            };
+            long solveTime = System.nanoTime() - start;
+            _solveLatency.record(solveTime);
+            _shared.addAndGet(jobs.size() - 1);
+
+            for (Job job : jobs) {
+                job._solveTime = solveTime;
+                job._result.complete(result);
+            }
+        } catch (Throwable e) {
+            // All requests of the group are answered, whatever the failure is
+            jobs.forEach(job -> job._result.completeExceptionally(e));
+
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    // MARK: Handlers
+
+    /**
+     * Handler of a request, that answers its response (now or when it's solved)
+     */
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange, String[] path) throws IOException;
+    }
+
+    /**
+     * Error with the HTTP status to answer
+     */
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int _status;
+
+        private HttpError(int status, String message) {
+            super(message);
+            _status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) {
+        try {
+            // Path without the empty first segment, p.e. ["compose", "name"]
+            String[] path = Arrays.stream(exchange.getRequestURI().getPath().split("/"))
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+            handler.handle(exchange, path);
+        } catch (HttpError e) {
+            error(exchange, e._status, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            error(exchange, 400, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void catalogs(HttpExchange exchange, String[] path) throws IOException {
+        String method = exchange.getRequestMethod();
+
+        if (method.equals("GET") && path.length == 1) {
+            respond(exchange, 200, writer -> {
+                writer.beginArray();
+
+                for (Map.Entry<String, Catalog> e : new TreeMap<>(_catalogs).entrySet()) {
+                    writeCatalog(writer, e.getKey(), e.getValue()._app);
+                }
+
+                writer.endArray();
+            });
+        } else if (method.equals("POST") && path.length == 2) {
+            long start = System.nanoTime();
+            Application app = loadCatalog(exchange);
+            putCatalog(path[1], app);
+            double loadTime = (System.nanoTime() - start) / 1E6;
+
+            respond(exchange, 200, writer -> {
+                writer.beginObject();
+                writer.name("catalog");
+                writeCatalog(writer, path[1], app);
+                writer.name("load_ms").value(loadTime);
+                writer.endObject();
+            });
+        } else if (method.equals("DELETE") && path.length == 2) {
+            if (_catalogs.remove(path[1]) == null) {
+                throw new HttpError(404, String.format("Catalog `%s` doesn't exist", path[1]));
+            }
+
+            respond(exchange, 200, writer -> writer.beginObject().name("removed").value(path[1]).endObject());
+        } else {
+            throw new HttpError(405, "Method not allowed");
+        }
+    }
+
+    private Application loadCatalog(HttpExchange exchange) throws IOException {
+        Map<String, String> params = query(exchange);
+
+        if (params.containsKey("path")) {
+            // Instance file in the disk
+            Path file = Paths.get(params.get("path"));
+
+            return file.toString().endsWith(".bin")
+                ? InstanceFile.open(file).toApplication()
+                : InstanceJson.read(file);
+        } else if (params.containsKey("providers") && params.containsKey("services")) {
+            // Generated instance
+            int nOfProviders = Integer.parseInt(params.get("providers"));
+            long seed = Long.parseLong(params.getOrDefault("seed", "-1"));
+
+            return Applications.get(
+                GenerationContext.of(seed), nOfProviders, Integer.parseInt(params.get("services")),
+                List.of(QoS.values()), seed, NormalizedMethod.MAX,
+                ArchitectureProbabilities.get(List.of(ArchitecturePattern.values())), new Range<>(nOfProviders)
+            );
+        }
+
+        // Instance in the body
+        try (Reader reader = new BufferedReader(
+            new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)
+        )) {
+            return InstanceJson.read(reader);
+        }
+    }
+
+    private void compose(HttpExchange exchange, String[] path) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST") || path.length != 2) {
+            throw new HttpError(405, "Method not allowed");
+        }
+
+        Catalog catalog = _catalogs.get(path[1]);
+
+        if (catalog == null) {
+            throw new HttpError(404, String.format("Catalog `%s` doesn't exist", path[1]));
+        }
+
+        // 1. Read the request
+        Method method = Method.EXPRESS;
+        int degrees = 100;
+        long seed = -1;
+
+        try (JsonReader reader = new JsonReader(
+            new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)
+        )) {
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "resolver" -> method = Method.valueOf(reader.nextString().toUpperCase(Locale.ROOT));
+                    case "degrees" -> degrees = reader.nextInt();
+                    case "seed" -> seed = reader.nextLong();
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+        } catch (EOFException e) {
+            // Empty body, default request
+        }
+
+        // 2. Queue it, or reject it if the queue is full
+        Job job = new Job(catalog, method, degrees, seed);
+
+        if (_stopping) {
+            throw new HttpError(503, "Server is stopping, please retry later");
+        }
+
+        if (!_queue.offer(job)) {
+            _rejected.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            throw new HttpError(503, "Queue is full, please retry later");
+        }
+
+        // The server could have drained the queue while the request was added
+        if (_stopping && _queue.remove(job)) {
+            throw new HttpError(503, "Server is stopping, please retry later");
+        }
+
+        // 3. Answer when it's solved
+        job._result.whenComplete((result, e) -> {
+            Throwable cause = (e instanceof CompletionException) ? e.getCause() : e;
+
+            if (cause instanceof HttpError) {
+                error(exchange, ((HttpError) cause)._status, cause.getMessage());
+                return;
+            } else if (cause != null) {
+                error(exchange, 500, String.valueOf(cause.getMessage()));
+                return;
+            }
+
+            respond(exchange, 200, writer -> {
+                writer.beginObject();
+                writer.name("resolver").value(job._method.name());
+                writer.name("fitness").value(result.getBestFitness());
+                writer.name("mean_fitness").value(result.getMeanFitness());
+                writer.name("generations").value(result.getGenerations());
+                writer.name("pre_calculation_ms").value(result.getPreCalculationTime());
+                writer.name("execution_ms").value(result.getExecutionTime());
+                writer.name("queue_ms").value(job._queueTime / 1E6);
+                writer.name("solve_ms").value(job._solveTime / 1E6);
+                writer.name("composition").beginArray();
+
+                for (int provider : result.getComposition()) {
+                    writer.value(provider);
+                }
+
+                writer.endArray();
+                writer.endObject();
+            });
+        });
+    }
+
+    private void stats(HttpExchange exchange, String[] path) {
+        respond(exchange, 200, writer -> {
+            writer.beginObject();
+            writer.name("catalogs").value(_catalogs.size());
+            writer.name("queued").value(_queue.size());
+            writer.name("queue_capacity").value(_queue.size() + _queue.remainingCapacity());
+            writer.name("rejected").value(_rejected.get());
+            writer.name("batches").value(_batches.get());
+            writer.name("solved").value(_solveLatency.getCount());
+            writer.name("shared").value(_shared.get());
+            writer.name("queue_ms");
+            writePercentiles(writer, _queueLatency);
+            writer.name("solve_ms");
+            writePercentiles(writer, _solveLatency);
+            writer.endObject();
+        });
+    }
+
+    // MARK: Responses
+
+    /**
+     * Writer of a JSON response
+     */
+    @FunctionalInterface
+    private interface Body {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    private static void writeCatalog(JsonWriter writer, String name, Application app) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
+        writer.name("providers").value(app.getProviders().size());
+        writer.name("services").value(app.getServices().size());
+        writer.name("gates").value(app.getGates().size());
+        writer.endObject();
+    }
+
+    private static void writePercentiles(JsonWriter writer, LatencyRecorder recorder) throws IOException {
+        double[] values = recorder.percentiles(50, 90, 99);
+        writer.beginObject();
+        writer.name("p50").value(values[0]);
+        writer.name("p90").value(values[1]);
+        writer.name("p99").value(values[2]);
+        writer.name("max").value(recorder.getMax());
+        writer.endObject();
+    }
+
+    private static void respond(HttpExchange exchange, int status, Body body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try {
+            try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+                // Fitness can be NaN
+                writer.setLenient(true);
+                body.write(writer);
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.size());
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                bytes.writeTo(out);
+            }
+        } catch (IOException e) {
+            // Client has gone
+            exchange.close();
+        }
+    }
+
+    private static void error(HttpExchange exchange, int status, String message) {
+        respond(exchange, status, writer -> writer.beginObject().name("error").value(message).endObject());
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+
+        if (query != null) {
+            for (String param : query.split("&")) {
+                String[] pair = param.split("=", 2);
+                params.put(
+                    URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                    (pair.length > 1) ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : ""
+                );
+            }
+        }
+
+        return params;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
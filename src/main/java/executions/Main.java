@@ -7,13 +7,14 @@ import generators.Services;
 import models.applications.Application;
 import models.applications.Provider;
 import models.applications.Service;
+import models.applications.UtilityBase;
 import models.auxiliary.Constraint;
 import models.auxiliary.Range;
 import models.auxiliary.TimeLimit;
 import models.enums.*;
 import resolvers.*;
-import utils.CSV;
-import utils.Data;
+import utils.ResultColumns;
+import utils.ResultSink;
 import utils.RunConf;
 import utils.ToDebug;
 
@@ -74,14 +75,15 @@ public class Main {
         // Define limits
         int maxServices = 2_000, stepServices = 100, initServices = 100;
 
-        // Get headers
+        // Get headers (reduction ratio and quantization error are only given by GA_S and GA_C)
         List<Header> headers = List.of(
             Header.RESOLVER, Header.LIMIT_TIME, Header.EXECUTION_TIME, Header.PROVIDERS, Header.SERVICES,
-            Header.BEST_FITNESS, Header.MEAN_FITNESS, Header.PRE_CALCULATION_TIME
+            Header.BEST_FITNESS, Header.MEAN_FITNESS, Header.PRE_CALCULATION_TIME, Header.REDUCTION_RATIO,
+            Header.QUANTIZATION_ERROR
         );
 
         // Data to save in CSV
-        Map<Header, List<Object>> data = Data.getDataMap(headers);
+        ResultColumns results = new ResultColumns(headers);
 
         // Define time limit
         TimeLimit tLimit = new TimeLimit(Duration.ofSeconds(60 * 3));
@@ -90,45 +92,76 @@ public class Main {
         // Define list of providers
         List<Integer> listNOfProviders = List.of(100, 1_000);
 
-        for (int nOfServices = initServices; nOfServices <= maxServices; nOfServices += stepServices) {
-            for (int nOfProviders : listNOfProviders) {
-                // Define providers range
-                Range<Integer> providersRange = new Range<>(nOfProviders);
-
-                for (int iter = 1; iter <= iterations; iter++) {
-                    // For each iteration
-                    System.out.printf("%nTime: %s%n", DATE_FORMAT.format(new Date()));
-                    System.out.printf("# services: %d%n", nOfServices);
-                    System.out.printf("# providers: %d%n", nOfProviders);
-                    System.out.printf("Iteration: %d/%d%n%n", iter, iterations);
-
-                    // Get providers and services
-                    List<Provider> providers = Providers.get(nOfProviders, qos, seed);
-                    List<Service> services = Services.get(nOfServices, providers, providersRange, seed);
-
-                    // Prepare an instance of application
-                    Application app = Applications.get(providers, services, qos, seed, archProb, providersRange);
-
-                    // Resolve by express method
-                    resolveExpress(data, tLimit, app);
+        // Rows are appended to the CSV file step by step
+        try (ResultSink sink = ResultSink.open(headers, "scaling_u_um")) {
+            for (int nOfServices = initServices; nOfServices <= maxServices; nOfServices += stepServices) {
+                for (int nOfProviders : listNOfProviders) {
+                    // Define providers range
+                    Range<Integer> providersRange = new Range<>(nOfProviders);
+
+                    for (int iter = 1; iter <= iterations; iter++) {
+                        // For each iteration
+                        System.out.printf("%nTime: %s%n", DATE_FORMAT.format(new Date()));
+                        System.out.printf("# services: %d%n", nOfServices);
+                        System.out.printf("# providers: %d%n", nOfProviders);
+                        System.out.printf("Iteration: %d/%d%n%n", iter, iterations);
+
+                        // Get providers and services
+                        List<Provider> providers = Providers.get(nOfProviders, qos, seed);
+                        List<Service> services = Services.get(nOfServices, providers, providersRange, seed);
+
+                        // Prepare an instance of application
+                        Application app = Applications.get(providers, services, qos, seed, archProb, providersRange);
+
+                        // Resolve by express method
+                        resolveExpress(results, tLimit, app);
+
+                        // Tables independent of the degrees, shared by utility methods
+                        UtilityBase base = new UtilityBase(app);
+
+                        // Resolve by utility method
+                        RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
+                        RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                        resolveU(results, tLimit, base, 100);
+
+                        // Resolve by modified utility method
+                        RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
+                        RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                        resolveUM(results, tLimit, base, 70);
+
+                        // Resolve by complete GA method
+                        RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
+                        RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                        resolveGA(results, tLimit, app);
+
+                        // Optionally, resolve by GA over clusters of similar candidates
+                        Integer levels = (Integer) RunConf.instance().getOrDefault(CONFIG.CLUSTER_LEVELS, null);
+
+                        if (levels != null) {
+                            RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
+                            RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                            resolveGAClustered(results, tLimit, app, levels);
+                        }
 
-                    // Resolve by utility method
-                    RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
-                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                    resolveU(data, tLimit, app, 100);
+                        // Optionally, resolve by GA over the candidates not dominated
+                        if ((Boolean) RunConf.instance().getOrDefault(CONFIG.SKYLINE, false)) {
+                            RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
+                            RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                            resolveGASkyline(results, tLimit, app);
+                        }
 
-                    // Resolve by modified utility method
-                    RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
-                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                    resolveUM(data, tLimit, app, 70);
+                        // Optionally, resolve by GA seeded with the Express shortlists
+                        Integer k = (Integer) RunConf.instance().getOrDefault(CONFIG.SHORTLIST_SIZE, null);
 
-                    // Resolve by complete GA method
-                    RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
-                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                    resolveGA(data, tLimit, app);
+                        if (k != null) {
+                            RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
+                            RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                            resolveGASeeded(seed, results, tLimit, app, k);
+                        }
 
-                    // Save information in CSV step by step.
-                    CSV.save(headers, data, "scaling_u_um");
+                        // Save information in CSV step by step.
+                        results.drainTo(sink);
+                    }
                 }
             }
         }
@@ -181,7 +214,7 @@ public class Main {
 
         for (int i = 0; i < iterations; i++) {
             // Data to save in CSV
-            Map<Header, List<Object>> data = Data.getDataMap(headers);
+            ResultColumns results = new ResultColumns(headers);
 
             // Define providers range
             Range<Integer> providersRange = new Range<>(nOfProviders);
@@ -193,38 +226,41 @@ public class Main {
             // Prepare an instance of application
             Application app = Applications.get(providers, services, qos, seed, archProb, providersRange);
 
-            for (Map<CONFIG, Number> conf : configuration) {
-                // Set configuration
-                double
-                    convergence = (double) conf.get(CONFIG.CONVERGENCE),
-                    mutationProb = (double) conf.get(CONFIG.MUTATION_PROB);
-                RunConf.instance().set(CONFIG.CONVERGENCE, convergence);
-                RunConf.instance().set(CONFIG.MUTATION_PROB, mutationProb);
-
-                // For each configuration
-                System.out.printf("%nTime: %s%n", DATE_FORMAT.format(new Date()));
-                System.out.printf("Resolver: %s%n", resolver);
-                System.out.printf("Convergence: %.4f%n", convergence);
-                System.out.printf("Mutation prob: %.2f%n", mutationProb);
-                System.out.printf("Iteration: %d%n%n", i);
-
-                // Launch resolver
-                switch (resolver) {
-                    case U -> resolveU(data, tLimit, app, 100);
-                    case UM -> resolveUM(data, tLimit, app, 70);
-                    case GA -> resolveGA(data, tLimit, app);
-                }
+            // Rows are appended to the CSV file of this iteration step by step
+            try (ResultSink sink = ResultSink.open(headers, String.format("evolution_%s_%d", resolver, i))) {
+                for (Map<CONFIG, Number> conf : configuration) {
+                    // Set configuration
+                    double
+                        convergence = (double) conf.get(CONFIG.CONVERGENCE),
+                        mutationProb = (double) conf.get(CONFIG.MUTATION_PROB);
+                    RunConf.instance().set(CONFIG.CONVERGENCE, convergence);
+                    RunConf.instance().set(CONFIG.MUTATION_PROB, mutationProb);
+
+                    // For each configuration
+                    System.out.printf("%nTime: %s%n", DATE_FORMAT.format(new Date()));
+                    System.out.printf("Resolver: %s%n", resolver);
+                    System.out.printf("Convergence: %.4f%n", convergence);
+                    System.out.printf("Mutation prob: %.2f%n", mutationProb);
+                    System.out.printf("Iteration: %d%n%n", i);
+
+                    // Launch resolver
+                    switch (resolver) {
+                        case U -> resolveU(results, tLimit, app, 100);
+                        case UM -> resolveUM(results, tLimit, app, 70);
+                        case GA -> resolveGA(results, tLimit, app);
+                    }
 
-                data.get(Header.FITNESS).add(new ArrayList<>(ToDebug.getInstance().getFitness()));
-                data.get(Header.TIME).add(new ArrayList<>(ToDebug.getInstance().getTime()));
-                data.get(Header.MUTATION_PROB).add(mutationProb);
-                data.get(Header.CONVERGENCE).add(convergence);
+                    results.set(Header.FITNESS, ToDebug.getInstance().getFitness());
+                    results.set(Header.TIME, ToDebug.getInstance().getTime());
+                    results.set(Header.MUTATION_PROB, mutationProb);
+                    results.set(Header.CONVERGENCE, convergence);
 
-                // Clear for next iteration
-                ToDebug.getInstance().clear();
+                    // Clear for next iteration
+                    ToDebug.getInstance().clear();
 
-                // Save information in CSV step by step.
-                CSV.save(headers, data, String.format("evolution_%s_%d", resolver, i));
+                    // Save information in CSV step by step.
+                    results.drainTo(sink);
+                }
             }
         }
 
@@ -253,7 +289,7 @@ public class Main {
         );
 
         // Data to save in CSV
-        Map<Header, List<Object>> data = Data.getDataMap(headers);
+        ResultColumns results = new ResultColumns(headers);
 
         // Define time limit
         TimeLimit tLimit = new TimeLimit(Duration.ofSeconds(60 * 3));
@@ -269,100 +305,103 @@ public class Main {
             case INVERTED -> "comparison_services_constraints_inverted";
         };
 
-        for (int nOfServices = initServices; nOfServices <= maxServices; nOfServices += stepServices) {
-            // For each iteration
-            for (int iter = 1; iter <= iterations; iter++) {
-                System.out.printf("%nTime: %s%n", DATE_FORMAT.format(new Date()));
-                System.out.printf("# services: %d%n", nOfServices);
-                System.out.printf("# providers: %d%n", nOfProviders);
-                System.out.printf("Iteration: %d/%d%n%n", iter, iterations);
-
-                // Get providers and services
-                List<Provider> providers = Providers.get(nOfProviders, qos, seed);
-                List<Service> services = Services.get(nOfServices, providers, providersRange, seed);
-
-                // Prepare an instance of application
-                Application app = Applications.get(providers, services, qos, seed, archProb, providersRange);
+        // Rows are appended to the CSV file step by step
+        try (ResultSink sink = ResultSink.open(headers, fileName)) {
+            for (int nOfServices = initServices; nOfServices <= maxServices; nOfServices += stepServices) {
+                // For each iteration
+                for (int iter = 1; iter <= iterations; iter++) {
+                    System.out.printf("%nTime: %s%n", DATE_FORMAT.format(new Date()));
+                    System.out.printf("# services: %d%n", nOfServices);
+                    System.out.printf("# providers: %d%n", nOfProviders);
+                    System.out.printf("Iteration: %d/%d%n%n", iter, iterations);
 
-                switch (cExecution) {
-                    case NORMAL -> {
-                        for (QoS k : qos) {
+                    // Get providers and services
+                    List<Provider> providers = Providers.get(nOfProviders, qos, seed);
+                    List<Service> services = Services.get(nOfServices, providers, providersRange, seed);
 
-                            // Skip latency to avoid fails
-                            if (k.equals(QoS.LATENCY)) {
-                                continue;
-                            }
+                    // Prepare an instance of application
+                    Application app = Applications.get(providers, services, qos, seed, archProb, providersRange);
 
-                            ConstraintOperator operator;
-                            double bound;
-
-                            if (k.getObjective().equals(ObjectiveFunction.MINIMIZE)) {
-                                // Minimize attribute must be less than 130% of the minimum value
-                                operator = ConstraintOperator.LESS_THAN;
-                                bound = app.getAppNorm().get(k).getMin() * 1.3;
-                            } else {
-                                // Maximize attribute must be greater than 70% of the maximum value
-                                operator = ConstraintOperator.GREATER_THAN;
-                                bound = app.getAppNorm().get(k).getMax() * .7;
+                    switch (cExecution) {
+                        case NORMAL -> {
+                            for (QoS k : qos) {
+
+                                // Skip latency to avoid fails
+                                if (k.equals(QoS.LATENCY)) {
+                                    continue;
+                                }
+
+                                ConstraintOperator operator;
+                                double bound;
+
+                                if (k.getObjective().equals(ObjectiveFunction.MINIMIZE)) {
+                                    // Minimize attribute must be less than 130% of the minimum value
+                                    operator = ConstraintOperator.LESS_THAN;
+                                    bound = app.getAppNorm().get(k).getMin() * 1.3;
+                                } else {
+                                    // Maximize attribute must be greater than 70% of the maximum value
+                                    operator = ConstraintOperator.GREATER_THAN;
+                                    bound = app.getAppNorm().get(k).getMax() * .7;
+                                }
+
+                                app.putSoftConstraint(k, new Constraint(operator, bound));
                             }
-
-                            app.putSoftConstraint(k, new Constraint(operator, bound));
                         }
-                    }
-                    case INVERTED -> {
-                        for (QoS k : qos) {
-
-                            // Skip latency to avoid fails
-                            if (k.equals(QoS.LATENCY)) {
-                                continue;
-                            }
-
-                            ConstraintOperator operator;
-                            double bound;
-
-                            if (k.getObjective().equals(ObjectiveFunction.MINIMIZE)) {
-                                // Minimize attribute must be greater than 130% of the minimum value (Bad value)
-                                operator = ConstraintOperator.GREATER_THAN;
-                                bound = app.getAppNorm().get(k).getMax() * 1.3;
-                            } else {
-                                // Maximize attribute must be less than 70% of the maximum value (Bad value)
-                                operator = ConstraintOperator.LESS_THAN;
-                                bound = app.getAppNorm().get(k).getMax() * .7;
+                        case INVERTED -> {
+                            for (QoS k : qos) {
+
+                                // Skip latency to avoid fails
+                                if (k.equals(QoS.LATENCY)) {
+                                    continue;
+                                }
+
+                                ConstraintOperator operator;
+                                double bound;
+
+                                if (k.getObjective().equals(ObjectiveFunction.MINIMIZE)) {
+                                    // Minimize attribute must be greater than 130% of the minimum value (Bad value)
+                                    operator = ConstraintOperator.GREATER_THAN;
+                                    bound = app.getAppNorm().get(k).getMax() * 1.3;
+                                } else {
+                                    // Maximize attribute must be less than 70% of the maximum value (Bad value)
+                                    operator = ConstraintOperator.LESS_THAN;
+                                    bound = app.getAppNorm().get(k).getMax() * .7;
+                                }
+
+                                app.putSoftConstraint(k, new Constraint(operator, bound));
                             }
-
-                            app.putSoftConstraint(k, new Constraint(operator, bound));
                         }
                     }
-                }
 
-                // Set a weight for constraints
-                if (!cExecution.equals(ConstraintExecution.NO)) {
-                    app.setSoftConstraintsW(.8);
-                }
+                    // Set a weight for constraints
+                    if (!cExecution.equals(ConstraintExecution.NO)) {
+                        app.setSoftConstraintsW(.8);
+                    }
 
-                // Resolve by random method
-                resolveRND(seed, data, tLimit, app);
+                    // Resolve by random method
+                    resolveRND(seed, results, tLimit, app);
 
-                // Resolve by express method
-                resolveExpress(data, tLimit, app);
+                    // Resolve by express method
+                    resolveExpress(results, tLimit, app);
 
-                // Resolve by utility method
-                RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
-                RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                resolveU(data, tLimit, app, 100);
+                    // Resolve by utility method
+                    RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
+                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                    resolveU(results, tLimit, app, 100);
 
-                // Resolve by modified utility method
-                RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
-                RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                resolveUM(data, tLimit, app, 70);
+                    // Resolve by modified utility method
+                    RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
+                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                    resolveUM(results, tLimit, app, 70);
 
-                // Resolve by complete GA method
-                RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
-                RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                resolveGA(data, tLimit, app);
+                    // Resolve by complete GA method
+                    RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
+                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                    resolveGA(results, tLimit, app);
 
-                // Save information in CSV step by step.
-                CSV.save(headers, data, fileName);
+                    // Save information in CSV step by step.
+                    results.drainTo(sink);
+                }
             }
         }
 
@@ -389,56 +428,59 @@ public class Main {
         );
 
         // Data to save in CSV
-        Map<Header, List<Object>> data = Data.getDataMap(headers);
+        ResultColumns results = new ResultColumns(headers);
 
         // Define time limit
         TimeLimit tLimit = new TimeLimit(Duration.ofSeconds(60 * 3));
         RunConf.instance().set(CONFIG.TIME_LIMIT, tLimit);
 
-        for (int nOfProviders = initProviders; nOfProviders <= maxProviders; nOfProviders += stepProviders) {
+        // Rows are appended to the CSV file step by step
+        try (ResultSink sink = ResultSink.open(headers, "comparison_providers")) {
+            for (int nOfProviders = initProviders; nOfProviders <= maxProviders; nOfProviders += stepProviders) {
 
-            // Define providers range
-            Range<Integer> providersRange = new Range<>(nOfProviders);
+                // Define providers range
+                Range<Integer> providersRange = new Range<>(nOfProviders);
 
-            // For each iteration
-            for (int iter = 1; iter <= iterations; iter++) {
-                System.out.printf("%nTime: %s%n", DATE_FORMAT.format(new Date()));
-                System.out.printf("# services: %d%n", nOfServices);
-                System.out.printf("# providers: %d%n", nOfProviders);
-                System.out.printf("Iteration: %d/%d%n%n", iter, iterations);
+                // For each iteration
+                for (int iter = 1; iter <= iterations; iter++) {
+                    System.out.printf("%nTime: %s%n", DATE_FORMAT.format(new Date()));
+                    System.out.printf("# services: %d%n", nOfServices);
+                    System.out.printf("# providers: %d%n", nOfProviders);
+                    System.out.printf("Iteration: %d/%d%n%n", iter, iterations);
 
-                // Get providers and services
-                List<Provider> providers = Providers.get(nOfProviders, qos, seed);
-                List<Service> services = Services.get(nOfServices, providers, providersRange, seed);
+                    // Get providers and services
+                    List<Provider> providers = Providers.get(nOfProviders, qos, seed);
+                    List<Service> services = Services.get(nOfServices, providers, providersRange, seed);
 
-                // Prepare an instance of application
-                Application app = Applications.get(
-                    providers, services, qos, seed, archProb, providersRange
-                );
+                    // Prepare an instance of application
+                    Application app = Applications.get(
+                        providers, services, qos, seed, archProb, providersRange
+                    );
 
-                // Resolve by random method
-                resolveRND(seed, data, tLimit, app);
+                    // Resolve by random method
+                    resolveRND(seed, results, tLimit, app);
 
-                // Resolve by express method
-                resolveExpress(data, tLimit, app);
+                    // Resolve by express method
+                    resolveExpress(results, tLimit, app);
 
-                // Resolve by utility method
-                RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
-                RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                resolveU(data, tLimit, app, 100);
+                    // Resolve by utility method
+                    RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
+                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                    resolveU(results, tLimit, app, 100);
 
-                // Resolve by modified utility method
-                RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
-                RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                resolveUM(data, tLimit, app, 70);
+                    // Resolve by modified utility method
+                    RunConf.instance().set(CONFIG.MUTATION_PROB, .015);
+                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                    resolveUM(results, tLimit, app, 70);
 
-                // Resolve by complete GA method
-                RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
-                RunConf.instance().set(CONFIG.CONVERGENCE, .001);
-                resolveGA(data, tLimit, app);
+                    // Resolve by complete GA method
+                    RunConf.instance().set(CONFIG.MUTATION_PROB, .01);
+                    RunConf.instance().set(CONFIG.CONVERGENCE, .001);
+                    resolveGA(results, tLimit, app);
 
-                // Save information in CSV step by step.
-                CSV.save(headers, data, "comparison_providers");
+                    // Save information in CSV step by step.
+                    results.drainTo(sink);
+                }
             }
         }
 
@@ -476,7 +518,7 @@ public class Main {
         );
 
         // Data to save in CSV
-        Map<Header, List<Object>> data = Data.getDataMap(headers);
+        ResultColumns results = new ResultColumns(headers);
 
         // Define time limit
         TimeLimit tLimit = new TimeLimit(Duration.ofSeconds(60 * 3));
@@ -490,49 +532,50 @@ public class Main {
         // Define providers range
         Range<Integer> providersRange;
 
-        for (int id = 0; id < nOfApplications; id++) {
-            nOfProviders = rnd.nextInt(900) + 100;
-            nOfServices = rnd.nextInt(900) + 100;
+        // Name file
+        String fileName = details ? "elbow_details" : "elbow";
 
-            // Define providers range
-            providersRange = new Range<>(nOfProviders);
+        // Rows are appended to the CSV file step by step
+        try (ResultSink sink = ResultSink.open(headers, fileName)) {
+            for (int id = 0; id < nOfApplications; id++) {
+                nOfProviders = rnd.nextInt(900) + 100;
+                nOfServices = rnd.nextInt(900) + 100;
 
-            // Get providers and services
-            List<Provider> providers = Providers.get(nOfProviders, qos, seed);
-            List<Service> services = Services.get(nOfServices, providers, providersRange, seed);
+                // Define providers range
+                providersRange = new Range<>(nOfProviders);
 
-            // Prepare an instance of application
-            Application app = Applications.get(providers, services, qos, seed, archProb, providersRange);
+                // Get providers and services
+                List<Provider> providers = Providers.get(nOfProviders, qos, seed);
+                List<Service> services = Services.get(nOfServices, providers, providersRange, seed);
 
-            System.out.printf("Application id: %d%n%n", id);
+                // Prepare an instance of application
+                Application app = Applications.get(providers, services, qos, seed, archProb, providersRange);
 
-            for (int nOfDegrees = initDegrees; nOfDegrees <= maxDegrees; nOfDegrees += stepDegrees) {
-                for (int iter = 1; iter <= iterations; iter++) {
-                    System.out.printf("Time: %s%n", DATE_FORMAT.format(new Date()));
-                    System.out.printf("Iteration: %d/%d%n", iter, iterations);
+                System.out.printf("Application id: %d%n%n", id);
 
-                    // Resolve by fitness modified method
-                    resolveUM(data, tLimit, app, nOfDegrees);
-                    data.get(Header.U_DEGREES).add(nOfDegrees);
-                    data.get(Header.ID).add(id);
+                // Tables independent of the degrees, shared by all degrees
+                UtilityBase base = new UtilityBase(app);
 
-                    // Resolve by fitness method
-                    resolveU(data, tLimit, app, nOfDegrees);
-                    data.get(Header.U_DEGREES).add(nOfDegrees);
-                    data.get(Header.ID).add(id);
+                for (int nOfDegrees = initDegrees; nOfDegrees <= maxDegrees; nOfDegrees += stepDegrees) {
+                    for (int iter = 1; iter <= iterations; iter++) {
+                        System.out.printf("Time: %s%n", DATE_FORMAT.format(new Date()));
+                        System.out.printf("Iteration: %d/%d%n", iter, iterations);
 
-                    // Save information in CSV step by step.
-                    String fileName;
+                        // Resolve by fitness modified method
+                        resolveUM(results, tLimit, base, nOfDegrees);
+                        results.set(Header.U_DEGREES, nOfDegrees);
+                        results.set(Header.ID, id);
 
-                    if (details) {
-                        fileName = "elbow_details";
-                    } else {
-                        fileName = "elbow";
-                    }
+                        // Resolve by fitness method
+                        resolveU(results, tLimit, base, nOfDegrees);
+                        results.set(Header.U_DEGREES, nOfDegrees);
+                        results.set(Header.ID, id);
 
-                    System.out.println("");
+                        System.out.println("");
 
-                    CSV.save(headers, data, fileName);
+                        // Save information in CSV step by step.
+                        results.drainTo(sink);
+                    }
                 }
             }
         }
@@ -541,72 +584,117 @@ public class Main {
         System.out.println("Done!");
     }
 
-    private static void resolveGA(Map<Header, List<Object>> data, TimeLimit tLimit, Application app) {
+    private static void resolveGA(ResultColumns results, TimeLimit tLimit, Application app) {
+        // Launch resolver
+        results.add(GA.resolvePair(app));
+
         // Add execution time
-        data.get(Header.LIMIT_TIME).add(tLimit.getDuration().toMillis());
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, "GA");
 
-        if (data.containsKey(Header.RESOLVER)) {
-            data.get(Header.RESOLVER).add("GA");
-        }
+        System.out.println("GA done!");
+    }
 
+    private static void resolveGAClustered(
+        ResultColumns results, TimeLimit tLimit, Application app, Integer levels
+    ) {
         // Launch resolver
-        GA.resolveByGAPair(app, data);
+        results.add(GA.resolveClustered(app, levels));
 
-        System.out.println("GA done!");
+        // Add execution time
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, String.format("GA_C%d", levels));
+
+        System.out.println("GA clustered done!");
     }
 
-    private static void resolveExpress(Map<Header, List<Object>> data, TimeLimit tLimit, Application app) {
+    private static void resolveGASkyline(ResultColumns results, TimeLimit tLimit, Application app) {
+        // Launch resolver
+        results.add(GA.resolveSkyline(app));
+
         // Add execution time
-        data.get(Header.LIMIT_TIME).add(tLimit.getDuration().toMillis());
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, "GA_S");
 
-        if (data.containsKey(Header.RESOLVER)) {
-            data.get(Header.RESOLVER).add("Express");
-        }
+        System.out.println("GA skyline done!");
+    }
+
+    private static void resolveGASeeded(Long seed, ResultColumns results, TimeLimit tLimit, Application app, int k) {
+        // Seed as many genotypes as survivors, the rest of the population is random
+        Integer survivors = (Integer) RunConf.instance().getOrDefault(CONFIG.SURVIVORS_SIZE, 10);
 
         // Launch resolver
-        Express.resolve(app, data);
+        results.add(GA.resolveSeeded(app, k, survivors, seed));
 
-        System.out.println("Express done!");
+        // Add execution time
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, String.format("GA_E%d", k));
+
+        System.out.println("GA seeded done!");
     }
 
-    private static void resolveU(Map<Header, List<Object>> data, TimeLimit tLimit, Application app, Integer degrees) {
+    private static void resolveExpress(ResultColumns results, TimeLimit tLimit, Application app) {
+        // Launch resolver
+        results.add(Express.resolve(app));
+
         // Add execution time
-        data.get(Header.LIMIT_TIME).add(tLimit.getDuration().toMillis());
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, "Express");
 
-        if (data.containsKey(Header.RESOLVER)) {
-            data.get(Header.RESOLVER).add(String.format("U_%d", degrees));
-        }
+        System.out.println("Express done!");
+    }
 
+    private static void resolveU(ResultColumns results, TimeLimit tLimit, Application app, Integer degrees) {
         // Launch resolver
-        Utility.resolve(app, data, degrees);
+        results.add(Utility.resolve(app, degrees));
+
+        // Add execution time
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, String.format("U_%d", degrees));
 
         System.out.printf("U_%d done!%n", degrees);
     }
 
-    private static void resolveUM(Map<Header, List<Object>> data, TimeLimit tLimit, Application app, Integer degrees) {
+    private static void resolveU(ResultColumns results, TimeLimit tLimit, UtilityBase base, Integer degrees) {
+        // Launch resolver
+        results.add(Utility.resolve(base, degrees));
+
         // Add execution time
-        data.get(Header.LIMIT_TIME).add(tLimit.getDuration().toMillis());
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, String.format("U_%d", degrees));
 
-        if (data.containsKey(Header.RESOLVER)) {
-            data.get(Header.RESOLVER).add(String.format("UM_%d", degrees));
-        }
+        System.out.printf("U_%d done!%n", degrees);
+    }
 
+    private static void resolveUM(ResultColumns results, TimeLimit tLimit, Application app, Integer degrees) {
         // Launch resolver
-        UtilityModified.resolve(app, data, degrees);
+        results.add(UtilityModified.resolve(app, degrees));
+
+        // Add execution time
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, String.format("UM_%d", degrees));
 
         System.out.printf("UM_%d done!%n", degrees);
     }
 
-    private static void resolveRND(Long seed, Map<Header, List<Object>> data, TimeLimit tLimit, Application app) {
+    private static void resolveUM(ResultColumns results, TimeLimit tLimit, UtilityBase base, Integer degrees) {
+        // Launch resolver
+        results.add(UtilityModified.resolve(base, degrees));
+
         // Add execution time
-        data.get(Header.LIMIT_TIME).add(tLimit.getDuration().toMillis());
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, String.format("UM_%d", degrees));
 
-        if (data.containsKey(Header.RESOLVER)) {
-            data.get(Header.RESOLVER).add("RND");
-        }
+        System.out.printf("UM_%d done!%n", degrees);
+    }
 
+    private static void resolveRND(Long seed, ResultColumns results, TimeLimit tLimit, Application app) {
         // Resolve with random walking
-        RND.resolve(app, data, seed);
+        results.add(RND.resolve(app, seed));
+
+        // Add execution time
+        results.set(Header.LIMIT_TIME, tLimit.getDuration().toMillis());
+        results.set(Header.RESOLVER, "RND");
 
         System.out.println("Random done!");
     }
@@ -20,6 +20,7 @@ public class Applications {
     /**
      * Get a random application with the parameters specified
      *
+     * @param context         Context of the generation (locations and gate ids), one per application
      * @param providers       List of providers for this application
      * @param services        List of services for this application
      * @param qos             A list of attributes to take into account
@@ -30,12 +31,15 @@ public class Applications {
      * @return An application
      */
     public static Application get(
-        List<Provider> providers, List<Service> services, List<QoS> qos, Long seed, NormalizedMethod method,
-        Map<ArchitecturePattern, Double> probOfPatterns, Range<Integer> rangeComponents, Range<Integer> rangeProviders
+        GenerationContext context, List<Provider> providers, List<Service> services, List<QoS> qos, Long seed,
+        NormalizedMethod method, Map<ArchitecturePattern, Double> probOfPatterns, Range<Integer> rangeComponents,
+        Range<Integer> rangeProviders
     ) {
         List<Component> components = getComponents(services.size());
-        Architecture architecture = Architectures.get(components, probOfPatterns, rangeComponents, seed);
-        Application app = new Application(architecture, services, providers, Weights.get(qos), method, qos);
+        Architecture architecture = Architectures.get(context, components, probOfPatterns, rangeComponents, seed);
+        Application app = new Application(
+            context, architecture, services, providers, Weights.get(qos), method, qos
+        );
 
         if (qos.contains(QoS.LATENCY) || qos.contains(QoS.THROUGHPUT)) {
             // Set providers for gates
@@ -52,6 +56,16 @@ public class Applications {
         return app;
     }
 
+    public static Application get(
+        List<Provider> providers, List<Service> services, List<QoS> qos, Long seed, NormalizedMethod method,
+        Map<ArchitecturePattern, Double> probOfPatterns, Range<Integer> rangeComponents, Range<Integer> rangeProviders
+    ) {
+        return get(
+            GenerationContext.get(), providers, services, qos, seed, method, probOfPatterns, rangeComponents,
+            rangeProviders
+        );
+    }
+
     public static Application get(
         List<Provider> providers, List<Service> services, List<QoS> qos, Long seed, NormalizedMethod nMethod,
         Map<ArchitecturePattern, Double> probOfPatterns, Range<Integer> componentsRange
@@ -90,11 +104,11 @@ public class Applications {
     }
 
     public static Application get(
-        Integer nOfProviders, Integer nOfServices, List<QoS> qos, Long seed, NormalizedMethod nMethod,
-        Map<ArchitecturePattern, Double> probOfPatterns, Range<Integer> providersRange
+        GenerationContext context, Integer nOfProviders, Integer nOfServices, List<QoS> qos, Long seed,
+        NormalizedMethod nMethod, Map<ArchitecturePattern, Double> probOfPatterns, Range<Integer> providersRange
     ) {
         // Define providers and services
-        List<Provider> providers = Providers.get(nOfProviders, qos, seed);
+        List<Provider> providers = Providers.get(context, nOfProviders, qos, seed);
         List<Service> services;
 
         if (providersRange.hasRange()) {
@@ -103,7 +117,18 @@ public class Applications {
             services = Services.get(nOfServices, providers, providersRange);
         }
 
-        return get(providers, services, qos, seed, nMethod, probOfPatterns);
+        return get(
+            context, providers, services, qos, seed, nMethod, probOfPatterns, new Range<>(2, 10), null
+        );
+    }
+
+    public static Application get(
+        Integer nOfProviders, Integer nOfServices, List<QoS> qos, Long seed, NormalizedMethod nMethod,
+        Map<ArchitecturePattern, Double> probOfPatterns, Range<Integer> providersRange
+    ) {
+        return get(
+            GenerationContext.get(), nOfProviders, nOfServices, qos, seed, nMethod, probOfPatterns, providersRange
+        );
     }
 
     public static Application get(
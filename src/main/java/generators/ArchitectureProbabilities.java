@@ -3,14 +3,15 @@ package generators;
 import models.enums.ArchitecturePattern;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
 public class ArchitectureProbabilities {
 
     public static Map<ArchitecturePattern, Double> get(List<ArchitecturePattern> patterns, List<Double> probabilities) {
-        Map<ArchitecturePattern, Double> map = new HashMap<>();
+        // Patterns are iterated in the same order in every run, so a seed always generates the same architecture
+        Map<ArchitecturePattern, Double> map = new EnumMap<>(ArchitecturePattern.class);
 
         for (int i = 0; i < probabilities.size(); i++) {
             map.put(patterns.get(i), probabilities.get(i));
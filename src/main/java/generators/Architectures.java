@@ -8,11 +8,10 @@ import utils.Rand;
 import java.util.*;
 
 public class Architectures {
-    public static Integer GATE_ID;
-
     /**
      * Generate a random architecture with the components given and the patterns indicated.
      *
+     * @param context                 Context of the generation (locations of gates and sequence of gate ids)
      * @param components              List of components (Services)
      * @param probabilitiesOfPatterns Map where keys are patterns and values the probability to choose that pattern.
      * @param componentsRange         Number of components per architecture
@@ -20,8 +19,8 @@ public class Architectures {
      * @return A randomly generated architecture
      */
     public static Architecture get(
-        List<Component> components, Map<ArchitecturePattern, Double> probabilitiesOfPatterns,
-        Range<Integer> componentsRange, Long seed
+        GenerationContext context, List<Component> components,
+        Map<ArchitecturePattern, Double> probabilitiesOfPatterns, Range<Integer> componentsRange, Long seed
     ) {
         // Define batches list variable
         List<List<Component>> batches;
@@ -32,16 +31,23 @@ public class Architectures {
         // Shuffling
         Collections.shuffle(components, rnd);
         // Reset gate ID
-        Architectures.GATE_ID = 0;
+        context.resetGateIDs();
 
         while (components.size() > 1) {
             batches = toBatches(components, componentsRange, seed);
-            components = convertBatchesIntoPatterns(batches, probabilitiesOfPatterns, seed);
+            components = convertBatchesIntoPatterns(context, batches, probabilitiesOfPatterns, seed);
         }
 
         return (Architecture) components.get(0);
     }
 
+    public static Architecture get(
+        List<Component> components, Map<ArchitecturePattern, Double> probabilitiesOfPatterns,
+        Range<Integer> componentsRange, Long seed
+    ) {
+        return get(GenerationContext.get(), components, probabilitiesOfPatterns, componentsRange, seed);
+    }
+
     public static <T> List<List<T>> toBatches(List<T> elements, Range<Integer> componentsRange, Long seed) {
         // Random
         Random rnd = (seed >= 0) ? new Random(seed) : new Random();
@@ -86,7 +92,8 @@ public class Architectures {
     }
 
     private static List<Component> convertBatchesIntoPatterns(
-        List<List<Component>> batches, Map<ArchitecturePattern, Double> probabilitiesOfPatterns, Long seed
+        GenerationContext context, List<List<Component>> batches,
+        Map<ArchitecturePattern, Double> probabilitiesOfPatterns, Long seed
     ) {
         // 0. Random
         Random rnd = (seed >= 0) ? new Random(seed) : new Random();
@@ -136,13 +143,13 @@ public class Architectures {
                         }
 
                         // Set input and output gates
-                        c.setInputGate(Locations.getRandom(rnd));
-                        c.setOutputGate(Locations.getRandom(rnd));
+                        c.setInputGate(context.getRandomLocation(rnd));
+                        c.setOutputGate(context.getRandomLocation(rnd));
 
                         // Set gate ids
                         if (!(c instanceof Sequential)) {
-                            c.setInGateID(Architectures.GATE_ID++);
-                            c.setOutGateID(Architectures.GATE_ID++);
+                            c.setInGateID(context.nextGateID());
+                            c.setOutGateID(context.nextGateID());
                         }
 
                         break;
@@ -2,7 +2,9 @@ package generators;
 
 import models.applications.Gate;
 import models.applications.Provider;
+import models.auxiliary.Candidates;
 import models.auxiliary.Node;
+import models.auxiliary.NodeTraversal;
 import models.auxiliary.Range;
 
 import java.util.*;
@@ -11,60 +13,31 @@ import java.util.stream.IntStream;
 
 public class Gates {
     public static List<Gate> extract(Node root) {
-        // Walking through graph to extract gates
-        Set<Integer> ids = root.getNext().parallelStream()
-            .map(Gates::walking)
-            .flatMap(Collection::parallelStream)
-            .collect(Collectors.toSet());
-
-        return ids.parallelStream().sorted().map(i -> {
-            Gate g = new Gate(i);
-            g.setApp(root.getApp());
-            return g;
-        }).collect(Collectors.toList());
-    }
-
-    private static Set<Integer> walking(Node root) {
-        Set<Integer> ids = new HashSet<>();
-
-        // Get gate identifier
-        int gateID = root.getGateID();
-
-        if (gateID >= 0) {
-            ids.add(gateID);
-        }
-
-        Set<Integer> subIds = root.getNext().parallelStream()
-            .map(Gates::walking)
-            .flatMap(Collection::parallelStream)
-            .collect(Collectors.toSet());
-
-        ids.addAll(subIds);
-
-        return ids;
+        // Walking through graph (each node once) to extract gates
+        return NodeTraversal.preOrder(root).stream()
+            .mapToInt(Node::getGateID)
+            .filter(i -> i >= 0)
+            .distinct().sorted()
+            .mapToObj(i -> {
+                Gate g = new Gate(i);
+                g.setApp(root.getApp());
+                return g;
+            }).collect(Collectors.toList());
     }
 
     public static void setProviders(List<Gate> gates, List<Provider> providers, Range<Integer> range, Long seed) {
         // If no range is provided return a fixed providers list per service
         if (!range.hasRange()) {
-            List<Integer> providersIndexes = IntStream
-                .range(0, providers.size())
-                .parallel().boxed()
-                .collect(Collectors.toList());
+            // All gates share the same list
+            Candidates providersIndexes = Candidates.of(IntStream.range(0, providers.size()).toArray());
 
             for (Gate g : gates) {
                 g.addCandidates(providersIndexes);
             }
         } else {
-            // Prepare random
-            Random rnd = (seed >= 0) ? new Random(seed) : new Random();
-
-            // Discard first random number
-            rnd.nextDouble();
-
-            // Get providers size to be populated
+            // Each gate has its own random stream, so they are generated in parallel with the same result
+            long base = RandomStreams.base(seed);
             int pSize = providers.size(), to = range.to(), from = range.from();
-            List<Integer> listOfProviders = IntStream.range(0, pSize).boxed().collect(Collectors.toList());
 
             if (to > pSize) {
                 throw new RuntimeException(
@@ -72,7 +45,9 @@ public class Gates {
                 );
             }
 
-            for (Gate g : gates) {
+            gates.parallelStream().forEach(g -> {
+                SplittableRandom rnd = RandomStreams.of(base, RandomStreams.GATES, g.getID());
+
                 /*
                  * With the example ['P1', 'P2', 'P3', 'P4', ..., 'P10'] (length 10)
                  * - range statement will return a number between [from, to] (`to` limits is 10)
@@ -81,18 +56,9 @@ public class Gates {
                 // For each iteration get random provider from the list, [2, 3, 0, 8, 1, 10]
                 int nOfProviders = rnd.nextInt(to - from) + from;
 
-                // Shuffling providers list
-                Collections.shuffle(listOfProviders, rnd);
-
-                // Providers selected for current service
-                List<Integer> pService = new ArrayList<>();
-
-                for (int k = 0; k < nOfProviders; k++) {
-                    pService.add(listOfProviders.get(k));
-                }
-
-                g.addCandidates(pService);
-            }
+                // Providers selected for current gate, without shuffling all providers
+                g.addCandidates(Candidates.of(RandomStreams.sample(pSize, nOfProviders, rnd)));
+            });
         }
     }
 }
\ No newline at end of file
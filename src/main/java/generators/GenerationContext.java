@@ -0,0 +1,91 @@
+package generators;
+
+import models.auxiliary.DistanceMatrix;
+import models.geo.Location;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of the generation of an application: sample of locations, distances between them and sequence of gate ids.
+ * <p>
+ * Each application is generated with its own context, so several applications can be generated and solved at the
+ * same time. Locations and distances can't be modified once the context is built, only the gate ids change while an
+ * architecture is generated.
+ */
+public final class GenerationContext {
+    private final List<Location> _locations;
+    private final DistanceMatrix _distances;
+    // Next gate id of the architecture that is being generated
+    private final AtomicInteger _gateID;
+
+    // Distances of the default sample of locations, calculated the first time that they're needed
+    private static final class Default {
+        private static final GenerationContext CONTEXT = new GenerationContext(Locations.get());
+    }
+
+    public GenerationContext(List<Location> locations) {
+        this(Collections.unmodifiableList(new ArrayList<>(locations)), null);
+    }
+
+    private GenerationContext(List<Location> locations, DistanceMatrix distances) {
+        _locations = locations;
+        _distances = (distances == null) ? new DistanceMatrix(locations) : distances;
+        _gateID = new AtomicInteger();
+    }
+
+    /**
+     * Return a context with the default sample of locations (see `Locations.get`). Locations and distances are shared
+     * by all default contexts, but each one has its own sequence of gate ids.
+     */
+    public static GenerationContext get() {
+        return new GenerationContext(Default.CONTEXT._locations, Default.CONTEXT._distances);
+    }
+
+    /**
+     * Return a context with its own sample of locations
+     *
+     * @param seed Seed to select the locations (negative for a random selection)
+     */
+    public static GenerationContext of(Long seed) {
+        return new GenerationContext(Locations.sample(seed));
+    }
+
+    public List<Location> getLocations() {
+        return _locations;
+    }
+
+    public DistanceMatrix getDistances() {
+        return _distances;
+    }
+
+    public Location getRandomLocation(Random rnd) {
+        return Locations.getRandom(_locations, rnd);
+    }
+
+    public Location getRandomLocation(SplittableRandom rnd) {
+        return Locations.getRandom(_locations, rnd);
+    }
+
+    /**
+     * Restart the sequence of gate ids, before generating a new architecture
+     */
+    public void resetGateIDs() {
+        _gateID.set(0);
+    }
+
+    public int nextGateID() {
+        return _gateID.getAndIncrement();
+    }
+
+    /**
+     * Number of gate ids given since the last reset
+     */
+    public int getNOfGates() {
+        return _gateID.get();
+    }
+}
@@ -1,6 +1,7 @@
 package generators;
 
 import models.applications.Application;
+import models.auxiliary.CompactGraph;
 import models.auxiliary.DistanceMatrix;
 import models.auxiliary.Node;
 import models.geo.Location;
@@ -13,9 +14,6 @@ import java.util.Map;
 import java.util.Set;
 
 public class Graphs {
-    private final static Map<Node, Double> _ADJACENCY_MATRIX = new HashMap<>();
-    private final static Map<Pair<Node, Integer>, Double> _ADJACENCY_PROVIDER = new HashMap<>();
-
     public static Node get(Application app) {
         // Extract architecture
         Architecture architecture = app.getArchitecture();
@@ -36,6 +34,15 @@ public class Graphs {
         return x;
     }
 
+    /**
+     * Return the graph given in a compressed sparse row format, to work with it without nodes
+     *
+     * @param root Root of the graph of an application
+     */
+    public static CompactGraph compact(Node root) {
+        return new CompactGraph(root);
+    }
+
     private static Pair<Node, Node> getNext(Component c, Application app) {
         if (c instanceof Sequential) {
             return getNextSequential((Sequential) c, app);
@@ -205,22 +212,27 @@ public class Graphs {
         return new Pair<>(start, end);
     }
 
-    public static void mean(Application app) {
-
+    /**
+     * Return the mean distance from each node to its successors, with the distances of the application
+     */
+    public static Map<Node, Double> mean(Application app) {
+        Map<Node, Double> matrix = new HashMap<>();
         Node root = app.getGraph();
 
-        buildMatrix(root, root.getNext());
+        buildMatrix(matrix, app.getDistances(), root, root.getNext());
 
-       // throw new RuntimeException("Corta aquí");
+        return matrix;
     }
 
-    private static void buildMatrix(Node parent, List<Node> children) {
+    private static void buildMatrix(
+        Map<Node, Double> matrix, DistanceMatrix distances, Node parent, List<Node> children
+    ) {
         if (parent.getGateID() >= 0) {
             for (Node p : parent.getNext()) {
-                buildMatrix(p, p.getNext());
+                buildMatrix(matrix, distances, p, p.getNext());
             }
         } else if (children.isEmpty()) {
-            _ADJACENCY_MATRIX.put(parent, 0.);
+            matrix.put(parent, 0.);
         } else {
             Set<Location> parentLocations = parent.getLocations();
 
@@ -238,22 +250,17 @@ public class Graphs {
 
                 for (Node child : children) {
                     for (Location lChild : child.getLocations()) {
-                        total += DistanceMatrix.get().distance(lParent, lChild);
+                        total += distances.distance(lParent, lChild);
                         counter++;
                     }
 
                     // Recursive call
-                    buildMatrix(child, child.getNext());
+                    buildMatrix(matrix, distances, child, child.getNext());
                 }
             }
 
             // Populate matrix
-            _ADJACENCY_MATRIX.put(parent, total / counter);
+            matrix.put(parent, total / counter);
         }
     }
-
-    public static Map<Node, Double> getAdjacencyMatrix() {
-        return _ADJACENCY_MATRIX;
-    }
-
 }
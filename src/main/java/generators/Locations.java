@@ -1,68 +1,73 @@
 package generators;
 
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvException;
 import models.geo.Location;
+import utils.CSVImporter;
 import utils.ProjectPath;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
-import java.io.Reader;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.*;
 
 public final class Locations {
-    private static Locations _instance;
-    private final List<Location> _selectedPoints;
+    // Number of points selected to operate with them
+    private static final int SAMPLE_SIZE = 10;
+    // Seed of the default sample, so generations without its own context always use the same points
+    private static final long DEFAULT_SEED = 0L;
 
     private Locations() {
+    }
+
+    // All countries are read the first time that they're needed (class loading is thread-safe)
+    private static final class Countries {
+        private static final List<Location> ALL = readAll();
+    }
+
+    // Default sample of points, selected the first time that it's needed (class loading is thread-safe)
+    private static final class Default {
+        private static final List<Location> SELECTED = Collections.unmodifiableList(sample(DEFAULT_SEED));
+    }
+
+    private static List<Location> readAll() {
         File file = ProjectPath.fromDataFile("csv", "countries.csv");
-        Reader reader;
-        List<String[]> rawCountries;
 
         try {
-            reader = new FileReader(file);
-            rawCountries = readCountries(reader);
+            return Collections.unmodifiableList(CSVImporter.locations(file.toPath()));
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Cannot read countries file successfully, please check it.");
         }
-
-        // Get only a sample of points to operate with them
-        List<Location> locations = rawCountries.parallelStream().map(Location::of).collect(Collectors.toList());
-        Collections.shuffle(locations);
-        _selectedPoints = locations.subList(0, 10);
     }
 
+    /**
+     * Return the default sample of points, shared by all generations without its own context
+     */
     public static List<Location> get() {
-        if (_instance == null) {
-            _instance = new Locations();
-        }
-
-        return _instance._selectedPoints;
+        return Default.SELECTED;
     }
 
-    private static List<String[]> readCountries(Reader reader) throws IOException, CsvException {
-        // Read from reader indicated
-        CSVReader csvReader = new CSVReader(reader);
-        List<String[]> list = csvReader.readAll();
-
-        // Remove header
-        list.remove(0);
+    /**
+     * Return a new sample of points
+     *
+     * @param seed Seed to select the points (negative for a random selection)
+     */
+    public static List<Location> sample(Long seed) {
+        List<Location> locations = new ArrayList<>(Countries.ALL);
+        Collections.shuffle(locations, (seed >= 0) ? new Random(seed) : new Random());
+        return new ArrayList<>(locations.subList(0, SAMPLE_SIZE));
+    }
 
-        // Close files
-        reader.close();
-        csvReader.close();
+    public static Location getRandom(Random rnd) {
+        return getRandom(get(), rnd);
+    }
 
-        return list;
+    public static Location getRandom(SplittableRandom rnd) {
+        return getRandom(get(), rnd);
     }
 
-    public static Location getRandom(Random rnd) {
-        List<Location> locations = get();
+    public static Location getRandom(List<Location> locations, Random rnd) {
+        return locations.get(rnd.nextInt(locations.size()));
+    }
 
+    public static Location getRandom(List<Location> locations, SplittableRandom rnd) {
         return locations.get(rnd.nextInt(locations.size()));
     }
 }
@@ -8,6 +8,7 @@ import models.geo.Location;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Simple class to generate a list of providers with some specific configuration
@@ -16,44 +17,62 @@ public class Providers {
     /**
      * Return a list of 'nOfProviders' providers controlled with random instance
      *
+     * @param context      Context of the generation (locations of providers)
      * @param nOfProviders Number of random providers to get
      * @param seed         Seed to random execution
      * @param qos          List of QoS attributes to generate providers
      * @return List of providers
      */
-    public static List<Provider> get(Integer nOfProviders, List<QoS> qos, Long seed, Boolean sameProvider) {
-        // Prepare random
-        Random rnd = (seed >= 0) ? new Random(seed) : new Random();
-
-        // Discard first random number
-        rnd.nextDouble();
-
-        Faker faker = new Faker(rnd);
-        List<Provider> providers = new ArrayList<>();
-        Map<QoS, Double> attributes = getAttributes(qos, rnd);
+    public static List<Provider> get(
+        GenerationContext context, Integer nOfProviders, List<QoS> qos, Long seed, Boolean sameProvider
+    ) {
+        // Each provider has its own random stream, so they are generated in parallel with the same result
+        long base = RandomStreams.base(seed);
+        Map<QoS, Double> same = sameProvider ? getAttributes(qos, RandomStreams.of(base, RandomStreams.PROVIDERS, -1))
+            : null;
 
         // Adding connections information
         int connRanges = ConnRange.values().length;
 
-        for (int i = 0; i < nOfProviders; i++) {
-            String name = faker.superhero().name();
-
-            if (!sameProvider) {
-                attributes = getAttributes(qos, rnd);
-            }
+        return IntStream.range(0, nOfProviders).parallel().mapToObj(i -> {
+            SplittableRandom rnd = RandomStreams.of(base, RandomStreams.PROVIDERS, i);
+            Map<QoS, Double> attributes = sameProvider ? same : getAttributes(qos, rnd);
 
             // Get random location
-            Location location = Locations.getRandom(rnd);
+            Location location = context.getRandomLocation(rnd);
 
             // Get connection range
             ConnRange connRange = ConnRange.getRange(rnd.nextInt(connRanges));
 
-            // Create provider
-            Provider provider = new Provider(name, attributes, location, connRange);
-            providers.add(provider);
+            // Create provider, its name is generated only if it's needed
+            long nameSeed = RandomStreams.seed(base, RandomStreams.NAMES, i);
+            return new Provider(() -> name(nameSeed), attributes, location, connRange);
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Generate a random name with the seed given. Faker is expensive to build, so a single instance is reseeded for
+     * each name.
+     */
+    private static String name(long seed) {
+        synchronized (Names.RANDOM) {
+            Names.RANDOM.setSeed(seed);
+            return Names.FAKER.superhero().name();
         }
+    }
+
+    // Built the first time that a name is needed
+    private static final class Names {
+        private static final Random RANDOM = new Random();
+        private static final Faker FAKER = new Faker(RANDOM);
+    }
+
+    public static List<Provider> get(Integer nOfProviders, List<QoS> qos, Long seed, Boolean sameProvider) {
+        return get(GenerationContext.get(), nOfProviders, qos, seed, sameProvider);
+    }
 
-        return providers;
+    public static List<Provider> get(GenerationContext context, Integer nOfProviders, List<QoS> qos, Long seed) {
+        return get(context, nOfProviders, qos, seed, false);
     }
 
     public static List<Provider> get(Integer nOfProviders, List<QoS> qos, Long seed) {
@@ -81,7 +100,7 @@ public class Providers {
      * @param rnd A random instance to generate values of these attributes
      * @return A map whose keys are QoS attributes and values are double values.
      */
-    private static Map<QoS, Double> getAttributes(List<QoS> qos, Random rnd) {
+    private static Map<QoS, Double> getAttributes(List<QoS> qos, SplittableRandom rnd) {
         return qos.stream()
             .filter(q -> !q.equals(QoS.LATENCY) && !q.equals(QoS.THROUGHPUT))
             .map(q -> new AbstractMap.SimpleEntry<>(q, switch (q) {
@@ -0,0 +1,81 @@
+package generators;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Independent random streams for the entities generated (providers, services, gates...).
+ * <p>
+ * The stream of each entity only depends on the seed, the kind of entity and its index, so entities can be generated
+ * in parallel and in any order, and the instance is always the same whatever the number of threads is.
+ */
+public final class RandomStreams {
+    // Kinds of entities, to get different streams for the same index
+    public static final long PROVIDERS = 1, SERVICES = 2, GATES = 3, NAMES = 4;
+
+    private RandomStreams() {
+    }
+
+    /**
+     * Return the base seed of a generation: the seed given, or a random one if it's negative (random execution)
+     */
+    public static long base(Long seed) {
+        return (seed >= 0) ? seed : new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Return the random stream of an entity
+     *
+     * @param base  Base seed of the generation (see `base`)
+     * @param kind  Kind of entity
+     * @param index Index of the entity
+     */
+    public static SplittableRandom of(long base, long kind, long index) {
+        return new SplittableRandom(seed(base, kind, index));
+    }
+
+    /**
+     * Return a seed (for other random generators) of an entity, p.e. to generate its name
+     */
+    public static long seed(long base, long kind, long index) {
+        return mix(mix(base + kind * 0x9E3779B97F4A7C15L) + index);
+    }
+
+    /**
+     * SplitMix64 finalizer, so close inputs give unrelated seeds
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Sample `k` different values of [0, n) with a partial Fisher-Yates shuffle: only the first `k` positions are
+     * shuffled, and swapped positions are kept in a map, so it's O(k) whatever `n` is.
+     *
+     * @return Values sampled, in the order they are selected
+     */
+    public static int[] sample(int n, int k, SplittableRandom rnd) {
+        if (k > n) {
+            throw new RuntimeException(
+                "You have chosen a range of providers greater than those available, please check."
+            );
+        }
+
+        int[] sample = new int[k];
+        // Value of each swapped position (the rest of positions have its own index)
+        Map<Integer, Integer> swapped = new HashMap<>();
+
+        for (int i = 0; i < k; i++) {
+            int j = i + rnd.nextInt(n - i);
+            int vJ = swapped.getOrDefault(j, j), vI = swapped.getOrDefault(i, i);
+
+            sample[i] = vJ;
+            swapped.put(j, vI);
+        }
+
+        return sample;
+    }
+}
@@ -2,12 +2,11 @@ package generators;
 
 import models.applications.Provider;
 import models.applications.Service;
+import models.auxiliary.Candidates;
 import models.auxiliary.Range;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -20,13 +19,11 @@ public class Services {
      * @return A list of services
      */
     private static List<Service> get(Integer nOfServices, List<Provider> providers) {
-        List<Integer> providersIndexes = IntStream
-            .range(0, providers.size())
-            .parallel()
-            .boxed().collect(Collectors.toList());
+        // All services share the same list
+        Candidates providersIndexes = Candidates.of(IntStream.range(0, providers.size()).toArray());
 
         return IntStream.range(0, nOfServices)
-            .mapToObj(i -> new Service("W" + i, new ArrayList<>(providersIndexes)))
+            .mapToObj(i -> new Service("W" + i, providersIndexes))
             .collect(Collectors.toList());
     }
 
@@ -57,14 +54,9 @@ public class Services {
         if (!range.hasRange()) {
             return get(nOfServices, providers);
         } else {
-            // Prepare random
-            Random rnd = (seed >= 0) ? new Random(seed) : new Random();
-
-            // Discard first random number
-            rnd.nextDouble();
-
+            // Each service has its own random stream, so they are generated in parallel with the same result
+            long base = RandomStreams.base(seed);
             int pSize = providers.size(), to = range.to(), from = range.from();
-            List<Integer> listOfProviders = IntStream.range(0, pSize).boxed().collect(Collectors.toList());
 
             if (to > pSize) {
                 throw new RuntimeException(
@@ -72,7 +64,9 @@ public class Services {
                 );
             }
 
-            return IntStream.range(0, nOfServices).mapToObj(i -> {
+            return IntStream.range(0, nOfServices).parallel().mapToObj(i -> {
+                SplittableRandom rnd = RandomStreams.of(base, RandomStreams.SERVICES, i);
+
                 /*
                  * With the example ['P1', 'P2', 'P3', 'P4', ..., 'P10'] (length 10)
                  * - range statement will return a number between [from, to] (`to` limits is 10)
@@ -81,17 +75,8 @@ public class Services {
                 // For each iteration get random provider from the list, [2, 3, 0, 8, 1, 10]
                 int nOfProviders = rnd.nextInt(to - from) + from;
 
-                // Shuffling providers list
-                Collections.shuffle(listOfProviders, rnd);
-
-                // Providers selected for current service
-                List<Integer> pService = new ArrayList<>();
-
-                for (int k = 0; k < nOfProviders; k++) {
-                    pService.add(listOfProviders.get(k));
-                }
-
-                return new Service("W" + i, pService);
+                // Providers selected for current service, without shuffling all providers
+                return new Service("W" + i, Candidates.of(RandomStreams.sample(pSize, nOfProviders, rnd)));
             }).collect(Collectors.toList());
         }
     }
@@ -1,7 +1,6 @@
 package models.analyzers;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import models.applications.Application;
 import models.applications.Provider;
 import models.enums.QoS;
@@ -10,13 +9,11 @@ import models.patterns.Component;
 import models.patterns.IndexService;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import utils.InstanceJson;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.*;
 import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
 
 enum Format {
     Json("json"), Yaml("yml"), CSV("csv");
@@ -60,18 +57,22 @@ public class Extractor {
      * @param path A string to indicate the path to save information
      */
     public void extractArchitecture(String path) {
-        // Build a json architecture
-        JsonObject root = build(_app.getArchitecture());
-        // Prepare instance to the writer
-        FileWriter fileWriter;
+        // Write a json architecture while it's traversed
+        try (JsonWriter writer = _prepareJson(path + ".json")) {
+            build(writer, _app.getArchitecture());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-        try {
-            // Get instance of writer
-            fileWriter = _preparePath(path + ".json");
-            // Save information
-            fileWriter.write(root.toString());
-            // Always must close writer
-            fileWriter.close();
+    /**
+     * Extract the full instance of the application (see `InstanceJson`), so it can be read again
+     *
+     * @param path A string to indicate the path to save information
+     */
+    public void extractInstance(String path) {
+        try (Writer writer = new BufferedWriter(_preparePath(path + ".json"))) {
+            InstanceJson.write(_app, writer);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -92,32 +93,21 @@ public class Extractor {
     }
 
     public void extractSolutionJson(String path, List<Integer> genotype) {
-        // Build a json architecture
-        JsonArray root = new JsonArray();
+        // Names of all services, found with a single traversal
+        Map<Integer, String> names = names(_app.getArchitecture());
 
-        for (int i = 0; i < genotype.size(); i++) {
-            // Create instance of json object
-            JsonObject element = new JsonObject();
+        try (JsonWriter writer = _prepareJson(String.format("%s.%s", path, _format))) {
+            writer.beginArray();
 
-            // Set properties to the json element
-            String name = build(_app.getArchitecture(), i);
-            element.addProperty("name", name);
-            element.addProperty("provider", genotype.get(i));
-
-            // Add element
-            root.add(element);
-        }
-
-        // Prepare instance to the writer
-        FileWriter fileWriter;
+            for (int i = 0; i < genotype.size(); i++) {
+                // Set properties to the json element
+                writer.beginObject();
+                writer.name("name").value(names.get(i));
+                writer.name("provider").value(genotype.get(i));
+                writer.endObject();
+            }
 
-        try {
-            // Get instance of writer
-            fileWriter = _preparePath(String.format("%s.%s", path, _format));
-            // Save information
-            fileWriter.write(root.toString());
-            // Always must close writer
-            fileWriter.close();
+            writer.endArray();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -129,9 +119,11 @@ public class Extractor {
             String[] headers = new String[]{"PATH", "PROVIDER"};
             // Define CSV printer
             CSVPrinter printer = new CSVPrinter(fileWriter, CSVFormat.DEFAULT.withHeader(headers));
+            // Names of all services, found with a single traversal
+            Map<Integer, String> names = names(_app.getArchitecture());
 
             for (int i = 0; i < genotype.size(); i++) {
-                String name = build(_app.getArchitecture(), i);
+                String name = names.get(i);
                 String provider = String.valueOf(genotype.get(i));
 
                 printer.printRecord(name, provider);
@@ -150,121 +142,124 @@ public class Extractor {
      * @param path A string to indicate the path to save information
      */
     public void extractProviders(String path) {
-        // Build a json providers
-        JsonArray root = build(_app.getProviders());
-        // Prepare instance to the writer
-        FileWriter fileWriter;
-
-        try {
-            // Get instance of writer
-            fileWriter = _preparePath(path + ".json");
-            // Save information
-            fileWriter.write(root.toString());
-            // Always must close writer
-            fileWriter.close();
+        // Write json providers one by one
+        try (JsonWriter writer = _prepareJson(path + ".json")) {
+            build(writer, _app.getProviders());
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Internal recursive method to build a JsonObject from architecture
+     * Internal recursive method to write an architecture as a json object
      *
-     * @param root Root architecture
-     * @return A JsonObject that represent the architecture
+     * @param writer Writer of the json file
+     * @param root   Root architecture
      */
-    private JsonObject build(Architecture root) {
-        // Prepare json root
-        JsonObject jsonRoot = new JsonObject();
-
-        // Prepare components array
-        JsonArray components = new JsonArray();
-
-        // Set root
-        jsonRoot.addProperty("type", root.getName());
-        jsonRoot.add("components", components);
-
-        // Prepare services list
-        JsonArray services = new JsonArray();
-
-        // For each component
-        for (Component son : root.getComponents()) {
-            if (son.isBase()) {
-                // If component is base, then is a single service and get it index.
-                IndexService simpleSon = (IndexService) son;
-                services.add(simpleSon.getIService());
-                jsonRoot.add("services", services);
-            } else {
-                // Else, component is an architecture and call recursively this method.
-                Architecture complexSon = son.getArchitecture();
-                components.add(build(complexSon));
+    private void build(JsonWriter writer, Architecture root) throws IOException {
+        writer.beginObject();
+        writer.name("type").value(root.getName());
+
+        // Nested architectures first, and then services, as they were always written
+        if (root.getComponents().stream().anyMatch(son -> !son.isBase())) {
+            writer.name("components").beginArray();
+
+            for (Component son : root.getComponents()) {
+                if (!son.isBase()) {
+                    // Component is an architecture and call recursively this method.
+                    build(writer, son.getArchitecture());
+                }
             }
+
+            writer.endArray();
         }
 
-        // If this architecture hasn't any nested component, then remove this property.
-        if (components.isEmpty()) {
-            jsonRoot.remove("components");
+        if (root.getComponents().stream().anyMatch(Component::isBase)) {
+            writer.name("services").beginArray();
+
+            for (Component son : root.getComponents()) {
+                if (son.isBase()) {
+                    // Component is base, then is a single service and get it index.
+                    writer.value(((IndexService) son).getIService());
+                }
+            }
+
+            writer.endArray();
         }
 
-        return jsonRoot;
+        writer.endObject();
     }
 
     /**
-     * Internal method to build a JsonObject from providers
+     * Internal method to write providers as a json array
      *
-     * @param providers List of providers to build the response
-     * @return A JsonObject that represent the architecture
+     * @param writer    Writer of the json file
+     * @param providers List of providers to write
      */
-    private JsonArray build(List<Provider> providers) {
-        // Prepare providers json array
-        JsonArray jsonProviders = new JsonArray();
+    private void build(JsonWriter writer, List<Provider> providers) throws IOException {
+        writer.beginArray();
 
         // For each provider
         for (Provider p : providers) {
-            // Prepare json provider information
-            JsonObject jsonProvider = new JsonObject();
+            writer.beginObject();
             // Add name
-            jsonProvider.addProperty("name", p.getName());
+            writer.name("name").value(p.getName());
 
             // For each qos attribute
             for (QoS qos : p.getAttributes().keySet()) {
-                jsonProvider.addProperty(qos.toString(), p.getAttributeValue(qos));
+                writer.name(qos.toString()).value(p.getAttributeValue(qos));
             }
 
-            // Add this provider to list
-            jsonProviders.add(jsonProvider);
+            writer.endObject();
         }
 
-        return jsonProviders;
+        writer.endArray();
     }
 
     /**
-     * Internal method to build a JsonObject from solution
+     * Internal method to get the name of each service of an architecture, as the names of the architectures from
+     * the root to the service
      *
-     * @param component The component where search the service indicate
-     * @param iService  Index of the service to search
+     * @param root Root architecture
+     * @return Name of each service, by service index
      */
-    private String build(Component component, Integer iService) {
-
-        if (component.isBase()) {
-            IndexService service = (IndexService) component;
-
-            if (service.getIService().equals(iService)) {
-                return "";
-            }
-        } else {
-            Architecture architecture = component.getArchitecture();
-
-            for (Component subComponent : architecture.getComponents()) {
-                String name = build(subComponent, iService);
-
-                if (name != null) {
-                    return String.format("%s %s", architecture.getName(), name);
+    private Map<Integer, String> names(Component root) {
+        Map<Integer, String> names = new HashMap<>();
+        // Pending components with the names of its parents
+        Deque<Map.Entry<Component, String>> pending = new ArrayDeque<>();
+        pending.push(new AbstractMap.SimpleEntry<>(root, ""));
+
+        while (!pending.isEmpty()) {
+            Map.Entry<Component, String> entry = pending.pop();
+            Component component = entry.getKey();
+
+            if (component.isBase()) {
+                // The first one found in pre-order, as the recursive search did
+                names.putIfAbsent(((IndexService) component).getIService(), entry.getValue());
+            } else {
+                Architecture architecture = component.getArchitecture();
+                List<Component> subComponents = architecture.getComponents();
+
+                // In reverse order, so they are popped in order
+                for (int i = subComponents.size() - 1; i >= 0; i--) {
+                    pending.push(new AbstractMap.SimpleEntry<>(
+                        subComponents.get(i), entry.getValue() + architecture.getName() + " "
+                    ));
                 }
             }
         }
 
-        return null;
+        return names;
+    }
+
+    /**
+     * Open a streaming json writer in the path given (see `_preparePath`)
+     */
+    private JsonWriter _prepareJson(String path) throws IOException {
+        JsonWriter writer = new JsonWriter(new BufferedWriter(_preparePath(path)));
+        // QoS values can be NaN (p.e. normalized attributes with the same min and max values)
+        writer.setLenient(true);
+        return writer;
     }
 
     /**
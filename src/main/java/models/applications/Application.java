@@ -1,8 +1,8 @@
 package models.applications;
 
-import generators.Architectures;
+import generators.Gates;
+import generators.GenerationContext;
 import generators.Graphs;
-import generators.Locations;
 import io.jenetics.Genotype;
 import io.jenetics.IntegerGene;
 import models.auxiliary.*;
@@ -13,6 +13,7 @@ import models.enums.QoS;
 import models.geo.Location;
 import models.patterns.Architecture;
 import models.patterns.BaseComponent;
+import models.patterns.CompiledArchitecture;
 import org.javatuples.Pair;
 import utils.RunConf;
 import utils.ToDebug;
@@ -43,33 +44,32 @@ public class Application implements Serializable {
      */
     protected Map<Integer, Integer> _servicesToExplore, _gatesToExplore;
 
-    // Catalog of providers and services
-    protected final List<Provider> _providers;
-    protected final List<Service> _services;
-    protected List<Gate> _gates;
+    // Catalog of providers, services, gates and graph, shared with all copies and sub-problems (read only)
+    protected Catalog _catalog;
 
     // Weights and constraints to calculate application's value
-    protected final Map<QoS, Double> _weights;
+    protected Map<QoS, Double> _weights;
     // Hard constraints are constraints that if any of them aren't satisfied, then f(x) = 0
     protected Map<QoS, Constraint> _softConstraints, _hardConstraints;
 
-    // Normalizations for providers and normalizations for applications value.
-    protected final Map<QoS, Normalization> _providersNorm, _appNorm;
+    // Normalizations for applications value.
+    protected Map<QoS, Normalization> _appNorm;
+
+    /*
+     * Maps to explore, weights, constraints and normalization are shared with the copies of this application (copy on
+     * write): if this flag is false they could be shared, so they are cloned before the first modification.
+     */
+    private boolean _ownsOverlay;
 
     // Define constraints penalty
     protected Double _softConstraintsW;
 
-    // Define method to normalize
-    protected final NormalizedMethod _nMethod;
-
-    // Define QoS attributes used
-    protected final List<QoS> _qosList, _channelQoS, _providerQoS;
-
-    protected final Integer _nOfQoS;
-
-    // Latency variables
-    protected Location _inputPoint = null, _outputPoint = null;
-    protected Node _graph;
+    // Latency from each candidate to the successors of its component, built when it's needed
+    private transient volatile SuccessorLatencyIndex _latencyIndex;
+    // Bounds to normalize every subtree and graph segment, shared with sub-problems
+    private transient volatile NormalizationBounds _normalizationBounds;
+    // Reduced view of the candidates (skyline, clusters...), if it's defined the genotypes are positions over it
+    protected CandidateView _view;
 
     /**
      * This is a map where key is the index of service and key is the position of the selected provider.
@@ -78,75 +78,86 @@ public class Application implements Serializable {
      */
     protected ConcurrentMap<Long, ConcurrentMap<Integer, Integer>> _servicesComposition, _gatesComposition;
 
+    /**
+     * @param context Context where the architecture was generated (locations and distances between them)
+     */
     public Application(
-        Architecture architecture, List<Service> services, List<Provider> providers, Map<QoS, Double> weights,
-        Map<QoS, Constraint> softConstraints, Double softConstraintsW, Map<QoS, Constraint> hardConstraints,
-        NormalizedMethod nMethod, List<QoS> qosList
+        GenerationContext context, Architecture architecture, List<Service> services, List<Provider> providers,
+        Map<QoS, Double> weights, Map<QoS, Constraint> softConstraints, Double softConstraintsW,
+        Map<QoS, Constraint> hardConstraints, NormalizedMethod nMethod, List<QoS> qosList
     ) {
         _architecture = architecture;
-        _services = services;
-        _providers = providers;
         _weights = new ConcurrentHashMap<>(weights);
         _softConstraints = softConstraints;
         _softConstraintsW = softConstraintsW;
         _hardConstraints = hardConstraints;
+        _ownsOverlay = true;
 
-        // It is very important to have the elements of the QoS list ordered, because the channel-dependent attributes
-        // must come before the others.
-        _qosList = new ArrayList<>(qosList);
-        Collections.sort(_qosList);
-
-        _channelQoS = new ArrayList<>();
-        _providerQoS = new ArrayList<>();
-        _nOfQoS = qosList.size();
-
-        // Divide between channel and provider QoS.
-        for (QoS q : _qosList) {
-            switch (q) {
-                case THROUGHPUT, LATENCY -> _channelQoS.add(q);
-                default -> _providerQoS.add(q);
-            }
-        }
+        // Catalog without graph and gates, which are extracted from the application
+        _catalog = new Catalog(
+            providers, services, new ArrayList<>(), qosList, nMethod, new HashMap<>(), null, null,
+            context.getDistances(), null
+        );
 
         // To default all services are to explore
-        _servicesToExplore = new ConcurrentHashMap<>(IntStream.range(0, _services.size())
+        _servicesToExplore = new ConcurrentHashMap<>(IntStream.range(0, services.size())
             .parallel().mapToObj(i -> new AbstractMap.SimpleEntry<>(i, i))
             .collect(Collectors.toMap(AbstractMap.SimpleEntry::getKey, AbstractMap.SimpleEntry::getValue)));
         _gatesToExplore = new ConcurrentHashMap<>();
 
-        // Dictionaries to save normalization to improve application execution
-        _providersNorm = new ConcurrentHashMap<>();
+        // Dictionary to save normalization to improve application execution
         _appNorm = new ConcurrentHashMap<>();
-        // Set method to normalize
-        _nMethod = nMethod;
 
         // Initialize map of composition
         _servicesComposition = new ConcurrentHashMap<>();
         _gatesComposition = new ConcurrentHashMap<>();
 
         // If we want work with latency, need the latency's matrix.
-        if (!_channelQoS.isEmpty()) {
-            _inputPoint = Locations.get().get(0);
-            _outputPoint = Locations.get().get(0);
+        if (!getChannelQoS().isEmpty()) {
+            Location point = context.getLocations().get(0);
+            _catalog = new Catalog(
+                providers, services, new ArrayList<>(), qosList, nMethod, new HashMap<>(), point, point,
+                context.getDistances(), null
+            );
 
             // Extract graph
             Node root = Graphs.get(this);
-            _graph = root;
+            _catalog = _catalog.withGraph(root, Graphs.compact(root));
 
-            // Prepare list of gates
-            _gates = Arrays.asList(new Gate[Architectures.GATE_ID]);
+            // Extract gates from graph (ids of an architecture are consecutive from 0)
+            List<Gate> gates = Gates.extract(root);
 
-            // Extract gates from graph, and set candidates
-            IntStream.range(0, Architectures.GATE_ID).forEach(i -> {
-                Gate g = new Gate(i);
-                g.setApp(root.getApp());
-                _gates.set(i, g);
-            });
-        } else {
-            _gates = new ArrayList<>();
+            for (int i = 0; i < gates.size(); i++) {
+                if (gates.get(i).getID() != i) {
+                    throw new RuntimeException("Gate ids of the architecture aren't consecutive, please check it.");
+                }
+            }
+
+            _catalog = _catalog.withGates(gates);
         }
     }
 
+    public Application(
+        Architecture architecture, List<Service> services, List<Provider> providers, Map<QoS, Double> weights,
+        Map<QoS, Constraint> softConstraints, Double softConstraintsW, Map<QoS, Constraint> hardConstraints,
+        NormalizedMethod nMethod, List<QoS> qosList
+    ) {
+        this(
+            GenerationContext.get(), architecture, services, providers, weights, softConstraints, softConstraintsW,
+            hardConstraints, nMethod, qosList
+        );
+    }
+
+    public Application(
+        GenerationContext context, Architecture architecture, List<Service> services, List<Provider> providers,
+        Map<QoS, Double> weights, NormalizedMethod nMethod, List<QoS> qosList
+    ) {
+        this(
+            context, architecture, services, providers, weights, new HashMap<>(), 0., new HashMap<>(), nMethod,
+            qosList
+        );
+    }
+
     public Application(
         Architecture architecture, List<Service> services, List<Provider> providers, Map<QoS, Double> weights,
         NormalizedMethod nMethod, List<QoS> qosList
@@ -175,129 +186,103 @@ public class Application implements Serializable {
         _servicesComposition = new ConcurrentHashMap<>();
         _gatesComposition = new ConcurrentHashMap<>();
 
-        // MARK: Attributes that simply need a shallow copy
-        _services = new ArrayList<>(o._services);
-        _providers = new ArrayList<>(o._providers);
-        _gates = new ArrayList<>(o._gates);
-        _servicesToExplore = new ConcurrentHashMap<>(o._servicesToExplore);
-        _gatesToExplore = new ConcurrentHashMap<>(o._gatesToExplore);
-        _weights = new ConcurrentHashMap<>(o._weights);
-        _appNorm = new ConcurrentHashMap<>(o._appNorm);
-        _hardConstraints = new ConcurrentHashMap<>(o._hardConstraints);
-        _softConstraints = new ConcurrentHashMap<>(o._softConstraints);
+        // MARK: Catalog and overlay are shared, the overlay is cloned by the first one that modifies it
+        _catalog = o._catalog;
+
+        // The maps are read and `o` stops owning them at once, so `o` can't modify them after they are shared
+        synchronized (o) {
+            _servicesToExplore = o._servicesToExplore;
+            _gatesToExplore = o._gatesToExplore;
+            _weights = o._weights;
+            _appNorm = o._appNorm;
+            _hardConstraints = o._hardConstraints;
+            _softConstraints = o._softConstraints;
+            o._ownsOverlay = false;
+        }
 
         // These attributes aren't modified during multi-threading executions
         _softConstraintsW = o._softConstraintsW;
-        _providersNorm = o._providersNorm;
-        _nMethod = o._nMethod;
-        _qosList = o._qosList;
-        _providerQoS = o._providerQoS;
-        _channelQoS = o._channelQoS;
-        _nOfQoS = o._nOfQoS;
-        _inputPoint = o._inputPoint;
-        _outputPoint = o._outputPoint;
-        _graph = o._graph;
+        _view = o._view;
+        _normalizationBounds = o._normalizationBounds;
+    }
+
+    /**
+     * Clone the maps of the overlay if they could be shared with another application. It must be called before
+     * modifying any of them, holding the lock of this application until the modification is done.
+     */
+    private void _ownOverlay() {
+        if (!_ownsOverlay) {
+            _servicesToExplore = new ConcurrentHashMap<>(_servicesToExplore);
+            _gatesToExplore = new ConcurrentHashMap<>(_gatesToExplore);
+            _weights = new ConcurrentHashMap<>(_weights);
+            _appNorm = new ConcurrentHashMap<>(_appNorm);
+            _hardConstraints = new ConcurrentHashMap<>(_hardConstraints);
+            _softConstraints = new ConcurrentHashMap<>(_softConstraints);
+            _ownsOverlay = true;
+        }
     }
 
     /**
      * Calculate and update the minimum and maximum app required to normalize QoS attributes and constraints.
      * <p>
-     * We suppose that all single values are normalized between [0, 1] so we can create the higher (h) and the
-     * lower (l) provider and use it to calculate global min-max pair of values using architecture.
+     * We suppose that all single values are normalized between [0, 1], so the bounds of the application are the value
+     * of the architecture when all services have the higher (h) or the lower (l) value of the providers. They are
+     * looked up in the normalization bounds, computed once and shared with all sub-problems.
      */
     public void updateAppNormalization() {
-        Map<QoS, Double> hAttributes = new HashMap<>(), lAttributes = new HashMap<>();
-
-        for (Map.Entry<QoS, Normalization> entry : _providersNorm.entrySet()) {
-            hAttributes.put(entry.getKey(), entry.getValue().getMax());
-            lAttributes.put(entry.getKey(), entry.getValue().getMin());
-        }
-
-        // Create higher and lower providers
-        List<Provider> providers = List.of(
-            new Provider("Higher", hAttributes),
-            new Provider("Lower", lAttributes)
-        );
+        // Bounds of all subtrees, shared with the application which this one is a sub-problem
+        NormalizationBounds bounds = getNormalizationBounds();
+        Map<QoS, Normalization> appNorm = new HashMap<>();
 
         // For each qos attribute of our application
-        for (QoS k : _providersNorm.keySet()) {
-            // Define min-max pair
-            MinMax minMax = new MinMax();
-
+        for (QoS k : getProvidersNorm().keySet()) {
             if (k.equals(QoS.AVAILABILITY) || k.equals(QoS.RELIABILITY)) {
-                minMax.setMinMax(0.);
-                minMax.setMinMax(1.);
+                appNorm.put(k, new Normalization(0., 1.));
             } else {
-                for (Provider provider : providers) {
-                    // Add this provider
-                    _providers.add(provider);
-                    // Get last index for that provider
-                    int lastProvider = _providers.size() - 1;
-                    // Define services composition
-                    List<Integer> composition = Arrays.asList(
-                        new Integer[_servicesToExplore.size() + _gatesToExplore.size()]
-                    );
-
-                    // All services and gates have selected that provider
-                    for (Map.Entry<Integer, Integer> e : _servicesToExplore.entrySet()) {
-                        Integer iService = e.getKey(), iGenotype = e.getValue();
-                        Service s = getService(iService);
-                        s.addCandidate(lastProvider);
-                        composition.set(iGenotype, s.getCandidates().size() - 1);
-                    }
-
-                    for (Map.Entry<Integer, Integer> e : _gatesToExplore.entrySet()) {
-                        Integer iGate = e.getKey(), iGenotype = e.getValue();
-                        Gate g = getGate(iGate);
-                        g.addCandidate(lastProvider);
-                        composition.set(iGenotype, g.getCandidates().size() - 1);
-                    }
-
-                    double val = _architecture.value(this, k, composition);
-
-                    // Get min-max value for a architecture
-                    minMax.setMinMax(val);
-
-                    // Undo previous process
-                    _providers.remove(provider);
-
-                    // Remove selected provider from all services and gates
-                    for (Map.Entry<Integer, Integer> e : _servicesToExplore.entrySet()) {
-                        Integer iService = e.getKey();
-                        Service s = getService(iService);
-                        s.removeCandidate(lastProvider);
-                    }
-
-                    for (Map.Entry<Integer, Integer> e : _gatesToExplore.entrySet()) {
-                        Integer iGate = e.getKey();
-                        Gate g = getGate(iGate);
-                        g.removeCandidate(lastProvider);
-                    }
-                }
+                // Min-max value for the architecture with the higher and lower values
+                appNorm.put(k, bounds.get(_architecture, k));
             }
-
-            // Update app-normalization
-            _appNorm.put(k, new Normalization(minMax.getMin(), minMax.getMax()));
         }
 
-        // Clean fake compositions
-        _servicesComposition.clear();
-        _gatesComposition.clear();
+        // If qos list contains latency or throughput, get its normalization from the beginning of the graph
+        for (QoS k : getChannelQoS()) {
+            appNorm.put(k, bounds.get(this, getGraph(), k));
+        }
 
-        // If qos list contains latency, calculate latency normalization for the application
-        if (_channelQoS.contains(QoS.LATENCY)) {
-            Pair<Double, Double> minMax = Latency.minMax(_graph);
-            _appNorm.put(QoS.LATENCY, new Normalization(minMax.getValue0(), minMax.getValue1()));
+        synchronized (this) {
+            _ownOverlay();
+            _appNorm.putAll(appNorm);
         }
+    }
 
-        if (_channelQoS.contains(QoS.THROUGHPUT)) {
-            Pair<Double, Double> minMax = Throughput.minMax(_graph);
-            _appNorm.put(QoS.THROUGHPUT, new Normalization(minMax.getValue0(), minMax.getValue1()));
+    /**
+     * Return the normalization bounds of this application, building them the first time.
+     *
+     * @return Bounds of every subtree of the architecture and every segment of the graph
+     */
+    public NormalizationBounds getNormalizationBounds() {
+        NormalizationBounds bounds = _normalizationBounds;
+
+        if (bounds == null) {
+            synchronized (this) {
+                bounds = _normalizationBounds;
+
+                if (bounds == null) {
+                    bounds = new NormalizationBounds(this);
+                    _normalizationBounds = bounds;
+                }
+            }
         }
+
+        return bounds;
+    }
+
+    public Catalog getCatalog() {
+        return _catalog;
     }
 
     public Integer getNOfQoS() {
-        return _nOfQoS;
+        return _catalog.getNOfQoS();
     }
 
     /**
@@ -306,35 +291,52 @@ public class Application implements Serializable {
      * @return A list of services
      */
     public List<Service> getServices() {
-        return _services;
+        return _catalog.getServices();
     }
 
     public List<Provider> getProviders() {
-        return _providers;
+        return _catalog.getProviders();
     }
 
     public Provider getProvider(Integer i) {
-        return _providers.get(i);
+        return _catalog.getProviders().get(i);
     }
 
     public Map<QoS, Double> getWeights() {
-        return _weights;
+        return Collections.unmodifiableMap(_weights);
     }
 
     public Map<QoS, Constraint> getSoftConstraints() {
-        return _softConstraints;
+        return Collections.unmodifiableMap(_softConstraints);
     }
 
-    public void putSoftConstraint(QoS qos, Constraint constraint) {
+    public synchronized void putSoftConstraint(QoS qos, Constraint constraint) {
+        _ownOverlay();
         _softConstraints.put(qos, constraint);
     }
 
     public Map<QoS, Normalization> getAppNorm() {
-        return _appNorm;
+        return Collections.unmodifiableMap(_appNorm);
     }
 
     public Map<QoS, Normalization> getProvidersNorm() {
-        return _providersNorm;
+        return _catalog.getProvidersNorm();
+    }
+
+    /**
+     * Set the normalization of the providers without computing it again (p.e. read from an instance file), the
+     * normalized values must be already set in the providers.
+     */
+    public void setProvidersNorm(Map<QoS, Normalization> providersNorm) {
+        _catalog = _catalog.withProvidersNorm(providersNorm);
+        _normalizationBounds = null;
+    }
+
+    /**
+     * Set the normalization of the application without computing it again (p.e. read from an instance file)
+     */
+    public synchronized void setAppNorm(Map<QoS, Normalization> appNorm) {
+        _appNorm = new ConcurrentHashMap<>(appNorm);
     }
 
     public Architecture getArchitecture() {
@@ -350,15 +352,44 @@ public class Application implements Serializable {
     }
 
     public void setGraph(Node root) {
-        _graph = root;
+        _catalog = _catalog.withGraph(root, Graphs.compact(root));
+        _latencyIndex = null;
+        _normalizationBounds = null;
     }
 
     public Node getGraph() {
-        return _graph;
+        return _catalog.getGraph();
     }
 
-    public void cleanServicesToExplore() {
-        _servicesToExplore.clear();
+    public CompactGraph getCompactGraph() {
+        return _catalog.getCompactGraph();
+    }
+
+    /**
+     * Return the latency index of this application, building it the first time.
+     *
+     * @return Latency from each candidate to the successors of its component
+     */
+    public SuccessorLatencyIndex getLatencyIndex() {
+        SuccessorLatencyIndex index = _latencyIndex;
+
+        if (index == null) {
+            synchronized (this) {
+                index = _latencyIndex;
+
+                if (index == null) {
+                    index = new SuccessorLatencyIndex(this);
+                    _latencyIndex = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    public synchronized void cleanServicesToExplore() {
+        _servicesToExplore = new ConcurrentHashMap<>();
+        _latencyIndex = null;
     }
 
     public Integer getServiceIProvider(Long threadId, Integer iService) {
@@ -396,8 +427,8 @@ public class Application implements Serializable {
             weight = entry.getValue();
 
             val = switch (qos) {
-                case LATENCY -> Latency.get(_graph, threadId);
-                case THROUGHPUT -> Throughput.get(_graph, threadId);
+                case LATENCY -> Latency.get(getGraph(), threadId);
+                case THROUGHPUT -> Throughput.get(getGraph(), threadId);
                 default -> _architecture.value(this, qos, threadId);
             };
 
@@ -419,7 +450,7 @@ public class Application implements Serializable {
             boolean toMinimize = qos.getObjective() == ObjectiveFunction.MINIMIZE;
 
             // Apply transform function to value
-            double nVal = norm.normalize(val, toMinimize, _nMethod);
+            double nVal = norm.normalize(val, toMinimize, getMethod());
 
             // Accumulate this value multiply by it weight
             fitness += nVal * weight;
@@ -444,8 +475,8 @@ public class Application implements Serializable {
             weight = entry.getValue();
 
             val = switch (qos) {
-                case LATENCY -> Latency.get(_graph, threadId);
-                case THROUGHPUT -> Throughput.get(_graph, threadId);
+                case LATENCY -> Latency.get(getGraph(), threadId);
+                case THROUGHPUT -> Throughput.get(getGraph(), threadId);
                 default -> _architecture.value(this, qos, threadId);
             };
 
@@ -454,7 +485,7 @@ public class Application implements Serializable {
             boolean toMinimize = qos.getObjective() == ObjectiveFunction.MINIMIZE;
 
             // Apply transform function to value
-            double nVal = norm.normalize(val, toMinimize, _nMethod);
+            double nVal = norm.normalize(val, toMinimize, getMethod());
 
             // Accumulate this value multiply by it weight
             fitness += nVal * weight;
@@ -474,8 +505,8 @@ public class Application implements Serializable {
 
             // Extract value of this architecture
             val = switch (qos) {
-                case LATENCY -> Latency.get(_graph, composition);
-                case THROUGHPUT -> Throughput.get(_graph, composition);
+                case LATENCY -> Latency.get(getCompactGraph(), this, composition);
+                case THROUGHPUT -> Throughput.get(getCompactGraph(), this, composition);
                 default -> _architecture.value(this, qos, composition);
             };
 
@@ -484,7 +515,7 @@ public class Application implements Serializable {
             boolean toMinimize = qos.getObjective() == ObjectiveFunction.MINIMIZE;
 
             // Apply transform function to value
-            double nVal = norm.normalize(val, toMinimize, _nMethod);
+            double nVal = norm.normalize(val, toMinimize, getMethod());
 
             // Accumulate this value multiply by it weight
             fitness += nVal * weight;
@@ -505,8 +536,8 @@ public class Application implements Serializable {
 
             // Extract value of this architecture
             val = switch (qos) {
-                case LATENCY -> Latency.get(_graph, composition);
-                case THROUGHPUT -> Throughput.get(_graph, composition);
+                case LATENCY -> Latency.get(getCompactGraph(), this, composition);
+                case THROUGHPUT -> Throughput.get(getCompactGraph(), this, composition);
                 default -> _architecture.value(this, qos, composition);
             };
 
@@ -528,7 +559,7 @@ public class Application implements Serializable {
             boolean toMinimize = qos.getObjective() == ObjectiveFunction.MINIMIZE;
 
             // Apply transform function to value
-            double nVal = norm.normalize(val, toMinimize, _nMethod);
+            double nVal = norm.normalize(val, toMinimize, getMethod());
 
             // Accumulate this value multiply by it weight
             fitness += nVal * weight;
@@ -545,7 +576,7 @@ public class Application implements Serializable {
 
     @Override
     public String toString() {
-        return String.format("Application{%n architecture: %s,%n services: %s,%n weights: %s%n}", _architecture, _services, _weights);
+        return String.format("Application{%n architecture: %s,%n services: %s,%n weights: %s%n}", _architecture, getServices(), _weights);
     }
 
     // MARK: This function must be synchronized?
@@ -615,7 +646,8 @@ public class Application implements Serializable {
             genotype.add(gt.get(i).gene().allele());
         }
 
-        return copy(genotype);
+        // Genes of a reduced search are positions over the view
+        return copy((_view == null) ? genotype : _view.toOriginal(this, genotype));
     }
 
     public Pair<Application, List<Integer>> copyPair(Genotype<IntegerGene> gt) {
@@ -625,7 +657,7 @@ public class Application implements Serializable {
             genotype.add(gt.get(i).gene().allele());
         }
 
-        return new Pair<>(this, genotype);
+        return new Pair<>(this, (_view == null) ? genotype : _view.toOriginal(this, genotype));
     }
 
     /**
@@ -647,11 +679,15 @@ public class Application implements Serializable {
 
     public void updateProvidersNormalization() {
         Map<QoS, MinMax> providersMinMax = new HashMap<>();
+        // Bounds depend on the providers normalization
+        _normalizationBounds = null;
+
+        Map<QoS, Normalization> providersNorm = new HashMap<>();
 
         // Get min and max attributes between all providers by QoS attribute
-        for (Provider p : _providers) {
+        for (Provider p : getProviders()) {
             // For each attribute
-            for (QoS qos : _providerQoS) {
+            for (QoS qos : getProviderQoS()) {
                 // Get value
                 Double value = p.getAttributeValue(qos);
                 // Update min-max value pair
@@ -662,23 +698,25 @@ public class Application implements Serializable {
         }
 
         // Get global values for normalize
-        for (QoS qos : _providerQoS) {
+        for (QoS qos : getProviderQoS()) {
             MinMax minMax = providersMinMax.get(qos);
 
             // Apply transform function
             Normalization norm = new Normalization(minMax.getMin(), minMax.getMax());
 
-            _providersNorm.put(qos, norm);
+            providersNorm.put(qos, norm);
             boolean toMinimize = qos.getObjective().equals(ObjectiveFunction.MINIMIZE);
 
-            for (Provider p : _providers) {
-                p.setNormalizedValue(qos, norm.normalize(p.getAttributeValue(qos), toMinimize, _nMethod));
+            for (Provider p : getProviders()) {
+                p.setNormalizedValue(qos, norm.normalize(p.getAttributeValue(qos), toMinimize, getMethod()));
             }
         }
+
+        _catalog = _catalog.withProvidersNorm(providersNorm);
     }
 
     public Service getService(Integer i) {
-        return _services.get(i);
+        return _catalog.getServices().get(i);
     }
 
     public Provider convertToProvider(Long threadId) {
@@ -687,7 +725,7 @@ public class Application implements Serializable {
         Provider p = new Provider("F_P", attributes);
 
         // Add application's value for each attribute
-        for (QoS qos : _providerQoS) {
+        for (QoS qos : getProviderQoS()) {
             p.getAttributes().put(qos, _architecture.value(this, qos, threadId));
             p.getNormalized().put(qos, _architecture.valueN(this, qos, threadId));
         }
@@ -696,7 +734,18 @@ public class Application implements Serializable {
     }
 
     public Map<Integer, Integer> getServicesToExplore() {
-        return _servicesToExplore;
+        return Collections.unmodifiableMap(_servicesToExplore);
+    }
+
+    /**
+     * Stop exploring the services given (they have already a provider selected)
+     *
+     * @param iServices Indexes of services
+     */
+    public synchronized void removeServicesToExplore(Collection<Integer> iServices) {
+        _ownOverlay();
+        _servicesToExplore.keySet().removeAll(iServices);
+        _latencyIndex = null;
     }
 
     /**
@@ -710,18 +759,20 @@ public class Application implements Serializable {
     }
 
     public Map<Integer, Integer> getGatesToExplore() {
-        return _gatesToExplore;
+        return Collections.unmodifiableMap(_gatesToExplore);
     }
 
     public Map<QoS, Constraint> getHardConstraints() {
-        return _hardConstraints;
+        return Collections.unmodifiableMap(_hardConstraints);
     }
 
-    public void putHardConstraints(QoS key, Constraint value) {
+    public synchronized void putHardConstraints(QoS key, Constraint value) {
+        _ownOverlay();
         _hardConstraints.put(key, value);
     }
 
-    public void putWeights(QoS key, Double value) {
+    public synchronized void putWeights(QoS key, Double value) {
+        _ownOverlay();
         _weights.put(key, value);
     }
 
@@ -730,51 +781,116 @@ public class Application implements Serializable {
      * providers of the previous and following services.
      */
     public void setGatesProviders() {
-        setGatesProviders(this, _graph, _graph.getNext().get(0));
+        CompactGraph graph = getCompactGraph();
+
+        // Each edge once, although branches join again in the same vertices
+        graph.forEachEdge((father, current, edge) -> {
+            if (graph.getKind(current) == CompactGraph.GATE) {
+                // Get providers (A U B)
+                ProviderSet aProviders = graph.getProvidersIndex(this, father);
+                ProviderSet bProviders = graph.getProvidersIndex(this, current);
+
+                // C = A U B
+                ProviderSet union = aProviders.union(bProviders);
+
+                // Set C into current gate
+                Gate gate = getGate(graph.getGateID(current));
+                gate.addCandidates(Candidates.of(union.toArray()));
+            }
+        });
     }
 
-    private void setGatesProviders(Application app, Node father, Node current) {
-        if (current.getGateID() >= 0) {
-            // Get providers (A U B)
-            Set<Integer> aProviders = father.getProvidersIndex(app);
-            Set<Integer> bProviders = current.getProvidersIndex(app);
+    /**
+     * Estimate the best and the worst provider of the catalog, scoring each provider as if it was selected by all
+     * services (uniform composition).
+     * <p>
+     * Each provider is an independent task over this application (read only): provider QoS are aggregated with the
+     * compiled architecture and a stack of its own, so no copies or shared compositions are needed.
+     *
+     * @return A pair (best, worst), where each one is a pair (index of provider, fitness estimated)
+     */
+    public Pair<Pair<Integer, Double>, Pair<Integer, Double>> estimateBestAndWorstProviders() {
+        int nOfProviders = getProviders().size();
+
+        if (nOfProviders == 0) {
+            throw new NoSuchElementException();
+        }
 
-            // C = A U B
-            Set<Integer> union = new HashSet<>(aProviders);
-            union.addAll(bProviders);
+        CompiledArchitecture compiled = new CompiledArchitecture(_architecture, Collections.emptyMap());
+        int size = _servicesToExplore.size() + _gatesToExplore.size();
+
+        // 1. Score each provider in parallel
+        double[] estimations = IntStream.range(0, nOfProviders).parallel()
+            .mapToDouble(x -> uniformFitness(x, compiled, new double[compiled.getStackSize()], size))
+            .toArray();
+
+        // 2. Get the best and the worst provider (first one with ties)
+        int best = 0, worst = 0;
+
+        for (int x = 1; x < nOfProviders; x++) {
+            if (estimations[x] > estimations[best]) {
+                best = x;
+            }
 
-            // Set C into current gate
-            Gate gate = getGate(current.getGateID());
-            gate.addCandidates(new ArrayList<>(union));
+            if (estimations[x] < estimations[worst]) {
+                worst = x;
+            }
         }
 
-        current.getNext().forEach(n -> setGatesProviders(app, current, n));
+        return new Pair<>(new Pair<>(best, estimations[best]), new Pair<>(worst, estimations[worst]));
     }
 
-    public Pair<Pair<Integer, Double>, Pair<Integer, Double>> estimateBestAndWorstProviders() {
+    /**
+     * Fitness of the composition where all services and gates have selected the provider given
+     *
+     * @param x     Global index of the provider
+     * @param stack Auxiliary buffer of this task
+     * @param size  Size of the composition (services and gates)
+     * @return Fitness of the uniform composition
+     */
+    private double uniformFitness(int x, CompiledArchitecture compiled, double[] stack, int size) {
+        Provider provider = getProvider(x);
+        // Graph functions read global indexes of providers
+        List<Integer> composition = Collections.nCopies(size, x);
+        boolean withConstraints = !_softConstraints.isEmpty() || !_hardConstraints.isEmpty();
+        double fitness = 0., softConstraintsFailed = 0.;
 
-        Map<Integer, Double> providersEstimations = IntStream.range(0, getProviders().size())
-            .parallel().mapToObj(x -> {
-                Application copy = copy();
-                copy._architecture.getIndexServices().parallelStream().forEach(
-                    iService -> copy.setServiceComposition(0L, iService.getIService(), x)
-                );
-                return new AbstractMap.SimpleEntry<>(x, copy.fitness());
-            }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        // Get the best provider
-        Map.Entry<Integer, Double> bestProviderData = providersEstimations.entrySet()
-            .parallelStream().max(Map.Entry.comparingByValue())
-            .orElseThrow(NoSuchElementException::new);
-        // Get the worst provider
-        Map.Entry<Integer, Double> worstProviderData = providersEstimations.entrySet()
-            .parallelStream().min(Map.Entry.comparingByValue())
-            .orElseThrow(NoSuchElementException::new);
-
-        return new Pair<>(
-            new Pair<>(bestProviderData.getKey(), bestProviderData.getValue()),
-            new Pair<>(worstProviderData.getKey(), worstProviderData.getValue())
-        );
+        for (Map.Entry<QoS, Double> entry : _weights.entrySet()) {
+            QoS qos = entry.getKey();
+
+            // Extract value of this architecture
+            double val = switch (qos) {
+                case LATENCY -> Latency.get(getCompactGraph(), this, composition);
+                case THROUGHPUT -> Throughput.get(getCompactGraph(), this, composition);
+                default -> compiled.value(qos, provider.getAttributeValue(qos), stack);
+            };
+
+            if (withConstraints) {
+                Constraint softConstraint = _softConstraints.get(qos), hardConstraint = _hardConstraints.get(qos);
+
+                // If this composition doesn't satisfy a hard constraint, then its fitness is 0
+                if (hardConstraint != null && hardConstraint.isInvalid(val)) {
+                    return 0.;
+                }
+
+                if (softConstraint != null && softConstraint.isInvalid(val)) {
+                    softConstraintsFailed++;
+                }
+            }
+
+            // Normalize value and accumulate it multiply by its weight
+            Normalization norm = _appNorm.get(qos);
+            boolean toMinimize = qos.getObjective() == ObjectiveFunction.MINIMIZE;
+            fitness += norm.normalize(val, toMinimize, getMethod()) * entry.getValue();
+        }
+
+        if (withConstraints) {
+            // f = (n * penalty) + ((1 - penalty) * f)
+            double n = 1. - (softConstraintsFailed / Math.max(_softConstraints.size(), 1.));
+            fitness = (n * _softConstraintsW) + ((1 - _softConstraintsW) * fitness);
+        }
+
+        return fitness;
     }
 
     /**
@@ -856,7 +972,7 @@ public class Application implements Serializable {
             }
 
             // Normalize value
-            double nVal = norm.normalize(val, toMinimize, _nMethod);
+            double nVal = norm.normalize(val, toMinimize, getMethod());
 
             // Accumulate this value multiply by it weight
             fitness += nVal * weight;
@@ -896,7 +1012,7 @@ public class Application implements Serializable {
             }
 
             // Normalize value
-            double nVal = norm.normalize(val, toMinimize, _nMethod);
+            double nVal = norm.normalize(val, toMinimize, getMethod());
 
             // Accumulate this value multiply by it weight
             fitness += nVal * weight;
@@ -912,19 +1028,19 @@ public class Application implements Serializable {
     }
 
     public Integer getQoSSize() {
-        return _nOfQoS;
+        return _catalog.getNOfQoS();
     }
 
     public List<QoS> getChannelQoS() {
-        return _channelQoS;
+        return _catalog.getChannelQoS();
     }
 
     public List<QoS> getProviderQoS() {
-        return _providerQoS;
+        return _catalog.getProviderQoS();
     }
 
     public List<QoS> getQoSList() {
-        return _qosList;
+        return _catalog.getQoSList();
     }
 
     public Double fitness(Map<Integer, Integer> composition) {
@@ -938,46 +1054,69 @@ public class Application implements Serializable {
     }
 
     public Location getInputPoint() {
-        return _inputPoint;
+        return _catalog.getInputPoint();
     }
 
     public Location getOutputPoint() {
-        return _outputPoint;
+        return _catalog.getOutputPoint();
+    }
+
+    public DistanceMatrix getDistances() {
+        return _catalog.getDistances();
     }
 
     public void setGates(List<Gate> gates) {
-        _gates = gates;
+        _catalog = _catalog.withGates(gates);
+        _latencyIndex = null;
+        _normalizationBounds = null;
+        _view = null;
+    }
+
+    public CandidateView getCandidateView() {
+        return _view;
+    }
+
+    /**
+     * Restrict the search of this application (and its sub-problems) to a reduced view of the candidates. Genotypes
+     * given by problems are positions over the view from now on, and they are decoded into the original positions.
+     *
+     * @param view View of the candidates of this application, or null to search over all candidates
+     */
+    public void setCandidateView(CandidateView view) {
+        _view = view;
     }
 
     public List<Gate> getGates() {
-        return _gates;
+        return _catalog.getGates();
     }
 
     public Gate getGate(Integer id) {
-        return _gates.get(id);
+        return _catalog.getGates().get(id);
     }
 
-    public void updateGatesToExplore() {
+    public synchronized void updateGatesToExplore() {
         int offset = _servicesToExplore.size();
 
-        _gatesToExplore = new ConcurrentHashMap<>(IntStream.range(0, _gates.size())
+        _gatesToExplore = new ConcurrentHashMap<>(IntStream.range(0, getGates().size())
             .parallel().mapToObj(i -> new AbstractMap.SimpleEntry<>(i, i + offset))
             .collect(Collectors.toMap(AbstractMap.SimpleEntry::getKey, AbstractMap.SimpleEntry::getValue)));
+        _latencyIndex = null;
     }
 
     public NormalizedMethod getMethod() {
-        return _nMethod;
+        return _catalog.getMethod();
     }
 
     public Double getSoftConstraintsW() {
         return _softConstraintsW;
     }
 
-    public void setServicesToExplore(ConcurrentMap<Integer, Integer> servicesToExplore) {
+    public synchronized void setServicesToExplore(ConcurrentMap<Integer, Integer> servicesToExplore) {
         _servicesToExplore = servicesToExplore;
+        _latencyIndex = null;
     }
 
-    public void setSoftConstraints(Map<QoS, Constraint> softConstraints) {
+    public synchronized void setSoftConstraints(Map<QoS, Constraint> softConstraints) {
         _softConstraints = softConstraints;
     }
 
@@ -0,0 +1,230 @@
+package models.applications;
+
+import models.auxiliary.CompactGraph;
+import models.auxiliary.DistanceMatrix;
+import models.auxiliary.LocationClasses;
+import models.auxiliary.Node;
+import models.auxiliary.Normalization;
+import models.auxiliary.ProviderSet;
+import models.enums.ConnRange;
+import models.enums.NormalizedMethod;
+import models.enums.QoS;
+import models.geo.Location;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Catalog of an application: providers, services, gates, graph, QoS attributes used and normalization of providers.
+ * <p>
+ * The catalog can't be modified once built (lists and maps are read only), so it's shared by all copies and
+ * sub-problems of an application without copying anything. Changes are done creating a new catalog that shares all
+ * the rest of the information with the previous one.
+ */
+public final class Catalog {
+    private final List<Provider> _providers;
+    private final List<Service> _services;
+    private final List<Gate> _gates;
+
+    // Define QoS attributes used
+    private final List<QoS> _qosList, _channelQoS, _providerQoS;
+    // Define method to normalize
+    private final NormalizedMethod _nMethod;
+    // Normalization of each provider QoS attribute between all providers
+    private final Map<QoS, Normalization> _providersNorm;
+
+    // Latency variables
+    private final Location _inputPoint, _outputPoint;
+    // Distances between the locations of the generation of this application
+    private final DistanceMatrix _distances;
+    private final Node _graph;
+    // Same graph in a compressed sparse row format
+    private final CompactGraph _compactGraph;
+
+    // Providers of each location and connection range, built the first time that they're needed
+    private volatile Map<Location, ProviderSet> _providersByLocation;
+    private volatile Map<ConnRange, ProviderSet> _providersByConnRange;
+    // Providers grouped by location, built the first time that they're needed
+    private volatile LocationClasses _locationClasses;
+
+    public Catalog(
+        List<Provider> providers, List<Service> services, List<Gate> gates, List<QoS> qosList,
+        NormalizedMethod nMethod, Map<QoS, Normalization> providersNorm, Location inputPoint, Location outputPoint,
+        DistanceMatrix distances, Node graph
+    ) {
+        _providers = Collections.unmodifiableList(providers);
+        _services = Collections.unmodifiableList(services);
+        _gates = Collections.unmodifiableList(gates);
+        _nMethod = nMethod;
+        _providersNorm = Collections.unmodifiableMap(providersNorm);
+        _inputPoint = inputPoint;
+        _outputPoint = outputPoint;
+        _distances = distances;
+        _graph = graph;
+        _compactGraph = (graph == null) ? null : new CompactGraph(graph);
+
+        // It is very important to have the elements of the QoS list ordered, because the channel-dependent attributes
+        // must come before the others.
+        List<QoS> sorted = new ArrayList<>(qosList), channelQoS = new ArrayList<>(), providerQoS = new ArrayList<>();
+        Collections.sort(sorted);
+
+        // Divide between channel and provider QoS.
+        for (QoS q : sorted) {
+            switch (q) {
+                case THROUGHPUT, LATENCY -> channelQoS.add(q);
+                default -> providerQoS.add(q);
+            }
+        }
+
+        _qosList = Collections.unmodifiableList(sorted);
+        _channelQoS = Collections.unmodifiableList(channelQoS);
+        _providerQoS = Collections.unmodifiableList(providerQoS);
+    }
+
+    /**
+     * Copy a catalog sharing all its information
+     */
+    private Catalog(
+        Catalog o, List<Gate> gates, Map<QoS, Normalization> providersNorm, Node graph, CompactGraph compactGraph
+    ) {
+        _providers = o._providers;
+        _services = o._services;
+        _gates = gates;
+        _qosList = o._qosList;
+        _channelQoS = o._channelQoS;
+        _providerQoS = o._providerQoS;
+        _nMethod = o._nMethod;
+        _providersNorm = providersNorm;
+        _inputPoint = o._inputPoint;
+        _outputPoint = o._outputPoint;
+        _distances = o._distances;
+        _graph = graph;
+        _compactGraph = compactGraph;
+        _providersByLocation = o._providersByLocation;
+        _providersByConnRange = o._providersByConnRange;
+        _locationClasses = o._locationClasses;
+    }
+
+    public Catalog withGates(List<Gate> gates) {
+        return new Catalog(this, Collections.unmodifiableList(gates), _providersNorm, _graph, _compactGraph);
+    }
+
+    public Catalog withProvidersNorm(Map<QoS, Normalization> providersNorm) {
+        return new Catalog(this, _gates, Collections.unmodifiableMap(providersNorm), _graph, _compactGraph);
+    }
+
+    public Catalog withGraph(Node graph, CompactGraph compactGraph) {
+        return new Catalog(this, _gates, _providersNorm, graph, compactGraph);
+    }
+
+    public List<Provider> getProviders() {
+        return _providers;
+    }
+
+    public List<Service> getServices() {
+        return _services;
+    }
+
+    public List<Gate> getGates() {
+        return _gates;
+    }
+
+    public List<QoS> getQoSList() {
+        return _qosList;
+    }
+
+    public List<QoS> getChannelQoS() {
+        return _channelQoS;
+    }
+
+    public List<QoS> getProviderQoS() {
+        return _providerQoS;
+    }
+
+    public Integer getNOfQoS() {
+        return _qosList.size();
+    }
+
+    public NormalizedMethod getMethod() {
+        return _nMethod;
+    }
+
+    public Map<QoS, Normalization> getProvidersNorm() {
+        return _providersNorm;
+    }
+
+    /**
+     * Return the set of providers of each location
+     */
+    public Map<Location, ProviderSet> getProvidersByLocation() {
+        Map<Location, ProviderSet> providers = _providersByLocation;
+
+        if (providers == null) {
+            providers = _groupProviders(Provider::getLocation);
+            _providersByLocation = providers;
+        }
+
+        return providers;
+    }
+
+    /**
+     * Return the set of providers of each connection range
+     */
+    public Map<ConnRange, ProviderSet> getProvidersByConnRange() {
+        Map<ConnRange, ProviderSet> providers = _providersByConnRange;
+
+        if (providers == null) {
+            providers = _groupProviders(Provider::getConnRange);
+            _providersByConnRange = providers;
+        }
+
+        return providers;
+    }
+
+    /**
+     * Return the providers grouped by location
+     */
+    public LocationClasses getLocationClasses() {
+        LocationClasses classes = _locationClasses;
+
+        if (classes == null) {
+            classes = new LocationClasses(_providers);
+            _locationClasses = classes;
+        }
+
+        return classes;
+    }
+
+    private <K> Map<K, ProviderSet> _groupProviders(Function<Provider, K> key) {
+        Map<K, List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < _providers.size(); i++) {
+            groups.computeIfAbsent(key.apply(_providers.get(i)), k -> new ArrayList<>()).add(i);
+        }
+
+        Map<K, ProviderSet> sets = new LinkedHashMap<>();
+        groups.forEach((k, v) -> sets.put(k, ProviderSet.of(v.stream().mapToInt(Integer::intValue).toArray())));
+
+        return Collections.unmodifiableMap(sets);
+    }
+
+    public Location getInputPoint() {
+        return _inputPoint;
+    }
+
+    public Location getOutputPoint() {
+        return _outputPoint;
+    }
+
+    public DistanceMatrix getDistances() {
+        return _distances;
+    }
+
+    public Node getGraph() {
+        return _graph;
+    }
+
+    public CompactGraph getCompactGraph() {
+        return _compactGraph;
+    }
+}
@@ -1,27 +1,27 @@
 package models.applications;
 
+import models.auxiliary.Candidates;
+import models.auxiliary.ProviderSet;
 import models.enums.ConnRange;
 import models.geo.Location;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class Gate {
-    private List<Integer> _candidates;
+    // Gates (and services) with the same candidates share the same (immutable) list
+    private Candidates _candidates;
     private final Integer _id;
     private Application _app;
 
     public Gate(List<Integer> candidates, Integer id) {
-        _candidates = candidates;
+        _candidates = Candidates.of(candidates);
         _id = id;
     }
 
     public Gate(Integer id) {
         _id = id;
-        _candidates = new ArrayList<>();
+        _candidates = Candidates.empty();
     }
 
     public Gate getGate() {
@@ -44,12 +44,21 @@ public class Gate {
         return getApp().getProvider(selected);
     }
 
-    public List<Integer> getCandidates() {
+    public Candidates getCandidates() {
         return _candidates;
     }
 
     public Integer getCandidate(Integer position) {
-        return _candidates.get(position);
+        return _candidates.getInt(position);
+    }
+
+    /**
+     * Return the position of a candidate, or -1 if it isn't a candidate of this gate
+     *
+     * @param candidate Global index of a provider
+     */
+    public int getPosition(Integer candidate) {
+        return _candidates.positionOf(candidate);
     }
 
     public Integer getID() {
@@ -57,19 +66,19 @@ public class Gate {
     }
 
     public void addCandidate(Integer candidate) {
-        _candidates.add(candidate);
+        _candidates = _candidates.concat(List.of(candidate));
     }
 
     public void addCandidates(List<Integer> candidates) {
-        _candidates.addAll(candidates);
+        _candidates = _candidates.concat(candidates);
     }
 
     public void setCandidates(List<Integer> candidates) {
-        _candidates = candidates;
+        _candidates = Candidates.of(candidates);
     }
 
     public void removeCandidate(Integer provider) {
-        _candidates.remove(provider);
+        _candidates = _candidates.without(provider);
     }
 
     public void setApp(Application app) {
@@ -81,9 +90,7 @@ public class Gate {
     }
 
     public Set<Location> getLocations() {
-        return getCandidates().parallelStream()
-            .map(i -> getApp().getProvider(i).getLocation())
-            .collect(Collectors.toSet());
+        return ProviderSet.keysIntersecting(getApp().getCatalog().getProvidersByLocation(), getProvidersIndex());
     }
 
     public Location getLocation(Long threadID) {
@@ -96,12 +103,10 @@ public class Gate {
     }
 
     public Set<ConnRange> getConnRanges() {
-        return getCandidates().parallelStream()
-            .map(i -> getApp().getProvider(i).getConnRange())
-            .collect(Collectors.toSet());
+        return ProviderSet.keysIntersecting(getApp().getCatalog().getProvidersByConnRange(), getProvidersIndex());
     }
 
-    public Set<Integer> getProvidersIndex() {
-        return new HashSet<>(getCandidates());
+    public ProviderSet getProvidersIndex() {
+        return _candidates.toProviderSet();
     }
 }
@@ -4,13 +4,18 @@ import models.enums.ConnRange;
 import models.enums.QoS;
 import models.geo.Location;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 // This class is called `ConcreteService` in papers that we've read.
 public class Provider implements Serializable {
-    private final String _name;
+    private String _name;
+    // Generates the name the first time that it's needed (names aren't needed to resolve the problem)
+    private transient Supplier<String> _nameSupplier;
     private Map<QoS, Double> _attributes, _normalized;
     private final Location _location;
     private final ConnRange _connRange;
@@ -23,6 +28,11 @@ public class Provider implements Serializable {
         _connRange = connRange;
     }
 
+    public Provider(Supplier<String> name, Map<QoS, Double> attributes, Location location, ConnRange connRange) {
+        this((String) null, attributes, location, connRange);
+        _nameSupplier = name;
+    }
+
     public Provider(String name, Map<QoS, Double> attributes, Location location) {
         this(name, attributes, location, ConnRange.L0);
     }
@@ -32,17 +42,28 @@ public class Provider implements Serializable {
     }
 
     public Provider(Provider o) {
-        _name = o._name;
+        _name = o.getName();
         _attributes = new HashMap<>(o._attributes);
         _normalized = new HashMap<>(o._normalized);
         _location = o._location;
         _connRange = o._connRange;
     }
 
-    public String getName() {
+    public synchronized String getName() {
+        if (_name == null && _nameSupplier != null) {
+            _name = _nameSupplier.get();
+            _nameSupplier = null;
+        }
+
         return _name;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // The name must be generated before losing its supplier
+        getName();
+        out.defaultWriteObject();
+    }
+
     public Location getLocation() {
         return _location;
     }
@@ -92,7 +113,7 @@ public class Provider implements Serializable {
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder(), attributes = new StringBuilder();
-        builder.append(String.format("Provider{name: '%s', attributes: ", _name));
+        builder.append(String.format("Provider{name: '%s', attributes: ", getName()));
 
         for (Map.Entry<QoS, Double> attribute : _attributes.entrySet()) {
             attributes.append(String.format("%s: %.3f, ", attribute.getKey().name(), attribute.getValue()));
@@ -1,5 +1,7 @@
 package models.applications;
 
+import models.auxiliary.Candidates;
+
 import java.util.List;
 
 // This class is called `Service` in papers that we've read.
@@ -13,12 +15,13 @@ public class Service {
     0 -> 2, first position
     1 -> 3, second position
     2 -> 5, third position
+    Services with the same candidates share the same (immutable) list.
     */
-    private final List<Integer> _candidates;
+    private Candidates _candidates;
 
     public Service(String name, List<Integer> candidates) {
         _name = name;
-        _candidates = candidates;
+        _candidates = Candidates.of(candidates);
     }
 
     public Service(Service o) {
@@ -34,7 +37,7 @@ public class Service {
         return _name;
     }
 
-    public List<Integer> getCandidates() {
+    public Candidates getCandidates() {
         return _candidates;
     }
 
@@ -44,7 +47,16 @@ public class Service {
      * @param position A position to find the candidate
      */
     public Integer getCandidate(Integer position) {
-        return _candidates.get(position);
+        return _candidates.getInt(position);
+    }
+
+    /**
+     * Return the position of a candidate, or -1 if it isn't a candidate of this service
+     *
+     * @param candidate Global index of a provider
+     */
+    public int getPosition(Integer candidate) {
+        return _candidates.positionOf(candidate);
     }
 
     @Override
@@ -53,10 +65,10 @@ public class Service {
     }
 
     public void addCandidate(Integer lastProvider) {
-        _candidates.add(lastProvider);
+        _candidates = _candidates.concat(List.of(lastProvider));
     }
 
     public void removeCandidate(Integer candidate) {
-        _candidates.remove(candidate);
+        _candidates = _candidates.without(candidate);
     }
 }
@@ -5,24 +5,23 @@ import io.jenetics.Genotype;
 import io.jenetics.IntegerGene;
 import io.jenetics.engine.EvolutionResult;
 import models.auxiliary.Constraint;
-import models.auxiliary.Latency;
 import models.auxiliary.MinMax;
 import models.auxiliary.Normalization;
+import models.auxiliary.QoSIndex;
 import models.enums.ObjectiveFunction;
 import models.enums.QoS;
+import models.patterns.CompiledArchitecture;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-
-import static models.enums.QoS.LATENCY;
 
 
 public class UMApplication extends Application {
     // Stores the min-max values of each service by looking at all providers and is stored for each quality of
     // service attribute.
-    private final Map<Integer, Map<QoS, MinMax>> _qMinMax = new LinkedHashMap<>();
-    private final Map<Integer, Map<Integer, Double>> _latency = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<QoS, MinMax>> _qMinMax;
+    // Tables that don't depend on the number of degrees
+    private final UtilityBase _base;
 
     /**
      * - The value that takes the application with the max-min values of each QoS Attribute
@@ -31,8 +30,8 @@ public class UMApplication extends Application {
     private final Map<QoS, MinMax> _qMinMaxAggregated = new HashMap<>();
 
     private final Map<Integer, Map<QoS, List<Double>>>
-        _qDegreeMatrix = new LinkedHashMap<>(),
-        _qDegreeMatrixNorm = new LinkedHashMap<>();
+        _qDegreeMatrix = new ConcurrentHashMap<>(),
+        _qDegreeMatrixNorm = new ConcurrentHashMap<>();
 
     /**
      * - The value that takes the application with the max-min values of each QoS Attribute
@@ -41,8 +40,33 @@ public class UMApplication extends Application {
     // Keeps the information of the ranges of the matrix
     private final Integer _nOfDegrees;
 
-    // This is the fitness that each provider has
-    private final Map<Integer, Map<Integer, Map<QoS, Double>>> _utilityProvider = new HashMap<>();
+    // Per component, an index over the normalized QoS values of its candidates to decode genotypes into providers
+    private final Map<Integer, QoSIndex> _utilityProvider = new ConcurrentHashMap<>();
+
+    /*
+     * Flat tables to evaluate a genotype without allocations. For each component (genotype index) we keep, for each of
+     * its QoS attributes, the position in the genome, the column in the values buffer and the quality-degree values
+     * (row i * nOfDegrees + degree).
+     */
+    private int[] _components;
+    private int[][] _genePositions, _degreeColumns;
+    private double[][] _degreeValues;
+    private CompiledArchitecture _compiled;
+
+    // Weighted QoS attributes with its weight, column, constraints and normalization
+    private QoS[] _wQoS;
+    private double[] _wValues;
+    private int[] _wColumns;
+    private Constraint[] _wSoftConstraints, _wHardConstraints;
+    private Normalization[] _wNormAggregated, _wNorm;
+
+    // Buffers by thread, values indexed by [component][QoS attribute] and the stack of the compiled architecture
+    private final ThreadLocal<double[][]> _values = ThreadLocal.withInitial(
+        () -> new double[_degreeValues.length][getQoSList().size()]
+    );
+    private final ThreadLocal<double[]> _stack = ThreadLocal.withInitial(
+        () -> new double[_compiled.getStackSize()]
+    );
 
     public UMApplication(Application o) {
         this(o, new HashMap<>());
@@ -53,18 +77,26 @@ public class UMApplication extends Application {
     }
 
     public UMApplication(Application o, Map<QoS, Constraint> constraint) {
-        this(o, constraint, o._nOfQoS);
+        this(o, constraint, o.getNOfQoS());
     }
 
     public UMApplication(Application o, Map<QoS, Constraint> constraint, Integer degrees) {
-        super(o);
+        this(new UtilityBase(o), constraint, degrees);
+    }
 
-        if (o._channelQoS.contains(LATENCY)) {
-            Latency.fillLatencyPerProviders(o, _latency);
-        }
+    public UMApplication(UtilityBase base, Integer degrees) {
+        this(base, new HashMap<>(), degrees);
+    }
+
+    public UMApplication(UtilityBase base, Map<QoS, Constraint> constraint, Integer degrees) {
+        super(base.getApplication());
+
+        // Min-max per component is shared with the base
+        _base = base;
+        _qMinMax = base.getQMinMax();
 
         // Lk is size of the biggest service group.
-        Integer _lk = extractLk();
+        int _lk = base.getLk();
 
         if (degrees < 1 || degrees > _lk) {
             throw new RuntimeException(String.format("Degrees must be in range (1, %d) (1 <= degrees <= Lk)", _lk));
@@ -77,7 +109,7 @@ public class UMApplication extends Application {
          * Next steps we are building all tables necessary to use fitness approach:
          *
          * 1. MinMax matrix, which shall be the minimum and maximum values that can be reached by the different
-         * components per attribute.
+         * components per attribute (given by the base, since it doesn't depend on the degrees).
          *
          * 2. QualityDegree matrix, which shall be the matrix containing each of the degrees of quality.
          *
@@ -88,67 +120,18 @@ public class UMApplication extends Application {
          * (and the normalized fitness).
          *
          * 5. At last, qMinMaxAggregated and qMaxAggregated, where we store the min and max value for each of the QoS.
+         *
+         * 6. Flat tables (and the compiled architecture) to evaluate the genotypes.
          */
 
-        // Extract min-max per component
-        minMaxPerComponent();
         // Calculate the normalized and non-normalized quality degree matrix
         qDegreeMatrix();
         // Extract Min & Max aggregated for the application
         qMinMaxAggregated();
         // Extract "fitness" from providers
         providersUtility();
-    }
-
-    private Integer extractLk() {
-        return getServices().parallelStream().mapToInt(s -> s.getCandidates().size()).max().orElse(0);
-    }
-
-    /**
-     * For each service and quality of service attribute,
-     * it returns the highest and lowest values of all its providers.
-     */
-    public void minMaxPerComponent() {
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
-            Integer iService = e.getKey(), iGenotype = e.getValue();
-            Service s = getService(iService);
-            _minMaxPerComponent(iService, iGenotype, s.getCandidates(), _qosList);
-        }
-
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
-            Integer iGate = e.getKey(), iGenotype = e.getValue();
-            Gate g = getGate(iGate);
-            _minMaxPerComponent(iGate, iGenotype, g.getCandidates(), _channelQoS);
-        }
-    }
-
-    private void
-    _minMaxPerComponent(Integer iComponent, Integer iGenotype, List<Integer> candidates, List<QoS> qosList) {
-        // Get solution for this service and append this min-value.
-        Map<QoS, MinMax> v = _qMinMax.getOrDefault(iGenotype, new ConcurrentHashMap<>());
-
-        for (QoS k : qosList) {
-            // Prepare a new min-max instance
-            MinMax minMax = new MinMax();
-
-            switch (k) {
-                case LATENCY -> _latency.get(iComponent).entrySet().parallelStream()
-                    .mapToDouble(Map.Entry::getValue)
-                    .forEach(minMax::setMinMax);
-                case THROUGHPUT -> candidates.parallelStream()
-                    .mapToDouble(candidate -> getProvider(candidate).getConnRange().getCapacity())
-                    .forEach(minMax::setMinMax);
-                default -> candidates.parallelStream()
-                    .mapToDouble(candidate -> getProvider(candidate).getAttributeValue(k))
-                    .forEach(minMax::setMinMax);
-            }
-
-            // Add qos solution
-            v.put(k, minMax);
-        }
-
-        // Add to global solution
-        _qMinMax.put(iGenotype, v);
+        // Prepare primitive tables to evaluate genotypes
+        compileEvaluation();
     }
 
     /**
@@ -158,13 +141,8 @@ public class UMApplication extends Application {
      * [35, 40, 45, 50, 55]
      */
     public void qDegreeMatrix() {
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
-            _qualityDegreeMatrix(e.getValue(), _qosList);
-        }
-
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
-            _qualityDegreeMatrix(e.getValue(), _channelQoS);
-        }
+        getServicesToExplore().values().parallelStream().forEach(iGenotype -> _qualityDegreeMatrix(iGenotype, getQoSList()));
+        getGatesToExplore().values().parallelStream().forEach(iGenotype -> _qualityDegreeMatrix(iGenotype, getChannelQoS()));
     }
 
     private void _qualityDegreeMatrix(Integer iGenotype, List<QoS> kList) {
@@ -213,46 +191,45 @@ public class UMApplication extends Application {
     }
 
     /**
-     * For each service, providersUtility keeps the fitness for
+     * For each service, providersUtility keeps the normalized QoS values of its candidates indexed to find quickly the
+     * most similar provider to a quality-degree vector.
      */
     public void providersUtility() {
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
+        getServicesToExplore().entrySet().parallelStream().forEach(e -> {
             Integer iService = e.getKey(), iGenotype = e.getValue();
             Service s = getService(iService);
-            _providersUtility(iGenotype, s.getCandidates(), _qosList);
-        }
+            _providersUtility(iGenotype, s.getCandidates(), getQoSList());
+        });
 
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
+        getGatesToExplore().entrySet().parallelStream().forEach(e -> {
             Integer iGate = e.getKey(), iGenotype = e.getValue();
             Gate g = getGate(iGate);
-            _providersUtility(iGenotype, g.getCandidates(), _channelQoS);
-        }
+            _providersUtility(iGenotype, g.getCandidates(), getChannelQoS());
+        });
     }
 
     private void _providersUtility(Integer iGenotype, List<Integer> candidates, List<QoS> kList) {
-        // Get utilities
-        Map<Integer, Map<QoS, Double>> v = _utilityProvider.getOrDefault(iGenotype, new HashMap<>());
         // Define variables
         double nVal, val, delta, qMin, qMinNorm, qMax, qMaxNorm;
+        int nOfQoS = kList.size(), nOfCandidates = candidates.size();
+        // Candidates and its utilities per QoS attribute (a row per candidate)
+        int[] ids = new int[nOfCandidates];
+        double[] utilities = new double[nOfCandidates * nOfQoS];
 
-        for (Integer p : candidates) {
+        for (int c = 0; c < nOfCandidates; c++) {
             // Get provider
-            Provider provider = getProvider(p);
-            // Utility providers
-            Map<QoS, Double> uProvider = new HashMap<>();
+            int p = candidates.get(c);
+            ids[c] = p;
+
+            for (int i = 0; i < nOfQoS; i++) {
+                QoS k = kList.get(i);
 
-            for (QoS k : kList) {
                 // Extract min-max and weight
                 MinMax minMax = _qMinMax.get(iGenotype).get(k);
                 qMin = minMax.getMin();
                 qMax = minMax.getMax();
                 delta = (qMax - qMin) / _nOfDegrees;
-
-                val = switch (k) {
-                    case LATENCY -> _latency.get(iGenotype).get(p);
-                    case THROUGHPUT -> provider.getConnRange().getCapacity();
-                    default -> provider.getAttributeValue(k);
-                };
+                val = _base.getValues(iGenotype, k)[c];
 
                 if (k.getObjective().equals(ObjectiveFunction.MAXIMIZE)) {
                     qMinNorm = qMin - delta;
@@ -262,15 +239,12 @@ public class UMApplication extends Application {
                     nVal = (qMaxNorm - val) / (qMaxNorm - qMin);
                 }
 
-                uProvider.put(k, nVal);
+                utilities[c * nOfQoS + i] = nVal;
             }
-
-            // Save utilities
-            v.put(p, uProvider);
         }
 
         // Save utilities
-        _utilityProvider.put(iGenotype, v);
+        _utilityProvider.put(iGenotype, new QoSIndex(ids, utilities, nOfQoS));
     }
 
     public Integer getNOfDegrees() {
@@ -286,88 +260,171 @@ public class UMApplication extends Application {
     }
 
     public void qMinMaxAggregated() {
-        for (QoS k : _qosList) {
-            if (k.equals(QoS.LATENCY)) {
-                // Extract min-max for each provider
-                Map<Integer, MinMax> latencyMap = _latency.entrySet().parallelStream().map(e -> {
-                    // Get all candidates
-                    Map<Integer, Double> candidates = e.getValue();
-                    // Instance a min-max to store results
-                    MinMax minMaxLocal = new MinMax();
-
-                    candidates.entrySet().parallelStream()
-                        .mapToDouble(Map.Entry::getValue)
-                        .forEach(minMaxLocal::setMinMax);
-
-                    return new AbstractMap.SimpleEntry<>(e.getKey(), minMaxLocal);
-                }).collect(Collectors.toMap(AbstractMap.SimpleEntry::getKey, AbstractMap.SimpleEntry::getValue));
-
-                // Sum all application values
-                double
-                    min = latencyMap.values().parallelStream().mapToDouble(MinMax::getMin).reduce(0, Double::sum),
-                    max = latencyMap.values().parallelStream().mapToDouble(MinMax::getMax).reduce(0, Double::sum);
-
-                // Save that values
-                _qMinMaxAggregated.put(k, new MinMax(min, max));
-            } else {
-                Normalization norm = getAppNorm().get(k);
-                _qMinMaxAggregated.put(k, new MinMax(norm.getMin(), norm.getMax()));
-            }
-        }
+        // It doesn't depend on the degrees, so it's given by the base
+        _qMinMaxAggregated.putAll(_base.getQMinMaxAggregated());
     }
 
-    public Double getFitnessWithoutConstraints(Map<Integer, Provider> composition) {
-        double fitness = 0., w, v, vNorm;
+    /**
+     * Build the flat tables used by degreeValues and the fitness functions, so the evaluation of a genotype doesn't need
+     * maps, boxed values or fake providers.
+     */
+    public void compileEvaluation() {
+        // Services and gates to explore, sorted by genotype index
+        List<Integer> components = new ArrayList<>(getServicesToExplore().values());
+        components.addAll(getGatesToExplore().values());
+        _components = components.stream().mapToInt(Integer::intValue).sorted().toArray();
+
+        int nOfRows = Arrays.stream(_components).max().orElse(-1) + 1;
+        _genePositions = new int[nOfRows][];
+        _degreeColumns = new int[nOfRows][];
+        _degreeValues = new double[nOfRows][];
+
+        for (Integer iGenotype : getServicesToExplore().values()) {
+            _compileComponent(iGenotype, getQoSList());
+        }
+
+        for (Integer iGenotype : getGatesToExplore().values()) {
+            _compileComponent(iGenotype, getChannelQoS());
+        }
+
+        // Architecture reads the values of each service from its genotype index
+        _compiled = new CompiledArchitecture(_architecture, getServicesToExplore());
+
+        // Weighted QoS attributes
+        int nOfWeights = _weights.size(), i = 0;
+        _wQoS = new QoS[nOfWeights];
+        _wValues = new double[nOfWeights];
+        _wColumns = new int[nOfWeights];
+        _wSoftConstraints = new Constraint[nOfWeights];
+        _wHardConstraints = new Constraint[nOfWeights];
+        _wNormAggregated = new Normalization[nOfWeights];
+        _wNorm = new Normalization[nOfWeights];
 
-        // For each QoS attribute
         for (Map.Entry<QoS, Double> e : _weights.entrySet()) {
-            // Extract information
             QoS k = e.getKey();
-            w = e.getValue();
+            _wQoS[i] = k;
+            _wValues[i] = e.getValue();
+            _wColumns[i] = getQoSList().indexOf(k);
+            _wSoftConstraints[i] = _softConstraints.get(k);
+            _wHardConstraints[i] = _hardConstraints.get(k);
+            _wNormAggregated[i] = new Normalization(_qMinMaxAggregated.get(k));
+            _wNorm[i] = _appNorm.get(k);
+            i++;
+        }
+    }
+
+    private void _compileComponent(Integer iGenotype, List<QoS> kList) {
+        int factorQoS = kList.size();
+        int[] positions = new int[factorQoS], columns = new int[factorQoS];
+        double[] values = new double[factorQoS * _nOfDegrees];
+
+        for (int i = 0; i < factorQoS; i++) {
+            QoS k = kList.get(i);
+            // Same position used to decode the genotype
+            positions[i] = (iGenotype * factorQoS) + i;
+            columns[i] = getQoSList().indexOf(k);
+
+            List<Double> degrees = _qDegreeMatrix.get(iGenotype).get(k);
+
+            for (int d = 0; d < _nOfDegrees; d++) {
+                values[i * _nOfDegrees + d] = degrees.get(d);
+            }
+        }
+
+        _genePositions[iGenotype] = positions;
+        _degreeColumns[iGenotype] = columns;
+        _degreeValues[iGenotype] = values;
+    }
+
+    /**
+     * Fill the buffer of the current thread with the quality-degree values selected by the genotype given
+     *
+     * @param genotype Genotype to evaluate
+     * @return Values indexed by [component][QoS attribute], only valid until the next call in the same thread
+     */
+    public double[][] degreeValues(Genotype<IntegerGene> genotype) {
+        double[][] values = _values.get();
+
+        for (int iGenotype : _components) {
+            int[] positions = _genePositions[iGenotype], columns = _degreeColumns[iGenotype];
+            double[] degrees = _degreeValues[iGenotype];
+
+            for (int i = 0; i < positions.length; i++) {
+                // Extract allele from genotype
+                int allele = genotype.get(positions[i]).get(0).intValue();
+                // Save the value of the quality-degree selected
+                values[iGenotype][columns[i]] = degrees[i * _nOfDegrees + allele];
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Aggregate a QoS attribute for the values given
+     *
+     * @param w      Index of the attribute in the weighted attributes
+     * @param values Values indexed by [component][QoS attribute]
+     * @return Value of the application for that attribute
+     */
+    private double _value(int w, double[][] values) {
+        QoS k = _wQoS[w];
+        int column = _wColumns[w];
+
+        switch (k) {
+            case LATENCY -> {
+                double sum = 0.;
+
+                for (int iGenotype : _components) {
+                    sum += values[iGenotype][column];
+                }
+
+                return (_components.length == 0) ? 0. : sum / _components.length;
+            }
+            case THROUGHPUT -> {
+                double min = Double.POSITIVE_INFINITY;
+
+                for (int iGenotype : _components) {
+                    min = Math.min(min, values[iGenotype][column]);
+                }
+
+                return (_components.length == 0) ? 0. : min;
+            }
+            default -> {
+                return _compiled.value(k, column, values, _stack.get());
+            }
+        }
+    }
+
+    public double getFitnessWithoutConstraints(double[][] values) {
+        double fitness = 0., v, vNorm;
 
-            v = switch (k) {
-                case LATENCY -> composition.entrySet().parallelStream()
-                    .mapToDouble(c -> c.getValue().getAttributeValue(k)).average().orElse(0.);
-                case THROUGHPUT -> composition.entrySet().parallelStream()
-                    .mapToDouble(c -> c.getValue().getAttributeValue(k)).min().orElse(0.);
-                default -> _architecture.value(k, composition);
-            };
+        // For each QoS attribute
+        for (int w = 0; w < _wQoS.length; w++) {
+            v = _value(w, values);
 
-            // Get normalization for this QoS attribute
-            MinMax minMax = _qMinMaxAggregated.get(k);
-            Normalization norm = new Normalization(minMax);
-            boolean toMinimize = k.getObjective().equals(ObjectiveFunction.MINIMIZE);
+            boolean toMinimize = _wQoS[w].getObjective().equals(ObjectiveFunction.MINIMIZE);
 
             // Apply transform function to value
-            vNorm = norm.normalize(v, toMinimize, _nMethod);
+            vNorm = _wNormAggregated[w].normalize(v, toMinimize, getMethod());
 
             // Accumulate this value multiply by it weight
-            fitness += vNorm * w;
+            fitness += vNorm * _wValues[w];
         }
 
         return fitness;
     }
 
-    public Double getFitnessWithConstraints(Map<Integer, Provider> composition) {
+    public double getFitnessWithConstraints(double[][] values) {
         // QoS constraints
-        double fitness = 0., v, vNorm, w, softConstraintsFailed = 0.;
+        double fitness = 0., v, vNorm, softConstraintsFailed = 0.;
 
         // For each QoS attribute
-        for (Map.Entry<QoS, Double> entry : _weights.entrySet()) {
-            // Extract information
-            QoS k = entry.getKey();
-            w = entry.getValue();
-
-            v = switch (k) {
-                case LATENCY -> composition.entrySet().parallelStream()
-                    .mapToDouble(c -> c.getValue().getAttributeValue(k)).average().orElse(0.);
-                case THROUGHPUT -> composition.entrySet().parallelStream()
-                    .mapToDouble(c -> c.getValue().getAttributeValue(k)).min().orElse(0.);
-                default -> _architecture.value(k, composition);
-            };
+        for (int w = 0; w < _wQoS.length; w++) {
+            v = _value(w, values);
 
             // Getting constraints
-            Constraint softConstraint = _softConstraints.get(k), hardConstraint = _hardConstraints.get(k);
+            Constraint softConstraint = _wSoftConstraints[w], hardConstraint = _wHardConstraints[w];
 
             // If exists a hard constraint for this QoS, check if is valid or not. If isn't valid then return 0.
             if (hardConstraint != null && hardConstraint.isInvalid(v)) {
@@ -379,15 +436,13 @@ public class UMApplication extends Application {
                 softConstraintsFailed++;
             }
 
-            // Normalize value
-            Normalization norm = _appNorm.get(k);
-            boolean toMinimize = k.getObjective().equals(ObjectiveFunction.MINIMIZE);
+            boolean toMinimize = _wQoS[w].getObjective().equals(ObjectiveFunction.MINIMIZE);
 
             // Apply transform function to value
-            vNorm = norm.normalize(v, toMinimize, _nMethod);
+            vNorm = _wNorm[w].normalize(v, toMinimize, getMethod());
 
             // Accumulate this value multiply by it weight
-            fitness += vNorm * w;
+            fitness += vNorm * _wValues[w];
         }
 
         // Add penalization by constraints failed
@@ -405,73 +460,51 @@ public class UMApplication extends Application {
         // Get best genome
         Genotype<IntegerGene> bestGenotype = bestGene.bestPhenotype().genotype();
 
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
-            Integer iGenotype = e.getValue();
-
+        // Each component is decoded independently, so do it in parallel
+        getServicesToExplore().values().parallelStream().forEach(iGenotype -> {
             // Get fitness for the service and last position
             Integer simProvider = _similarProvider(bestGenotype, iGenotype, true);
 
             // Save more similar provider
             composition.put(iGenotype, simProvider);
-        }
-
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
-            Integer iGenotype = e.getValue();
+        });
 
+        getGatesToExplore().values().parallelStream().forEach(iGenotype -> {
             // Get fitness for the service and last position
             Integer simProvider = _similarProvider(bestGenotype, iGenotype, false);
 
             // Save more similar provider
             composition.put(iGenotype, simProvider);
-        }
+        });
 
         return composition;
     }
 
     private Integer _similarProvider(Genotype<IntegerGene> genotype, Integer iGenotype, Boolean isService) {
         // Obtaining the corresponding list...
-        List<QoS> qosList = isService ? _qosList : _channelQoS;
-
-        // Define best provider id and closest value
-        int bestProvider = -1;
-        double closestValue = Double.MAX_VALUE, currentClose;
+        List<QoS> qosList = isService ? getQoSList() : getChannelQoS();
 
         // Prepare position of genome
         int gPosition, factorQoS = qosList.size();
 
-        // For each provider
-        for (int p = 0; p < getProviders().size(); p++) {
-
-            // Prepare closest value
-            currentClose = 0.;
+        // Value representative of the cluster selected for each QoS attribute
+        double[] query = new double[factorQoS];
 
-            for (int initialQoSIndex = 0; initialQoSIndex < factorQoS; initialQoSIndex++) {
-                // Get QoS attribute
-                QoS k = qosList.get(initialQoSIndex);
+        for (int initialQoSIndex = 0; initialQoSIndex < factorQoS; initialQoSIndex++) {
+            // Get QoS attribute
+            QoS k = qosList.get(initialQoSIndex);
 
-                // Extract position
-                gPosition = (iGenotype * factorQoS) + initialQoSIndex;
+            // Extract position
+            gPosition = (iGenotype * factorQoS) + initialQoSIndex;
 
-                // Extract allele for that position
-                int allele = genotype.get(gPosition).get(0).allele();
+            // Extract allele for that position
+            int allele = genotype.get(gPosition).get(0).allele();
 
-                // Obtain value representative of the cluster
-                double v = _qDegreeMatrixNorm.get(iGenotype).get(k).get(allele);
-
-                // Get value to compare
-                double v2 = _utilityProvider.get(iGenotype).get(p).get(k);
-
-                // Update closest
-                currentClose += Math.abs(v - v2);
-            }
-
-            if (currentClose < closestValue) {
-                closestValue = currentClose;
-                bestProvider = p;
-            }
+            // Obtain value representative of the cluster
+            query[initialQoSIndex] = _qDegreeMatrixNorm.get(iGenotype).get(k).get(allele);
         }
 
-        // Return best provider
-        return bestProvider;
+        // Return the closest candidate (L1 distance) of this component
+        return _utilityProvider.get(iGenotype).nearest(query);
     }
 }
@@ -5,9 +5,9 @@ import io.jenetics.Genotype;
 import io.jenetics.IntegerGene;
 import io.jenetics.engine.EvolutionResult;
 import models.auxiliary.Constraint;
-import models.auxiliary.Latency;
 import models.auxiliary.MinMax;
 import models.auxiliary.Normalization;
+import models.auxiliary.UtilityIndex;
 import models.enums.NormalizedMethod;
 import models.enums.ObjectiveFunction;
 import models.enums.QoS;
@@ -29,14 +29,14 @@ public class UtilityApplication extends Application {
 
     // Stores the min and max values of each service by looking at all providers and is stored for each quality of
     // service attribute.
-    private final Map<Integer, Map<QoS, MinMax>> _qMinMax = new LinkedHashMap<>();
+    private final Map<Integer, Map<QoS, MinMax>> _qMinMax;
 
     private final Map<Integer, Map<QoS, List<Double>>>
-        _qDegreeMatrix = new LinkedHashMap<>(),
-        _qDegreeMatrixNorm = new LinkedHashMap<>(),
-        _probabilityMatrix = new LinkedHashMap<>(),
-        _utilityMatrix = new LinkedHashMap<>(),
-        _utilityMatrixNorm = new LinkedHashMap<>();
+        _qDegreeMatrix = new ConcurrentHashMap<>(),
+        _qDegreeMatrixNorm = new ConcurrentHashMap<>(),
+        _probabilityMatrix = new ConcurrentHashMap<>(),
+        _utilityMatrix = new ConcurrentHashMap<>(),
+        _utilityMatrixNorm = new ConcurrentHashMap<>();
 
     /**
      * - The value that takes the application with the max-min values of each QoS Attribute
@@ -47,9 +47,12 @@ public class UtilityApplication extends Application {
     // Constraints that user gives us (normalized)
     private final Map<QoS, Constraint> _normalizedConstraints = new HashMap<>();
     // This is the fitness that each provider has
-    private final Map<Integer, Map<Integer, Double>> _utilityProvider = new HashMap<>();
-    private final Map<Integer, Double> _componentRequiredUtility = new HashMap<>();
-    private final Map<Integer, Map<Integer, Double>> _latency = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<Integer, Double>> _utilityProvider = new ConcurrentHashMap<>();
+    // Per component, utilities of its candidates sorted to decode the utility required into a provider
+    private final Map<Integer, UtilityIndex> _utilityIndex = new ConcurrentHashMap<>();
+    private final Map<Integer, Double> _componentRequiredUtility = new ConcurrentHashMap<>();
+    // Tables that don't depend on the number of degrees
+    private final UtilityBase _base;
     // Keeps the information of the ranges of the matrix
     private final Integer _nOfDegrees;
 
@@ -62,18 +65,26 @@ public class UtilityApplication extends Application {
     }
 
     public UtilityApplication(Application o, Map<QoS, Constraint> constraint) {
-        this(o, constraint, o._nOfQoS);
+        this(o, constraint, o.getNOfQoS());
     }
 
     public UtilityApplication(Application o, Map<QoS, Constraint> constraint, Integer degrees) {
-        super(o);
+        this(new UtilityBase(o), constraint, degrees);
+    }
 
-        if (o._channelQoS.contains(QoS.LATENCY)) {
-            Latency.fillLatencyPerProviders(o, _latency);
-        }
+    public UtilityApplication(UtilityBase base, Integer degrees) {
+        this(base, new HashMap<>(), degrees);
+    }
+
+    public UtilityApplication(UtilityBase base, Map<QoS, Constraint> constraint, Integer degrees) {
+        super(base.getApplication());
+
+        // Min-max per component is shared with the base
+        _base = base;
+        _qMinMax = base.getQMinMax();
 
         // Lk is size of the biggest service group.
-        Integer _lk = extractLk();
+        int _lk = base.getLk();
 
         if (degrees < 1 || degrees > _lk) {
             throw new RuntimeException(String.format("Degrees must be in range (1, %d) (1 <= degrees <= Lk)", _lk));
@@ -86,7 +97,7 @@ public class UtilityApplication extends Application {
          * Next steps we are building all tables necessary to use fitness approach:
          *
          * 1. MinMax matrix, which shall be the minimum and maximum values that can be reached by the different
-         * components per attribute.
+         * components per attribute (given by the base, since it doesn't depend on the degrees).
          *
          * 2. QualityDegree matrix, which shall be the matrix containing each of the degrees of quality.
          *
@@ -99,8 +110,6 @@ public class UtilityApplication extends Application {
          * 5. At last, qMinMaxAggregated and qMaxAggregated, where we store the min and max value for each of the QoS.
          */
 
-        // Extract min-max per component
-        minMaxPerComponent();
         // Calculate the normalized and non-normalized quality degree matrix
         qDegreeMatrix();
         // Calculate the probability matrix
@@ -119,57 +128,6 @@ public class UtilityApplication extends Application {
         return _qDegreeMatrixNorm;
     }
 
-    private Integer extractLk() {
-        return getServices().parallelStream().mapToInt(s -> s.getCandidates().size()).max().orElse(0);
-    }
-
-    /**
-     * For each service and quality of service attribute,
-     * it returns the highest and lowest values of all its providers.
-     */
-    public void minMaxPerComponent() {
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
-            Integer iService = e.getKey(), iGenotype = e.getValue();
-            Service s = getService(iService);
-            _minMaxPerComponent(iService, iGenotype, s.getCandidates(), _qosList);
-        }
-
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
-            Integer iGate = e.getKey(), iGenotype = e.getValue();
-            Gate g = getGate(iGate);
-            _minMaxPerComponent(iGate, iGenotype, g.getCandidates(), _channelQoS);
-        }
-    }
-
-    private void
-    _minMaxPerComponent(Integer iComponent, Integer iGenotype, List<Integer> candidates, List<QoS> qosList) {
-        // Get solution for this service and append this min-value.
-        Map<QoS, MinMax> v = _qMinMax.getOrDefault(iGenotype, new ConcurrentHashMap<>());
-
-        for (QoS k : qosList) {
-            // Prepare a new min-max instance
-            MinMax minMax = new MinMax();
-
-            switch (k) {
-                case LATENCY -> _latency.get(iComponent).entrySet().parallelStream()
-                    .mapToDouble(Map.Entry::getValue)
-                    .forEach(minMax::setMinMax);
-                case THROUGHPUT -> candidates.parallelStream()
-                    .mapToDouble(candidate -> getProvider(candidate).getConnRange().getCapacity())
-                    .forEach(minMax::setMinMax);
-                default -> candidates.parallelStream()
-                    .mapToDouble(candidate -> getProvider(candidate).getAttributeValue(k))
-                    .forEach(minMax::setMinMax);
-            }
-
-            // Add qos solution
-            v.put(k, minMax);
-        }
-
-        // Add to global solution
-        _qMinMax.put(iGenotype, v);
-    }
-
     /**
      * Contains the range that providers can have.
      * <p>
@@ -177,13 +135,8 @@ public class UtilityApplication extends Application {
      * [35, 40, 45, 50, 55]
      */
     public void qDegreeMatrix() {
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
-            _qualityDegreeMatrix(e.getValue(), _qosList);
-        }
-
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
-            _qualityDegreeMatrix(e.getValue(), _channelQoS);
-        }
+        getServicesToExplore().values().parallelStream().forEach(iGenotype -> _qualityDegreeMatrix(iGenotype, getQoSList()));
+        getGatesToExplore().values().parallelStream().forEach(iGenotype -> _qualityDegreeMatrix(iGenotype, getChannelQoS()));
     }
 
     private void _qualityDegreeMatrix(Integer iGenotype, List<QoS> kList) {
@@ -257,17 +210,17 @@ public class UtilityApplication extends Application {
      * that:  count(valuesOfProviderWithSameQoSi) <= degree / numberOfServicesForQoSi
      */
     public void probabilityMatrix() {
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
+        getServicesToExplore().entrySet().parallelStream().forEach(e -> {
             Integer iService = e.getKey(), iGenotype = e.getValue();
             Service s = getService(iService);
-            _probabilityMatrix(iGenotype, s.getCandidates(), _qosList);
-        }
+            _probabilityMatrix(iGenotype, s.getCandidates(), getQoSList());
+        });
 
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
+        getGatesToExplore().entrySet().parallelStream().forEach(e -> {
             Integer iGate = e.getKey(), iGenotype = e.getValue();
             Gate g = getGate(iGate);
-            _probabilityMatrix(iGenotype, g.getCandidates(), _channelQoS);
-        }
+            _probabilityMatrix(iGenotype, g.getCandidates(), getChannelQoS());
+        });
     }
 
     private void _probabilityMatrix(Integer iGenotype, List<Integer> candidates, List<QoS> kList) {
@@ -282,13 +235,8 @@ public class UtilityApplication extends Application {
 
             // Prepare probabilities list
             List<Double> probabilities = values.stream().mapToDouble(v -> {
-                // Get number of providers that satisfied the value indicated (v)
-                double counter = candidates.parallelStream().filter(p -> switch (k) {
-                    case COST, RESPONSE_TIME -> v >= getProvider(p).getAttributeValue(k);
-                    case LATENCY -> v >= _latency.get(iGenotype).get(p);
-                    case THROUGHPUT -> v <= getProvider(p).getConnRange().getCapacity();
-                    default -> v <= getProvider(p).getAttributeValue(k);
-                }).count();
+                // Get number of providers that satisfied the value indicated (v), searching in its sorted values
+                double counter = _base.satisfying(iGenotype, k, v);
 
                 // Return the probability of satisfied that value
                 return counter / cSize;
@@ -309,11 +257,11 @@ public class UtilityApplication extends Application {
      */
     public void utilityMatrix() {
         for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
-            _utilityMatrix(e.getValue(), _qosList);
+            _utilityMatrix(e.getValue(), getQoSList());
         }
 
         for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
-            _utilityMatrix(e.getValue(), _channelQoS);
+            _utilityMatrix(e.getValue(), getChannelQoS());
         }
     }
 
@@ -355,13 +303,8 @@ public class UtilityApplication extends Application {
      * It's calculated multiplying probability Matrix and fitness Matrix
      **/
     public void utilityNormalized() {
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
-            _utilityNormalized(e.getValue(), _qosList);
-        }
-
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
-            _utilityNormalized(e.getValue(), _channelQoS);
-        }
+        getServicesToExplore().values().parallelStream().forEach(iGenotype -> _utilityNormalized(iGenotype, getQoSList()));
+        getGatesToExplore().values().parallelStream().forEach(iGenotype -> _utilityNormalized(iGenotype, getChannelQoS()));
     }
 
     private void _utilityNormalized(Integer iGenotype, List<QoS> kList) {
@@ -387,34 +330,8 @@ public class UtilityApplication extends Application {
     }
 
     public void qMinMaxAggregated() {
-        for (QoS k : _qosList) {
-            if (k.equals(QoS.LATENCY)) {
-                // Extract min-max for each provider
-                Map<Integer, MinMax> latencyMap = _latency.entrySet().parallelStream().map(e -> {
-                    // Get all candidates
-                    Map<Integer, Double> candidates = e.getValue();
-                    // Instance a min-max to store results
-                    MinMax minMaxLocal = new MinMax();
-
-                    candidates.entrySet().parallelStream()
-                        .mapToDouble(Map.Entry::getValue)
-                        .forEach(minMaxLocal::setMinMax);
-
-                    return new AbstractMap.SimpleEntry<>(e.getKey(), minMaxLocal);
-                }).collect(Collectors.toMap(AbstractMap.SimpleEntry::getKey, AbstractMap.SimpleEntry::getValue));
-
-                // Sum all application values
-                double
-                    min = latencyMap.values().parallelStream().mapToDouble(MinMax::getMin).reduce(0, Double::sum),
-                    max = latencyMap.values().parallelStream().mapToDouble(MinMax::getMax).reduce(0, Double::sum);
-
-                // Save that values
-                _qMinMaxAggregated.put(k, new MinMax(min, max));
-            } else {
-                Normalization norm = getAppNorm().get(k);
-                _qMinMaxAggregated.put(k, new MinMax(norm.getMin(), norm.getMax()));
-            }
-        }
+        // It doesn't depend on the degrees, so it's given by the base
+        _qMinMaxAggregated.putAll(_base.getQMinMaxAggregated());
     }
 
     /**
@@ -445,30 +362,35 @@ public class UtilityApplication extends Application {
     }
 
     /**
-     * For each service, providersUtility keeps the fitness for
+     * For each service, providersUtility keeps the fitness for each of its candidates, also sorted to decode quickly the
+     * utility required by the genetic algorithm.
      */
     public void providersUtility() {
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
+        getServicesToExplore().entrySet().parallelStream().forEach(e -> {
             Integer iService = e.getKey(), iGenotype = e.getValue();
             Service s = getService(iService);
-            _providersUtility(iGenotype, s.getCandidates(), _qosList);
-        }
+            _providersUtility(iGenotype, s.getCandidates(), getQoSList());
+        });
 
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
+        getGatesToExplore().entrySet().parallelStream().forEach(e -> {
             Integer iGate = e.getKey(), iGenotype = e.getValue();
             Gate g = getGate(iGate);
-            _providersUtility(iGenotype, g.getCandidates(), _channelQoS);
-        }
+            _providersUtility(iGenotype, g.getCandidates(), getChannelQoS());
+        });
     }
 
     private void _providersUtility(Integer iGenotype, List<Integer> candidates, List<QoS> kList) {
         // Get utilities
-        Map<Integer, Double> v = _utilityProvider.getOrDefault(iGenotype, new HashMap<>());
+        Map<Integer, Double> v = new HashMap<>();
         // Define variables
         double nVal, val, w, vProvider, delta, qMin, qMinNorm, qMax, qMaxNorm;
+        int nOfCandidates = candidates.size();
+        // Candidates and its utilities in the candidates order
+        int[] ids = new int[nOfCandidates];
+        double[] utilities = new double[nOfCandidates];
 
-        for (Integer p : candidates) {
-            Provider provider = getProvider(p);
+        for (int c = 0; c < nOfCandidates; c++) {
+            int p = candidates.get(c);
             vProvider = 0.;
 
             for (QoS k : kList) {
@@ -478,12 +400,7 @@ public class UtilityApplication extends Application {
                 qMax = minMax.getMax();
                 delta = (qMax - qMin) / _nOfDegrees;
                 w = _weights.get(k);
-
-                val = switch (k) {
-                    case LATENCY -> _latency.get(iGenotype).get(p);
-                    case THROUGHPUT -> provider.getConnRange().getCapacity();
-                    default -> provider.getAttributeValue(k);
-                };
+                val = _base.getValues(iGenotype, k)[c];
 
                 if (k.getObjective().equals(ObjectiveFunction.MAXIMIZE)) {
                     qMinNorm = qMin - delta;
@@ -498,10 +415,13 @@ public class UtilityApplication extends Application {
 
             // Save utilities
             v.put(p, vProvider);
+            ids[c] = p;
+            utilities[c] = vProvider;
         }
 
         // Save utilities
         _utilityProvider.put(iGenotype, v);
+        _utilityIndex.put(iGenotype, new UtilityIndex(ids, utilities));
     }
 
     /**
@@ -536,40 +456,23 @@ public class UtilityApplication extends Application {
         // Get best genome
         Genotype<IntegerGene> bestGenotype = bestGene.bestPhenotype().genotype();
 
-        for (Map.Entry<Integer, Integer> e : getServicesToExplore().entrySet()) {
-            Integer iService = e.getKey(), iGenotype = e.getValue();
-            Service s = getService(iService);
-
-            // Get fitness for the service and last position
-            Double cUtility = _cUtility(bestGenotype, iGenotype, true);
-
-            // Save component fitness
-            _componentRequiredUtility.put(iGenotype, cUtility);
-
-            // Save provider fitness
-            _providersUtility(iGenotype, s.getCandidates(), _qosList);
-        }
-
-        for (Map.Entry<Integer, Integer> e : getGatesToExplore().entrySet()) {
-            Integer iGate = e.getKey(), iGenotype = e.getValue();
-            Gate g = getGate(iGate);
-
-            // Get fitness for the gate and last position
-            Double cUtility = _cUtility(bestGenotype, iGenotype, false);
+        // Providers' utilities don't depend on the genome, so they are already computed in providersUtility
+        getServicesToExplore().values().parallelStream().forEach(iGenotype -> {
+            // Get fitness for the service and save it
+            _componentRequiredUtility.put(iGenotype, _cUtility(bestGenotype, iGenotype, true));
+        });
 
-            // Save component fitness
-            _componentRequiredUtility.put(iGenotype, cUtility);
-
-            // Save provider fitness
-            _providersUtility(iGenotype, g.getCandidates(), _channelQoS);
-        }
+        getGatesToExplore().values().parallelStream().forEach(iGenotype -> {
+            // Get fitness for the gate and save it
+            _componentRequiredUtility.put(iGenotype, _cUtility(bestGenotype, iGenotype, false));
+        });
 
         return _componentRequiredUtility;
     }
 
     private Double _cUtility(Genotype<IntegerGene> genotype, Integer iGenotype, Boolean isService) {
         // Obtaining the corresponding list...
-        List<QoS> qosList = isService ? _qosList : _channelQoS;
+        List<QoS> qosList = isService ? getQoSList() : getChannelQoS();
 
         // Define component fitness
         double cUtility = 0.;
@@ -597,7 +500,7 @@ public class UtilityApplication extends Application {
 
     private Double _cUtilityAlt(Genotype<IntegerGene> genotype, Integer iGenotype, Boolean isService) {
         // Obtaining the corresponding list...
-        List<QoS> qosList = isService ? _qosList : _channelQoS;
+        List<QoS> qosList = isService ? getQoSList() : getChannelQoS();
 
         // Define component fitness
         double cUtility = 0.;
@@ -642,6 +545,10 @@ public class UtilityApplication extends Application {
         return _utilityProvider;
     }
 
+    public UtilityIndex getUtilityIndex(Integer iGenotype) {
+        return _utilityIndex.get(iGenotype);
+    }
+
     public int getNOfDegrees() {
         return _nOfDegrees;
     }
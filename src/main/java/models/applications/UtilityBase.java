@@ -0,0 +1,175 @@
+package models.applications;
+
+import models.auxiliary.MinMax;
+import models.auxiliary.Normalization;
+import models.auxiliary.SuccessorLatencyIndex;
+import models.enums.QoS;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tables of an application that don't depend on the number of quality-degrees, so they can be shared by
+ * UtilityApplication and UMApplication instances built with different degrees (e.g. elbow experiments).
+ * <p>
+ * For each component (genotype index) and QoS attribute it keeps the values of its candidates (in candidates order),
+ * the same values sorted and its min-max. It also keeps the min-max aggregated for the whole application.
+ */
+public class UtilityBase {
+    private final Application _app;
+    private final SuccessorLatencyIndex _latency;
+    private final Map<Integer, Map<QoS, double[]>> _values = new ConcurrentHashMap<>(), _sorted = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<QoS, MinMax>> _qMinMax = new ConcurrentHashMap<>();
+    private final Map<QoS, MinMax> _qMinMaxAggregated = new ConcurrentHashMap<>();
+    // Size of the biggest service group
+    private final int _lk;
+    // Time to build the tables (ms)
+    private final long _preCalculationTime;
+
+    public UtilityBase(Application app) {
+        Instant start = Instant.now();
+        _app = app;
+
+        _latency = app.getChannelQoS().contains(QoS.LATENCY) ? app.getLatencyIndex() : null;
+
+        _lk = app.getServices().parallelStream().mapToInt(s -> s.getCandidates().size()).max().orElse(0);
+
+        // Each component is independent of the others
+        app.getServicesToExplore().entrySet().parallelStream().forEach(e -> _component(
+            e.getValue(), app.getService(e.getKey()).getCandidates(), app.getQoSList()
+        ));
+
+        app.getGatesToExplore().entrySet().parallelStream().forEach(e -> _component(
+            e.getValue(), app.getGate(e.getKey()).getCandidates(), app.getChannelQoS()
+        ));
+
+        qMinMaxAggregated();
+
+        _preCalculationTime = Duration.between(start, Instant.now()).toMillis();
+    }
+
+    private void _component(Integer iGenotype, List<Integer> candidates, List<QoS> kList) {
+        Map<QoS, double[]> values = new ConcurrentHashMap<>(), sorted = new ConcurrentHashMap<>();
+        Map<QoS, MinMax> minMax = new ConcurrentHashMap<>();
+
+        for (QoS k : kList) {
+            double[] v = new double[candidates.size()];
+
+            for (int c = 0; c < v.length; c++) {
+                v[c] = value(iGenotype, k, c, candidates.get(c));
+            }
+
+            double[] s = v.clone();
+            Arrays.sort(s);
+
+            values.put(k, v);
+            sorted.put(k, s);
+            minMax.put(k, (s.length == 0) ? new MinMax() : new MinMax(s[0], s[s.length - 1]));
+        }
+
+        _values.put(iGenotype, values);
+        _sorted.put(iGenotype, sorted);
+        _qMinMax.put(iGenotype, minMax);
+    }
+
+    private double value(Integer iGenotype, QoS k, int c, Integer p) {
+        return switch (k) {
+            case LATENCY -> _latency.get(iGenotype, c);
+            case THROUGHPUT -> _app.getProvider(p).getConnRange().getCapacity();
+            default -> _app.getProvider(p).getAttributeValue(k);
+        };
+    }
+
+    private void qMinMaxAggregated() {
+        for (QoS k : _app.getQoSList()) {
+            if (k.equals(QoS.LATENCY)) {
+                // Sum the min-max latency of each component
+                double min = 0., max = 0.;
+
+                int[] components = (_latency == null) ? new int[0] : _latency.getComponents();
+
+                for (int iGenotype : components) {
+                    min += _latency.getMin(iGenotype);
+                    max += _latency.getMax(iGenotype);
+                }
+
+                _qMinMaxAggregated.put(k, new MinMax(min, max));
+            } else {
+                Normalization norm = _app.getAppNorm().get(k);
+                _qMinMaxAggregated.put(k, new MinMax(norm.getMin(), norm.getMax()));
+            }
+        }
+    }
+
+    /**
+     * Count how many candidates of a component satisfy the value given, this is, how many are at least as good as it.
+     *
+     * @param iGenotype Component to check
+     * @param k         QoS attribute
+     * @param v         Value to satisfy
+     * @return Number of candidates that satisfy the value
+     */
+    public int satisfying(Integer iGenotype, QoS k, double v) {
+        double[] sorted = _sorted.get(iGenotype).get(k);
+
+        return switch (k) {
+            // Lower is better, count values <= v
+            case COST, RESPONSE_TIME, LATENCY -> firstIndex(sorted, v, true);
+            // Greater is better, count values >= v
+            default -> sorted.length - firstIndex(sorted, v, false);
+        };
+    }
+
+    /**
+     * @return First index with a value greater than v (if inclusive) or greater or equal than v (otherwise)
+     */
+    private static int firstIndex(double[] sorted, double v, boolean inclusive) {
+        int lo = 0, hi = sorted.length;
+
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+
+            if (sorted[mid] < v || (inclusive && sorted[mid] == v)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo;
+    }
+
+    public Application getApplication() {
+        return _app;
+    }
+
+    public Map<Integer, Map<QoS, MinMax>> getQMinMax() {
+        return _qMinMax;
+    }
+
+    public Map<QoS, MinMax> getQMinMaxAggregated() {
+        return _qMinMaxAggregated;
+    }
+
+    /**
+     * @return Value of each candidate of the component for the QoS attribute given, in candidates order
+     */
+    public double[] getValues(Integer iGenotype, QoS k) {
+        return _values.get(iGenotype).get(k);
+    }
+
+    public int getLk() {
+        return _lk;
+    }
+
+    /**
+     * @return Time spent building the tables, in milliseconds
+     */
+    public long getPreCalculationTime() {
+        return _preCalculationTime;
+    }
+}
@@ -0,0 +1,247 @@
+package models.auxiliary;
+
+import models.applications.Application;
+import models.applications.Provider;
+import models.enums.ObjectiveFunction;
+import models.enums.QoS;
+import org.javatuples.Pair;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Candidates of each service and gate of an application grouped by similar QoS, so the search is done over a
+ * representative of each group instead of over every candidate.
+ * <p>
+ * Groups are cells of a grid over the QoS attributes of the providers, normalized between the min and max values of
+ * each component. Candidates are in the same cell only if they have the same location (if LATENCY is used) and the same
+ * connection level (if THROUGHPUT is used). The representative of each cell is its candidate with the best weighted
+ * value. More levels per attribute give more clusters: a slower search but a lower loss.
+ * <p>
+ * After the search, `refine` picks the concrete provider of each cluster selected.
+ */
+public final class CandidateClusters extends CandidateView {
+    // Positions (in the candidates list) of the members of each cluster, by cluster position in the view
+    private final int[][][] _servicesMembers, _gatesMembers;
+    // Weighted distance from each candidate to its representative, by component
+    private final double[][] _servicesError, _gatesError;
+
+    /**
+     * @param levels Number of cells of the grid per attribute
+     */
+    public CandidateClusters(Application app, int levels) {
+        super(app);
+
+        if (levels < 1) {
+            throw new RuntimeException("Levels must be greater than zero, please check it.");
+        }
+
+        _servicesMembers = new int[_services.length][][];
+        _gatesMembers = new int[_gates.length][][];
+        _servicesError = new double[_services.length][];
+        _gatesError = new double[_gates.length][];
+
+        // 1. Weights of provider QoS attributes, the same for all components
+        List<QoS> attributes = app.getProviderQoS();
+        double[] weights = attributes.stream().mapToDouble(k -> app.getWeights().getOrDefault(k, 0.)).toArray();
+        boolean byLocation = app.getChannelQoS().contains(QoS.LATENCY),
+            byCapacity = app.getChannelQoS().contains(QoS.THROUGHPUT);
+
+        // 2. Each component is independent of the others
+        IntStream.range(0, _services.length).parallel().forEach(i -> {
+            Pair<int[][], double[]> clusters = clusters(
+                app, app.getService(i).getCandidates(), attributes, weights, levels, byLocation, byCapacity
+            );
+            _servicesMembers[i] = clusters.getValue0();
+            _servicesError[i] = clusters.getValue1();
+            _services[i] = representatives(clusters.getValue0());
+        });
+
+        IntStream.range(0, _gates.length).parallel().forEach(i -> {
+            Pair<int[][], double[]> clusters = clusters(
+                app, app.getGate(i).getCandidates(), attributes, weights, levels, byLocation, byCapacity
+            );
+            _gatesMembers[i] = clusters.getValue0();
+            _gatesError[i] = clusters.getValue1();
+            _gates[i] = representatives(clusters.getValue0());
+        });
+    }
+
+    /**
+     * Group the candidates of a component by grid cell.
+     *
+     * @return A pair (members of each cluster with its representative first, distance to the representative of each
+     * candidate)
+     */
+    private static Pair<int[][], double[]> clusters(
+        Application app, List<Integer> candidates, List<QoS> attributes, double[] weights, int levels,
+        boolean byLocation, boolean byCapacity
+    ) {
+        int n = candidates.size(), dims = attributes.size();
+        double[][] points = new double[n][dims];
+
+        // 1. Values of each candidate normalized with min-max of this component (greater is better)
+        for (int d = 0; d < dims; d++) {
+            QoS k = attributes.get(d);
+            boolean toMinimize = k.getObjective() == ObjectiveFunction.MINIMIZE;
+            double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+
+            for (int p = 0; p < n; p++) {
+                double v = app.getProvider(candidates.get(p)).getAttributeValue(k);
+                points[p][d] = v;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+
+            Normalization norm = new Normalization(min, max);
+
+            for (int p = 0; p < n; p++) {
+                points[p][d] = norm.normalize(points[p][d], toMinimize);
+            }
+        }
+
+        // 2. Cell of each candidate, in order of the first candidate of the cell
+        Map<List<Object>, List<Integer>> cells = new LinkedHashMap<>();
+
+        for (int p = 0; p < n; p++) {
+            Provider provider = app.getProvider(candidates.get(p));
+            List<Object> key = new ArrayList<>(dims + 2);
+
+            for (int d = 0; d < dims; d++) {
+                key.add(Math.min(levels - 1, (int) (points[p][d] * levels)));
+            }
+
+            if (byLocation) {
+                key.add(provider.getLocation());
+            }
+
+            if (byCapacity) {
+                key.add(provider.getConnRange());
+            }
+
+            cells.computeIfAbsent(key, c -> new ArrayList<>()).add(p);
+        }
+
+        // 3. Representative of each cell is the best weighted value (the first one with ties)
+        int[][] members = new int[cells.size()][];
+        double[] error = new double[n];
+        int iCluster = 0;
+
+        for (List<Integer> cell : cells.values()) {
+            int best = cell.get(0);
+
+            for (int p : cell) {
+                if (value(points[p], weights) > value(points[best], weights)) {
+                    best = p;
+                }
+            }
+
+            // Representative first, the rest in order
+            members[iCluster] = new int[cell.size()];
+            members[iCluster][0] = best;
+
+            for (int p : cell) {
+                double distance = 0.;
+
+                for (int d = 0; d < dims; d++) {
+                    distance += weights[d] * Math.abs(points[p][d] - points[best][d]);
+                }
+
+                error[p] = distance;
+            }
+
+            int m = 1;
+
+            for (int p : cell) {
+                if (p != best) {
+                    members[iCluster][m++] = p;
+                }
+            }
+
+            iCluster++;
+        }
+
+        // Clusters ordered by its representative, so the view keeps the order of the candidates list
+        Arrays.sort(members, Comparator.comparingInt(c -> c[0]));
+
+        return new Pair<>(members, error);
+    }
+
+    private static double value(double[] point, double[] weights) {
+        double value = 0.;
+
+        for (int d = 0; d < point.length; d++) {
+            value += weights[d] * point[d];
+        }
+
+        return value;
+    }
+
+    private static int[] representatives(int[][] members) {
+        return Arrays.stream(members).mapToInt(c -> c[0]).toArray();
+    }
+
+    /**
+     * Pick the concrete provider of each cluster selected: starting from the representatives, for each component try
+     * the members of its cluster keeping the rest of the composition, and keep the best.
+     * <p>
+     * Each member is scored changing only its component (see `SwapEvaluator`), so the refinement costs about the
+     * number of candidates of the clusters selected instead of a whole evaluation per candidate.
+     *
+     * @param genotype Position in the view (cluster) of each genotype index
+     * @return A pair (position in the candidates list of each genotype index, fitness of the composition). Channel QoS
+     * of the fitness are computed with the providers of those positions.
+     */
+    public Pair<List<Integer>, Double> refine(Application app, List<Integer> genotype) {
+        SwapEvaluator evaluator = new SwapEvaluator(app, toOriginal(app, genotype));
+        double bestFitness = evaluator.fitness();
+
+        // 1. Members of the cluster selected for each genotype index
+        int[][] members = new int[genotype.size()][];
+
+        for (Map.Entry<Integer, Integer> e : app.getServicesToExplore().entrySet()) {
+            members[e.getValue()] = _servicesMembers[e.getKey()][genotype.get(e.getValue())];
+        }
+
+        for (Map.Entry<Integer, Integer> e : app.getGatesToExplore().entrySet()) {
+            members[e.getValue()] = _gatesMembers[e.getKey()][genotype.get(e.getValue())];
+        }
+
+        // 2. A single pass over the components (the representative is the first member, so skip it)
+        for (int iGenotype = 0; iGenotype < members.length; iGenotype++) {
+            int best = members[iGenotype][0];
+
+            for (int m = 1; m < members[iGenotype].length; m++) {
+                double fitness = evaluator.set(iGenotype, members[iGenotype][m]);
+
+                if (fitness > bestFitness) {
+                    bestFitness = fitness;
+                    best = members[iGenotype][m];
+                }
+            }
+
+            evaluator.set(iGenotype, best);
+        }
+
+        return new Pair<>(evaluator.getComposition(), bestFitness);
+    }
+
+    /**
+     * Mean weighted distance (normalized QoS, between [0, 1]) between each candidate and the representative of its
+     * cluster. It's an estimation of the fitness lost searching only over the representatives.
+     */
+    public double getQuantizationError() {
+        double sum = Arrays.stream(_servicesError).flatMapToDouble(Arrays::stream).sum()
+            + Arrays.stream(_gatesError).flatMapToDouble(Arrays::stream).sum();
+
+        return (_nOfCandidates == 0) ? 0. : sum / _nOfCandidates;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Clusters: %d of %d candidates (reduction %.2f%%, error %.5f)", getNOfKept(), _nOfCandidates,
+            100. * getReductionRatio(), getQuantizationError()
+        );
+    }
+}
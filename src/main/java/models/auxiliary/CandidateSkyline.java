@@ -0,0 +1,125 @@
+package models.auxiliary;
+
+import models.applications.Application;
+import models.applications.Provider;
+import models.enums.ObjectiveFunction;
+import models.enums.QoS;
+import models.geo.Location;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Candidates of each service and gate of an application that aren't dominated by another candidate of the same
+ * component (Pareto skyline).
+ * <p>
+ * A candidate is dominated when another one is equal or better in every provider QoS attribute, and strictly better in
+ * at least one. Channel QoS attributes are taken into account too: if LATENCY is used only candidates with the same
+ * location are compared (latency depends on where the provider is), and if THROUGHPUT is used the capacity of its
+ * connection range is another attribute. No resolver can prefer a dominated candidate, so searching over the skyline
+ * gives the same best composition with a smaller search space.
+ * <p>
+ * Positions kept are positions of the original candidates lists, in the same order.
+ */
+public final class CandidateSkyline extends CandidateView {
+    public CandidateSkyline(Application app) {
+        super(app);
+
+        // 1. Attributes compared, each one oriented to be maximized
+        List<QoS> attributes = app.getProviderQoS();
+        boolean byLocation = app.getChannelQoS().contains(QoS.LATENCY),
+            byCapacity = app.getChannelQoS().contains(QoS.THROUGHPUT);
+
+        // 2. Each component is independent of the others
+        IntStream.range(0, _services.length).parallel().forEach(i -> _services[i] = skyline(
+            app, app.getService(i).getCandidates(), attributes, byLocation, byCapacity
+        ));
+
+        IntStream.range(0, _gates.length).parallel().forEach(i -> _gates[i] = skyline(
+            app, app.getGate(i).getCandidates(), attributes, byLocation, byCapacity
+        ));
+    }
+
+    /**
+     * Sort-Filter-Skyline: candidates are sorted by the sum of their attributes (a candidate can't be dominated by
+     * another one after it), and each of them is only compared with the window of candidates already kept.
+     *
+     * @return Positions (in the candidates list) of the candidates not dominated, in ascending order
+     */
+    private static int[] skyline(
+        Application app, List<Integer> candidates, List<QoS> attributes, boolean byLocation, boolean byCapacity
+    ) {
+        int n = candidates.size(), dims = attributes.size() + (byCapacity ? 1 : 0);
+        double[][] points = new double[n][dims];
+        double[] score = new double[n];
+        Location[] locations = new Location[n];
+
+        // 1. Oriented values of each candidate
+        for (int p = 0; p < n; p++) {
+            Provider provider = app.getProvider(candidates.get(p));
+
+            for (int d = 0; d < attributes.size(); d++) {
+                QoS k = attributes.get(d);
+                double v = provider.getAttributeValue(k);
+                points[p][d] = (k.getObjective() == ObjectiveFunction.MINIMIZE) ? -v : v;
+            }
+
+            if (byCapacity) {
+                points[p][dims - 1] = provider.getConnRange().getCapacity();
+            }
+
+            for (int d = 0; d < dims; d++) {
+                score[p] += points[p][d];
+            }
+
+            locations[p] = byLocation ? provider.getLocation() : null;
+        }
+
+        // 2. Best score first, ties by position to keep the first of equal candidates
+        Integer[] order = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, (a, b) -> (score[a] != score[b]) ? Double.compare(score[b], score[a]) : a - b);
+
+        // 3. Filter with a window per location
+        Map<Location, List<Integer>> windows = new HashMap<>();
+
+        for (int p : order) {
+            List<Integer> window = windows.computeIfAbsent(locations[p], l -> new ArrayList<>());
+            boolean dominated = false;
+
+            for (int q : window) {
+                if (covers(points[q], points[p])) {
+                    dominated = true;
+                    break;
+                }
+            }
+
+            if (!dominated) {
+                // Rounding on the score could sort a dominating candidate after the dominated one
+                window.removeIf(q -> covers(points[p], points[q]));
+                window.add(p);
+            }
+        }
+
+        return windows.values().stream().flatMap(List::stream).mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * Check if `a` is equal or better than `b` in all attributes
+     */
+    private static boolean covers(double[] a, double[] b) {
+        for (int d = 0; d < a.length; d++) {
+            if (a[d] < b[d]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Skyline: %d of %d candidates (reduction %.2f%%)", getNOfKept(), _nOfCandidates, 100. * getReductionRatio()
+        );
+    }
+}
@@ -0,0 +1,113 @@
+package models.auxiliary;
+
+import io.jenetics.Genotype;
+import io.jenetics.IntegerChromosome;
+import io.jenetics.IntegerGene;
+import models.applications.Application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Reduced view of the candidates of each service and gate of an application: the search is done over a subset of
+ * positions of each candidates list, and genotypes are mapped back into the original positions.
+ * <p>
+ * Positions are kept by index of service and index of gate (not by genotype index), so a view is valid for any
+ * sub-problem of the application.
+ */
+public abstract class CandidateView {
+    // Positions (in the candidates list) searched of each service and gate, filled by each view
+    protected final int[][] _services, _gates;
+    protected final int _nOfCandidates;
+
+    protected CandidateView(Application app) {
+        int nOfServices = app.getServices().size(), nOfGates = app.getGates().size();
+
+        _services = new int[nOfServices][];
+        _gates = new int[nOfGates][];
+
+        _nOfCandidates = IntStream.range(0, nOfServices).map(i -> app.getService(i).getCandidates().size()).sum()
+            + IntStream.range(0, nOfGates).map(i -> app.getGate(i).getCandidates().size()).sum();
+    }
+
+    /**
+     * @return Positions (in the candidates list) kept for the service given
+     */
+    public int[] getService(int iService) {
+        return _services[iService];
+    }
+
+    /**
+     * @return Positions (in the candidates list) kept for the gate given
+     */
+    public int[] getGate(int iGate) {
+        return _gates[iGate];
+    }
+
+    /**
+     * Map a genotype over the skyline into a genotype over the original candidates lists
+     *
+     * @param genotype Position in the skyline of the component for each genotype index
+     * @return Position in the candidates list of the component for each genotype index
+     */
+    public List<Integer> toOriginal(Application app, List<Integer> genotype) {
+        List<Integer> original = new ArrayList<>(genotype);
+
+        for (Map.Entry<Integer, Integer> e : app.getServicesToExplore().entrySet()) {
+            int iGenotype = e.getValue();
+            original.set(iGenotype, _services[e.getKey()][genotype.get(iGenotype)]);
+        }
+
+        for (Map.Entry<Integer, Integer> e : app.getGatesToExplore().entrySet()) {
+            int iGenotype = e.getValue();
+
+            // Genotypes could not have gates
+            if (iGenotype < genotype.size()) {
+                original.set(iGenotype, _gates[e.getKey()][genotype.get(iGenotype)]);
+            }
+        }
+
+        return original;
+    }
+
+    /**
+     * Same as before, but the genotype returned has the ranges of the original candidates lists, so it can be decoded
+     * as any other genotype of the application.
+     */
+    public Genotype<IntegerGene> toOriginal(Application app, Genotype<IntegerGene> gt) {
+        IntegerChromosome[] chromosomes = new IntegerChromosome[gt.length()];
+
+        for (Map.Entry<Integer, Integer> e : app.getServicesToExplore().entrySet()) {
+            int iGenotype = e.getValue(), position = _services[e.getKey()][gt.get(iGenotype).gene().allele()];
+            int size = app.getService(e.getKey()).getCandidates().size();
+            chromosomes[iGenotype] = IntegerChromosome.of(IntegerGene.of(position, 0, size - 1));
+        }
+
+        for (Map.Entry<Integer, Integer> e : app.getGatesToExplore().entrySet()) {
+            int iGenotype = e.getValue(), position = _gates[e.getKey()][gt.get(iGenotype).gene().allele()];
+            int size = app.getGate(e.getKey()).getCandidates().size();
+            chromosomes[iGenotype] = IntegerChromosome.of(IntegerGene.of(position, 0, size - 1));
+        }
+
+        return Genotype.of(Arrays.asList(chromosomes));
+    }
+
+    /**
+     * @return Ratio of candidates removed, between [0, 1]
+     */
+    public double getReductionRatio() {
+        return (_nOfCandidates == 0) ? 0. : 1. - ((double) getNOfKept() / _nOfCandidates);
+    }
+
+    public int getNOfCandidates() {
+        return _nOfCandidates;
+    }
+
+    public int getNOfKept() {
+        return Arrays.stream(_services).mapToInt(a -> a.length).sum()
+            + Arrays.stream(_gates).mapToInt(a -> a.length).sum();
+    }
+}
@@ -0,0 +1,223 @@
+package models.auxiliary;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * Immutable list of candidates (global indexes of providers) of a service or a gate, backed by a primitive array.
+ * <p>
+ * Lists are interned: services and gates with the same candidates share the same instance, so a catalog where all
+ * services have all providers keeps only one list. The position of a candidate is found in O(1) with a reverse index,
+ * built the first time that it's needed.
+ */
+public final class Candidates extends AbstractList<Integer> implements RandomAccess {
+    // Interned lists, released when no service or gate uses them
+    private static final Map<Candidates, WeakReference<Candidates>> POOL = new WeakHashMap<>();
+    private static final Candidates EMPTY = of(new int[0]);
+
+    private final int[] _values;
+    private final int _hash;
+    // Position of each candidate, dense (by candidate) if the candidates are compact or a map if they aren't
+    private transient volatile Object _positions;
+    // Candidates as a bitset, built the first time that it's needed
+    private transient volatile ProviderSet _set;
+
+    private Candidates(int[] values) {
+        _values = values;
+        _hash = hash(values);
+    }
+
+    /**
+     * Return the interned list with these candidates (the array is copied)
+     */
+    public static Candidates of(int[] values) {
+        return intern(new Candidates(values.clone()));
+    }
+
+    /**
+     * Return the interned list with these candidates
+     */
+    public static Candidates of(Collection<Integer> values) {
+        if (values instanceof Candidates) {
+            return (Candidates) values;
+        }
+
+        return intern(new Candidates(values.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    public static Candidates empty() {
+        return EMPTY;
+    }
+
+    private static Candidates intern(Candidates candidates) {
+        synchronized (POOL) {
+            WeakReference<Candidates> reference = POOL.get(candidates);
+            Candidates interned = (reference == null) ? null : reference.get();
+
+            if (interned == null) {
+                POOL.put(candidates, new WeakReference<>(candidates));
+                interned = candidates;
+            }
+
+            return interned;
+        }
+    }
+
+    private static int hash(int[] values) {
+        // Same hash as any list with the same elements
+        int hash = 1;
+
+        for (int v : values) {
+            hash = 31 * hash + Integer.hashCode(v);
+        }
+
+        return hash;
+    }
+
+    /**
+     * Return the candidate in that position without boxing
+     */
+    public int getInt(int position) {
+        return _values[position];
+    }
+
+    @Override
+    public Integer get(int position) {
+        return _values[position];
+    }
+
+    @Override
+    public int size() {
+        return _values.length;
+    }
+
+    /**
+     * Return the position of a candidate, or -1 if it isn't a candidate
+     */
+    public int positionOf(int candidate) {
+        Object positions = _positions;
+
+        if (positions == null) {
+            positions = positions();
+            _positions = positions;
+        }
+
+        if (positions instanceof int[]) {
+            int[] dense = (int[]) positions;
+            return (candidate >= 0 && candidate < dense.length) ? dense[candidate] : -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        Integer position = ((Map<Integer, Integer>) positions).get(candidate);
+
+        return (position == null) ? -1 : position;
+    }
+
+    private Object positions() {
+        int max = Arrays.stream(_values).max().orElse(-1), min = Arrays.stream(_values).min().orElse(0);
+
+        // 1. Providers indexes are usually compact, so an array indexed by candidate is enough
+        if (min >= 0 && max < 4 * _values.length + 64) {
+            int[] dense = new int[max + 1];
+            Arrays.fill(dense, -1);
+
+            // First position with repeated candidates, as `indexOf`
+            for (int p = _values.length - 1; p >= 0; p--) {
+                dense[_values[p]] = p;
+            }
+
+            return dense;
+        }
+
+        // 2. Sparse candidates
+        Map<Integer, Integer> sparse = new HashMap<>();
+
+        for (int p = 0; p < _values.length; p++) {
+            sparse.putIfAbsent(_values[p], p);
+        }
+
+        return sparse;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return (o instanceof Integer) ? positionOf((Integer) o) : -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Return the interned list with the candidates of this one followed by the given ones
+     */
+    public Candidates concat(Collection<Integer> candidates) {
+        if (candidates.isEmpty()) {
+            return this;
+        }
+
+        int[] values = Arrays.copyOf(_values, _values.length + candidates.size());
+        int i = _values.length;
+
+        for (int candidate : candidates) {
+            values[i++] = candidate;
+        }
+
+        return intern(new Candidates(values));
+    }
+
+    /**
+     * Return the interned list without the first occurrence of a candidate
+     */
+    public Candidates without(int candidate) {
+        int position = positionOf(candidate);
+
+        if (position < 0) {
+            return this;
+        }
+
+        int[] values = new int[_values.length - 1];
+        System.arraycopy(_values, 0, values, 0, position);
+        System.arraycopy(_values, position + 1, values, position, values.length - position);
+
+        return intern(new Candidates(values));
+    }
+
+    /**
+     * Return the candidates as a set of providers (repeated candidates are only once)
+     */
+    public ProviderSet toProviderSet() {
+        ProviderSet set = _set;
+
+        if (set == null) {
+            set = ProviderSet.of(_values);
+            _set = set;
+        }
+
+        return set;
+    }
+
+    public int[] toIntArray() {
+        return _values.clone();
+    }
+
+    @Override
+    public int hashCode() {
+        return _hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o instanceof Candidates) {
+            Candidates other = (Candidates) o;
+            return _hash == other._hash && Arrays.equals(_values, other._values);
+        }
+
+        return super.equals(o);
+    }
+}
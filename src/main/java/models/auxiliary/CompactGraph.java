@@ -0,0 +1,270 @@
+package models.auxiliary;
+
+import models.applications.Application;
+import models.applications.Provider;
+import models.enums.ConnRange;
+import models.geo.Location;
+import models.patterns.IndexService;
+import utils.Sets;
+
+import java.util.*;
+
+/**
+ * Graph of nodes of an application in compressed sparse row (CSR) format: the successors of vertex `v` are
+ * `targets[offsets[v]]` to `targets[offsets[v + 1] - 1]`, with its factors in the same positions.
+ * <p>
+ * Vertices are numbered in topological order (the root is 0 and every vertex is before its successors), so values
+ * from a vertex to the end of the graph are computed in a single reverse loop. Only primitive arrays are kept (and
+ * the locations of initial and last vertices), so it can't be modified once built and it's shared by all sub-problems
+ * of the application. The application is given to each query to resolve candidates and compositions.
+ */
+public final class CompactGraph {
+    // Kinds of vertex
+    public static final byte LOCATION = 0, SERVICE = 1, GATE = 2;
+
+    private final int[] _offsets, _targets;
+    private final double[] _factors;
+    private final byte[] _kinds;
+    // Index of service (or -1) and id of gate (or -1) of each vertex
+    private final int[] _serviceIds, _gateIds;
+    private final boolean[] _parallels;
+    // Location of initial and last vertices (null for the rest)
+    private final Location[] _locations;
+    // Vertex of each node of the original graph, to look up values from nodes
+    private final Map<Node, Integer> _vertices;
+
+    /**
+     * Consumer of an edge of the graph
+     */
+    @FunctionalInterface
+    public interface EdgeConsumer {
+        /**
+         * @param father Vertex where the edge starts
+         * @param next   Vertex where the edge ends
+         * @param edge   Position of the edge (to get its factor)
+         */
+        void accept(int father, int next, int edge);
+    }
+
+    public CompactGraph(Node root) {
+        List<Node> order = NodeTraversal.topologicalOrder(root);
+        int n = order.size();
+
+        _vertices = new IdentityHashMap<>();
+
+        for (int v = 0; v < n; v++) {
+            _vertices.put(order.get(v), v);
+        }
+
+        _offsets = new int[n + 1];
+        _kinds = new byte[n];
+        _serviceIds = new int[n];
+        _gateIds = new int[n];
+        _parallels = new boolean[n];
+        _locations = new Location[n];
+
+        // 1. Vertices and offsets of its successors
+        for (int v = 0; v < n; v++) {
+            Node node = order.get(v);
+            _offsets[v + 1] = _offsets[v] + node.getNext().size();
+            _parallels[v] = node.getParallels();
+            _serviceIds[v] = -1;
+            _gateIds[v] = -1;
+
+            // There are 3 types of nodes:
+            // 1. Initial and Last -> _location != null
+            // 2. IndexService -> _component != null
+            // 3. GateID -> _gateID >= 0
+            if (node.getLocation() != null) {
+                _kinds[v] = LOCATION;
+                _locations[v] = node.getLocation();
+            } else if (node.getComponent() != null) {
+                _kinds[v] = SERVICE;
+                _serviceIds[v] = ((IndexService) node.getComponent()).getIService();
+            } else if (node.getGateID() >= 0) {
+                _kinds[v] = GATE;
+                _gateIds[v] = node.getGateID();
+            } else {
+                throw new RuntimeException("Type of node doesn't recognise, please check it.");
+            }
+        }
+
+        // 2. Edges
+        _targets = new int[_offsets[n]];
+        _factors = new double[_offsets[n]];
+
+        for (int v = 0; v < n; v++) {
+            Node node = order.get(v);
+
+            for (int i = 0; i < node.getNext().size(); i++) {
+                _targets[_offsets[v] + i] = _vertices.get(node.getNext(i));
+                _factors[_offsets[v] + i] = node.getFactor(i);
+            }
+        }
+    }
+
+    public int size() {
+        return _kinds.length;
+    }
+
+    public int getRoot() {
+        return 0;
+    }
+
+    /**
+     * Return the vertex of a node of the original graph, or -1 if it isn't in this graph
+     */
+    public int getVertex(Node node) {
+        return _vertices.getOrDefault(node, -1);
+    }
+
+    public int getFirstEdge(int v) {
+        return _offsets[v];
+    }
+
+    public int getEndEdge(int v) {
+        return _offsets[v + 1];
+    }
+
+    public int getTarget(int edge) {
+        return _targets[edge];
+    }
+
+    public double getFactor(int edge) {
+        return _factors[edge];
+    }
+
+    public boolean hasNext(int v) {
+        return _offsets[v + 1] > _offsets[v];
+    }
+
+    public byte getKind(int v) {
+        return _kinds[v];
+    }
+
+    public int getServiceID(int v) {
+        return _serviceIds[v];
+    }
+
+    public int getGateID(int v) {
+        return _gateIds[v];
+    }
+
+    public boolean getParallels(int v) {
+        return _parallels[v];
+    }
+
+    /**
+     * Vertices reachable from the root in depth-first pre-order (successors in their order)
+     */
+    public int[] preOrder() {
+        int n = size(), size = 0;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(getRoot());
+
+        while (!stack.isEmpty()) {
+            int v = stack.pop();
+
+            if (visited[v]) {
+                continue;
+            }
+
+            visited[v] = true;
+            order[size++] = v;
+
+            // Keep the order of the successors
+            for (int e = _offsets[v + 1] - 1; e >= _offsets[v]; e--) {
+                stack.push(_targets[e]);
+            }
+        }
+
+        return Arrays.copyOf(order, size);
+    }
+
+    /**
+     * Visit each edge once, fathers in depth-first pre-order
+     */
+    public void forEachEdge(EdgeConsumer consumer) {
+        for (int v : preOrder()) {
+            for (int e = _offsets[v]; e < _offsets[v + 1]; e++) {
+                consumer.accept(v, _targets[e], e);
+            }
+        }
+    }
+
+    /**
+     * Return the global index of the provider selected by a vertex in a composition, or -1 for initial and last
+     * vertices.
+     *
+     * @param composition List where each genotype index has the global index of the provider selected
+     */
+    public int getProvider(Application app, List<Integer> composition, int v) {
+        if (_kinds[v] == LOCATION) {
+            return -1;
+        }
+
+        Integer iGenotype = (_kinds[v] == SERVICE)
+            ? app.getServiceToExplore(_serviceIds[v])
+            : app.getGatesToExplore().get(_gateIds[v]);
+
+        if (iGenotype == null || composition.size() <= iGenotype) {
+            throw new RuntimeException(String.format(
+                "Vertex %d hasn't a provider in the composition, please check it.", v
+            ));
+        }
+
+        return composition.get(iGenotype);
+    }
+
+    /**
+     * Location of an initial or last vertex (null for the rest, its location depends on the composition)
+     */
+    public Location getLocation(int v) {
+        return _locations[v];
+    }
+
+    public Location getLocation(Application app, List<Integer> composition, int v) {
+        return (_kinds[v] == LOCATION)
+            ? _locations[v]
+            : app.getProvider(getProvider(app, composition, v)).getLocation();
+    }
+
+    /**
+     * Candidates of a vertex (empty for initial and last vertices)
+     */
+    public ProviderSet getProvidersIndex(Application app, int v) {
+        return switch (_kinds[v]) {
+            case SERVICE -> app.getService(_serviceIds[v]).getCandidates().toProviderSet();
+            case GATE -> app.getGate(_gateIds[v]).getProvidersIndex();
+            default -> ProviderSet.empty();
+        };
+    }
+
+    /**
+     * Locations of the candidates of a vertex
+     */
+    public Set<Location> getLocations(Application app, int v) {
+        return (_kinds[v] == LOCATION)
+            ? Sets.of(_locations[v])
+            : ProviderSet.keysIntersecting(app.getCatalog().getProvidersByLocation(), getProvidersIndex(app, v));
+    }
+
+    /**
+     * Connection ranges of the candidates of a vertex (empty for initial and last vertices)
+     */
+    public Set<ConnRange> getConnRanges(Application app, int v) {
+        return (_kinds[v] == LOCATION)
+            ? Sets.of()
+            : ProviderSet.keysIntersecting(app.getCatalog().getProvidersByConnRange(), getProvidersIndex(app, v));
+    }
+
+    /**
+     * Provider selected by a vertex in a composition, or null for initial and last vertices
+     */
+    public Provider getProviderOf(Application app, List<Integer> composition, int v) {
+        int iProvider = getProvider(app, composition, v);
+        return (iProvider < 0) ? null : app.getProvider(iProvider);
+    }
+}
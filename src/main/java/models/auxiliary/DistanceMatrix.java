@@ -2,27 +2,20 @@ package models.auxiliary;
 
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
-import generators.Locations;
 import models.geo.Location;
 
 import java.util.List;
 
+/**
+ * Distances between each pair of locations of a generation (see `GenerationContext`)
+ */
 public final class DistanceMatrix {
-    private static DistanceMatrix _instance;
     private final Table<Location, Location, Double> _matrix;
     private Double _min = Double.NaN;
     private Double _max = Double.NaN;
 
-    private DistanceMatrix() {
-        _matrix = generateMatrix();
-    }
-
-    public static DistanceMatrix get() {
-        if (_instance == null) {
-            _instance = new DistanceMatrix();
-        }
-
-        return _instance;
+    public DistanceMatrix(List<Location> points) {
+        _matrix = generateMatrix(points);
     }
 
     public Double distance(Location a, Location b) {
@@ -32,6 +25,13 @@ public final class DistanceMatrix {
             distance = _matrix.get(b, a);
         }
 
+        // Locations out of the matrix (p.e. providers of other generation) aren't comparable with this one
+        if (distance == null) {
+            throw new RuntimeException(String.format(
+                "Distance between %s and %s isn't in the matrix, please check it.", a.getName(), b.getName()
+            ));
+        }
+
         return distance;
     }
 
@@ -51,9 +51,8 @@ public final class DistanceMatrix {
         return _max;
     }
 
-    private static Table<Location, Location, Double> generateMatrix() {
+    private static Table<Location, Location, Double> generateMatrix(List<Location> points) {
         Table<Location, Location, Double> matrix = HashBasedTable.create();
-        List<Location> points = Locations.get();
 
         for (int i = 0; i < points.size(); i++) {
             // Get point a
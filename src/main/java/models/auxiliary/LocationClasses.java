@@ -0,0 +1,79 @@
+package models.auxiliary;
+
+import models.applications.Provider;
+import models.geo.Location;
+
+import java.util.*;
+
+/**
+ * Providers grouped by location. Latency only depends on the location of the provider, so providers of the same class
+ * have the same latency values: they are computed once per class and broadcast to its members.
+ * <p>
+ * There are a few locations, so the number of classes doesn't grow with the number of providers.
+ */
+public final class LocationClasses {
+    // Class of each provider (global index)
+    private final int[] _classOf;
+    // Location of each class
+    private final Location[] _locations;
+
+    public LocationClasses(List<Provider> providers) {
+        Map<Location, Integer> ids = new LinkedHashMap<>();
+        _classOf = new int[providers.size()];
+
+        // Classes in order of its first provider
+        for (int p = 0; p < providers.size(); p++) {
+            _classOf[p] = ids.computeIfAbsent(providers.get(p).getLocation(), l -> ids.size());
+        }
+
+        _locations = new Location[ids.size()];
+        ids.forEach((location, c) -> _locations[c] = location);
+    }
+
+    public int getNOfClasses() {
+        return _locations.length;
+    }
+
+    /**
+     * @param provider Global index of the provider
+     * @return Class of the provider
+     */
+    public int classOf(int provider) {
+        return _classOf[provider];
+    }
+
+    public Location getLocation(int c) {
+        return _locations[c];
+    }
+
+    /**
+     * @param candidates Global indexes of providers
+     * @return Classes of the candidates, without repetitions and in ascending order
+     */
+    public int[] classesOf(List<Integer> candidates) {
+        BitSet classes = new BitSet(_locations.length);
+
+        for (int candidate : candidates) {
+            classes.set(_classOf[candidate]);
+        }
+
+        return classes.stream().toArray();
+    }
+
+    /**
+     * Value of each candidate from the values of its class
+     *
+     * @param candidates Global indexes of providers
+     * @param values     Value of each class (only classes of the candidates are read)
+     * @return Values in the candidates order
+     */
+    public double[] broadcast(List<Integer> candidates, double[] values) {
+        double[] broadcast = new double[candidates.size()];
+
+        for (int c = 0; c < broadcast.length; c++) {
+            broadcast[c] = values[_classOf[candidates.get(c)]];
+        }
+
+        return broadcast;
+    }
+}
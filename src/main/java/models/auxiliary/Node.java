@@ -192,9 +192,9 @@ public class Node {
         return _factors.get(i);
     }
 
-    public Set<Integer> getProvidersIndex(Application app) {
+    public ProviderSet getProvidersIndex(Application app) {
         if (_location != null) {
-            return Sets.of();
+            return ProviderSet.empty();
         } else if (_component != null) {
             return ((IndexService) getComponent()).getProvidersIndex(app);
         } else if (_gateId >= 0) {
@@ -0,0 +1,136 @@
+package models.auxiliary;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Traversals over the graph of nodes of an application.
+ * <p>
+ * Parallel and conditional patterns open branches that join again in the same node, so walking the graph following
+ * `getNext` visits the join (and everything after it) once per path. These traversals visit each node and each edge
+ * only once, O(V + E), and they aren't recursive, so deep graphs don't overflow the stack. Nodes are compared by
+ * identity.
+ */
+public final class NodeTraversal {
+    private NodeTraversal() {
+    }
+
+    /**
+     * Function of a node from the values of its successors
+     *
+     * @param <T> Type of the values
+     */
+    @FunctionalInterface
+    public interface Visitor<T> {
+        /**
+         * @param node Node to evaluate
+         * @param next Values of the successors of the node, in the same order as `node.getNext()`
+         * @return Value of the node
+         */
+        T visit(Node node, List<T> next);
+    }
+
+    /**
+     * Nodes reachable from the root in depth-first pre-order (each node the first time that it's reached, successors
+     * in their order).
+     */
+    public static List<Node> preOrder(Node root) {
+        List<Node> order = new ArrayList<>();
+        Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Node current = stack.pop();
+
+            if (!visited.add(current)) {
+                continue;
+            }
+
+            order.add(current);
+
+            // Keep the order of the successors
+            for (int i = current.getNext().size() - 1; i >= 0; i--) {
+                stack.push(current.getNext(i));
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Nodes reachable from the root, each node after all its successors (reverse topological order).
+     */
+    public static List<Node> postOrder(Node root) {
+        List<Node> order = new ArrayList<>();
+        Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        // Node and index of the next successor to visit
+        Deque<Node> nodes = new ArrayDeque<>();
+        Deque<Integer> positions = new ArrayDeque<>();
+
+        visited.add(root);
+        nodes.push(root);
+        positions.push(0);
+
+        while (!nodes.isEmpty()) {
+            Node current = nodes.peek();
+            int i = positions.pop();
+
+            if (i < current.getNext().size()) {
+                positions.push(i + 1);
+                Node next = current.getNext(i);
+
+                if (visited.add(next)) {
+                    nodes.push(next);
+                    positions.push(0);
+                }
+            } else {
+                nodes.pop();
+                order.add(current);
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Nodes reachable from the root, each node before all its successors.
+     */
+    public static List<Node> topologicalOrder(Node root) {
+        List<Node> order = postOrder(root);
+        Collections.reverse(order);
+        return order;
+    }
+
+    /**
+     * Evaluate each node reachable from the root only once, from the values of its successors.
+     *
+     * @return Value of each node (by identity)
+     */
+    public static <T> Map<Node, T> evaluate(Node root, Visitor<T> visitor) {
+        Map<Node, T> values = new IdentityHashMap<>();
+
+        for (Node node : postOrder(root)) {
+            List<T> next = new ArrayList<>(node.getNext().size());
+
+            for (Node n : node.getNext()) {
+                next.add(values.get(n));
+            }
+
+            values.put(node, visitor.visit(node, next));
+        }
+
+        return values;
+    }
+
+    /**
+     * Visit each edge (father, successor) reachable from the root only once, in depth-first pre-order.
+     */
+    public static void forEachEdge(Node root, BiConsumer<Node, Node> consumer) {
+        for (Node father : preOrder(root)) {
+            for (Node next : father.getNext()) {
+                consumer.accept(father, next);
+            }
+        }
+    }
+}
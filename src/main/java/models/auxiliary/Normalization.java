@@ -12,8 +12,8 @@ import java.io.Serializable;
  * - Max normalization     :> x / x_max
  */
 public class Normalization implements Serializable, Cloneable {
-    private Double _min;
-    private Double _max;
+    private double _min;
+    private double _max;
 
     public Normalization(double min, double max) {
         _min = min;
@@ -41,7 +41,7 @@ public class Normalization implements Serializable, Cloneable {
         _max = max;
     }
 
-    public Double normalize(Double x, Boolean toMinimize) {
+    public double normalize(double x, boolean toMinimize) {
         double denominator = _max - _min;
 
         if (denominator == 0) {
@@ -54,7 +54,7 @@ public class Normalization implements Serializable, Cloneable {
         return x;
     }
 
-    public Double scaling(Double x, Boolean toMinimize) {
+    public double scaling(double x, boolean toMinimize) {
         x = (_max == 0) ? 1. : (x / _max);
 
         if (toMinimize) {
@@ -64,7 +64,7 @@ public class Normalization implements Serializable, Cloneable {
         return x;
     }
 
-    public Double normalize(Double x, Boolean toMinimize, NormalizedMethod method) {
+    public double normalize(double x, boolean toMinimize, NormalizedMethod method) {
         return switch (method) {
             case MAX -> scaling(x, toMinimize);
             case MIN_MAX -> normalize(x, toMinimize);
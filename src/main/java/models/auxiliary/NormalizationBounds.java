@@ -0,0 +1,148 @@
+package models.auxiliary;
+
+import models.applications.Application;
+import models.enums.QoS;
+import models.patterns.Architecture;
+import models.patterns.CompiledArchitecture;
+import models.patterns.Component;
+
+import java.util.*;
+
+/**
+ * Bounds used to normalize the values of an application, for every subtree of its architecture and for every node of
+ * its graph.
+ * <p>
+ * Provider QoS bounds of a subtree are its value when all services have the higher (or the lower) value of the
+ * providers, and they are computed for all subtrees in a single post-order pass. Channel QoS bounds (latency and
+ * throughput) are computed walking the graph once, keeping the bounds from each node to the end. Sub-problems share
+ * the architecture components and the graph of their application, so they only look up their bounds.
+ * <p>
+ * The index can't be modified once built, so it can be shared by any thread.
+ */
+public final class NormalizationBounds {
+    // Provider QoS attributes, and value of the higher and lower provider for each of them
+    private final List<QoS> _qos;
+    private final double[] _higher, _lower;
+    // Subtree -> [value with higher providers, value with lower providers] per QoS attribute
+    private final Map<Component, double[]> _subtrees;
+    // Compact graph of the application, and bounds from each vertex to the end of the graph per channel QoS attribute
+    private final CompactGraph _graph;
+    private final Map<QoS, double[][]> _segments;
+
+    public NormalizationBounds(Application app) {
+        // 1. Values of the higher and lower providers
+        _qos = new ArrayList<>(app.getProvidersNorm().keySet());
+        _higher = _qos.stream().mapToDouble(k -> app.getProvidersNorm().get(k).getMax()).toArray();
+        _lower = _qos.stream().mapToDouble(k -> app.getProvidersNorm().get(k).getMin()).toArray();
+
+        // 2. Subtrees of the architecture, in post-order
+        _subtrees = new IdentityHashMap<>();
+        subtree(app.getArchitecture(), _subtrees);
+
+        // 3. Segments of the graph
+        _graph = app.getCompactGraph();
+        _segments = new EnumMap<>(QoS.class);
+
+        for (QoS k : app.getChannelQoS()) {
+            _segments.put(k, segments(app, _graph, k));
+        }
+    }
+
+    /**
+     * Bounds from each vertex of the graph to the end for a channel QoS attribute
+     */
+    private static double[][] segments(Application app, CompactGraph g, QoS k) {
+        return switch (k) {
+            case LATENCY -> Latency.minMax(g, app);
+            case THROUGHPUT -> Throughput.minMax(g, app);
+            default -> throw new RuntimeException(String.format("%s isn't a channel QoS, please check it.", k));
+        };
+    }
+
+    /**
+     * Values of the subtree given, computing (and saving into cache given) the subtrees not found.
+     */
+    private double[] subtree(Component c, Map<Component, double[]> cache) {
+        double[] values = _subtrees.containsKey(c) ? _subtrees.get(c) : cache.get(c);
+
+        if (values != null) {
+            return values;
+        }
+
+        int nOfQoS = _qos.size();
+        values = new double[nOfQoS * 2];
+
+        if (c.isBase()) {
+            for (int k = 0; k < nOfQoS; k++) {
+                values[k * 2] = _higher[k];
+                values[k * 2 + 1] = _lower[k];
+            }
+        } else {
+            Architecture architecture = (Architecture) c;
+            List<Component> components = architecture.getComponents();
+            double[][] children = new double[components.size()][];
+
+            for (int i = 0; i < children.length; i++) {
+                children[i] = subtree(components.get(i), cache);
+            }
+
+            double[] higher = new double[children.length], lower = new double[children.length];
+
+            for (int k = 0; k < nOfQoS; k++) {
+                for (int i = 0; i < children.length; i++) {
+                    higher[i] = children[i][k * 2];
+                    lower[i] = children[i][k * 2 + 1];
+                }
+
+                values[k * 2] = CompiledArchitecture.aggregate(_qos.get(k), architecture, higher);
+                values[k * 2 + 1] = CompiledArchitecture.aggregate(_qos.get(k), architecture, lower);
+            }
+        }
+
+        cache.put(c, values);
+        return values;
+    }
+
+    /**
+     * Return the bounds of a provider QoS attribute for the architecture given. Architectures which aren't subtrees
+     * of the application (p.e. new batches created by DAC) are aggregated from their components.
+     *
+     * @return Normalization between min and max values
+     */
+    public Normalization get(Component architecture, QoS k) {
+        int kIndex = _qos.indexOf(k);
+
+        if (kIndex < 0) {
+            throw new RuntimeException(String.format(
+                "%s isn't a provider QoS of the normalization bounds, please check it.", k
+            ));
+        }
+
+        // Unknown subtrees are saved in a local cache to keep this index unmodified
+        double[] values = subtree(architecture, new IdentityHashMap<>());
+
+        double a = values[kIndex * 2], b = values[kIndex * 2 + 1];
+        return new Normalization(Math.min(a, b), Math.max(a, b));
+    }
+
+    /**
+     * Return the bounds of a channel QoS attribute from the node given to the end of the graph. Nodes that aren't in
+     * the graph indexed (p.e. a graph built after the bounds) and attributes not indexed are computed from the graph of
+     * the node.
+     *
+     * @return Normalization between min and max values
+     */
+    public Normalization get(Application app, Node node, QoS k) {
+        double[][] segments = _segments.get(k);
+        int v = (_graph == null) ? -1 : _graph.getVertex(node);
+        double[] bounds = (segments != null && v >= 0) ? segments[v] : segments(app, new CompactGraph(node), k)[0];
+
+        if (bounds == null) {
+            throw new RuntimeException(String.format(
+                "There aren't providers to bound %s from the node given to the end of the graph, please check it.", k
+            ));
+        }
+
+        return new Normalization(bounds[0], bounds[1]);
+    }
+}
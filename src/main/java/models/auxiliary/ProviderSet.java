@@ -0,0 +1,207 @@
+package models.auxiliary;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable set of providers (global indexes) as a bitset.
+ * <p>
+ * Only the words between the first and the last provider are kept (leading and trailing empty words are dropped), so
+ * a set of a few close providers is a few words whatever its indexes are. Union, intersection and cardinality are
+ * done word by word.
+ */
+public final class ProviderSet {
+    private static final ProviderSet EMPTY = new ProviderSet(0, new long[0]);
+
+    // Index of the first word kept
+    private final int _offset;
+    private final long[] _words;
+
+    private ProviderSet(int offset, long[] words) {
+        _offset = offset;
+        _words = words;
+    }
+
+    public static ProviderSet empty() {
+        return EMPTY;
+    }
+
+    public static ProviderSet of(int[] providers) {
+        if (providers.length == 0) {
+            return EMPTY;
+        }
+
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+
+        for (int p : providers) {
+            if (p < 0) {
+                throw new RuntimeException("Providers indexes must be non-negative, please check it.");
+            }
+
+            min = Math.min(min, p);
+            max = Math.max(max, p);
+        }
+
+        int offset = min >>> 6;
+        long[] words = new long[(max >>> 6) - offset + 1];
+
+        for (int p : providers) {
+            words[(p >>> 6) - offset] |= 1L << p;
+        }
+
+        return new ProviderSet(offset, words);
+    }
+
+    /**
+     * Drop the empty words at the beginning and at the end
+     */
+    private static ProviderSet trim(int offset, long[] words) {
+        int from = 0, to = words.length;
+
+        while (from < to && words[from] == 0L) {
+            from++;
+        }
+
+        while (to > from && words[to - 1] == 0L) {
+            to--;
+        }
+
+        if (from == to) {
+            return EMPTY;
+        }
+
+        return (from == 0 && to == words.length)
+            ? new ProviderSet(offset, words)
+            : new ProviderSet(offset + from, Arrays.copyOfRange(words, from, to));
+    }
+
+    private long word(int i) {
+        int w = i - _offset;
+        return (w >= 0 && w < _words.length) ? _words[w] : 0L;
+    }
+
+    public ProviderSet union(ProviderSet o) {
+        if (o._words.length == 0) {
+            return this;
+        } else if (_words.length == 0) {
+            return o;
+        }
+
+        int offset = Math.min(_offset, o._offset), end = Math.max(_offset + _words.length, o._offset + o._words.length);
+        long[] words = new long[end - offset];
+
+        for (int i = offset; i < end; i++) {
+            words[i - offset] = word(i) | o.word(i);
+        }
+
+        return new ProviderSet(offset, words);
+    }
+
+    public ProviderSet intersection(ProviderSet o) {
+        int offset = Math.max(_offset, o._offset), end = Math.min(_offset + _words.length, o._offset + o._words.length);
+
+        if (offset >= end) {
+            return EMPTY;
+        }
+
+        long[] words = new long[end - offset];
+
+        for (int i = offset; i < end; i++) {
+            words[i - offset] = word(i) & o.word(i);
+        }
+
+        return trim(offset, words);
+    }
+
+    /**
+     * Check if both sets have any provider in common, without building the intersection
+     */
+    public boolean intersects(ProviderSet o) {
+        int offset = Math.max(_offset, o._offset), end = Math.min(_offset + _words.length, o._offset + o._words.length);
+
+        for (int i = offset; i < end; i++) {
+            if ((word(i) & o.word(i)) != 0L) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean contains(int provider) {
+        return provider >= 0 && (word(provider >>> 6) & (1L << provider)) != 0L;
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+
+        for (long w : _words) {
+            cardinality += Long.bitCount(w);
+        }
+
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return _words.length == 0;
+    }
+
+    /**
+     * Providers of this set in ascending order
+     */
+    public IntStream stream() {
+        return IntStream.range(0, _words.length).flatMap(w -> {
+            long word = _words[w];
+            int[] providers = new int[Long.bitCount(word)];
+
+            for (int i = 0; word != 0L; i++) {
+                providers[i] = ((_offset + w) << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+
+            return IntStream.of(providers);
+        });
+    }
+
+    public int[] toArray() {
+        return stream().toArray();
+    }
+
+    /**
+     * Return the keys whose set of providers has any provider in common with the given set, p.e. the locations of the
+     * candidates of a component when `sets` are the providers of each location.
+     */
+    public static <K> Set<K> keysIntersecting(Map<K, ProviderSet> sets, ProviderSet providers) {
+        Set<K> keys = new HashSet<>();
+
+        for (Map.Entry<K, ProviderSet> e : sets.entrySet()) {
+            if (e.getValue().intersects(providers)) {
+                keys.add(e.getKey());
+            }
+        }
+
+        return keys;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof ProviderSet)) {
+            return false;
+        }
+
+        ProviderSet other = (ProviderSet) o;
+        return _offset == other._offset && Arrays.equals(_words, other._words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * _offset + Arrays.hashCode(_words);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
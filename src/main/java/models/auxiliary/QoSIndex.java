@@ -0,0 +1,157 @@
+package models.auxiliary;
+
+/**
+ * Static k-d tree over the normalized QoS vectors of the candidates of a single component (service or gate).
+ * <p>
+ * It answers exact nearest-neighbour queries under the L1 distance, which is the distance used to decode a
+ * quality-degree genotype into the most similar provider. The tree is implicit: points are reordered so that the median
+ * of each range is its splitting node, and the splitting dimension is the depth modulo the number of dimensions. When
+ * two providers are at the same distance, the provider with the lower index wins, as the linear scan did.
+ */
+public class QoSIndex {
+    private final int _dims;
+    private final double[] _points;
+    private final int[] _ids;
+
+    /**
+     * Build the index
+     *
+     * @param ids    Global index of each candidate provider
+     * @param points Flat matrix (row per candidate) with the normalized value of each QoS attribute
+     * @param dims   Number of QoS attributes per candidate
+     */
+    public QoSIndex(int[] ids, double[] points, int dims) {
+        if (ids.length * dims != points.length) {
+            throw new IllegalArgumentException("Points and ids sizes don't match, please check it.");
+        }
+
+        _dims = dims;
+        _ids = ids.clone();
+        _points = points.clone();
+
+        build(0, _ids.length, 0);
+    }
+
+    public int size() {
+        return _ids.length;
+    }
+
+    public int dims() {
+        return _dims;
+    }
+
+    /**
+     * Return the provider closest (L1 distance) to the query given
+     *
+     * @param query Normalized value for each QoS attribute, in the same order used to build the index
+     * @return Global index of the closest provider, or -1 if no provider is comparable
+     */
+    public int nearest(double[] query) {
+        Search s = new Search();
+        search(0, _ids.length, 0, query, s);
+        return s.id;
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % _dims);
+
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Quick-select: after the call, the k-th point has its final position for the axis given, points on its left are
+     * lower or equal and points on its right are greater or equal.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinate((left + right) >>> 1, axis);
+            int i = left, j = right;
+
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) {
+                    i++;
+                }
+
+                while (coordinate(j, axis) > pivot) {
+                    j--;
+                }
+
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void search(int lo, int hi, int depth, double[] query, Search s) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1, axis = depth % _dims, offset = mid * _dims;
+
+        // Distance between the query and the splitting point
+        double d = 0.;
+
+        for (int k = 0; k < _dims; k++) {
+            d += Math.abs(query[k] - _points[offset + k]);
+        }
+
+        if (d < s.distance || (d == s.distance && _ids[mid] < s.id)) {
+            s.distance = d;
+            s.id = _ids[mid];
+        }
+
+        double diff = query[axis] - _points[offset + axis];
+
+        // Visit first the side where is the query, and the other only if it can hold a closer (or tied) point
+        if (diff < 0) {
+            search(lo, mid, depth + 1, query, s);
+
+            if (!(-diff > s.distance)) {
+                search(mid + 1, hi, depth + 1, query, s);
+            }
+        } else {
+            search(mid + 1, hi, depth + 1, query, s);
+
+            if (!(diff > s.distance)) {
+                search(lo, mid, depth + 1, query, s);
+            }
+        }
+    }
+
+    private double coordinate(int i, int axis) {
+        return _points[i * _dims + axis];
+    }
+
+    private void swap(int a, int b) {
+        int id = _ids[a];
+        _ids[a] = _ids[b];
+        _ids[b] = id;
+
+        for (int k = 0, oA = a * _dims, oB = b * _dims; k < _dims; k++) {
+            double v = _points[oA + k];
+            _points[oA + k] = _points[oB + k];
+            _points[oB + k] = v;
+        }
+    }
+
+    private static final class Search {
+        private double distance = Double.MAX_VALUE;
+        private int id = -1;
+    }
+}
@@ -0,0 +1,157 @@
+package models.auxiliary;
+
+import models.enums.Header;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Result of a resolution of an application, with primitive fields and the composition found as an int array.
+ * <p>
+ * Optional fields (only given by some resolvers) are -1 for integers and NaN for decimals when they aren't given.
+ */
+public final class RunResult {
+    private final long _preCalculationTime, _executionTime, _generations;
+    private final int _providers, _services;
+    private final double _bestFitness, _meanFitness, _worstFitness;
+    private final int[] _composition;
+    // Optional fields
+    private final int _batchSize, _subProblems;
+    private final double _reductionRatio, _quantizationError;
+
+    public RunResult(
+        long preCalculationTime, long executionTime, int providers, int services, long generations,
+        double bestFitness, double meanFitness, double worstFitness, List<Integer> composition, int batchSize,
+        int subProblems, double reductionRatio, double quantizationError
+    ) {
+        _preCalculationTime = preCalculationTime;
+        _executionTime = executionTime;
+        _providers = providers;
+        _services = services;
+        _generations = generations;
+        _bestFitness = bestFitness;
+        _meanFitness = meanFitness;
+        _worstFitness = worstFitness;
+        _composition = composition.stream().mapToInt(Integer::intValue).toArray();
+        _batchSize = batchSize;
+        _subProblems = subProblems;
+        _reductionRatio = reductionRatio;
+        _quantizationError = quantizationError;
+    }
+
+    public RunResult(
+        long preCalculationTime, long executionTime, int providers, int services, long generations,
+        double bestFitness, double meanFitness, double worstFitness, List<Integer> composition, int batchSize,
+        int subProblems
+    ) {
+        this(
+            preCalculationTime, executionTime, providers, services, generations, bestFitness, meanFitness,
+            worstFitness, composition, batchSize, subProblems, Double.NaN, Double.NaN
+        );
+    }
+
+    /**
+     * Result of a resolver that only gives one composition, so best, mean and worst fitness are the same
+     */
+    public RunResult(
+        long preCalculationTime, long executionTime, int providers, int services, long generations, double fitness,
+        List<Integer> composition
+    ) {
+        this(
+            preCalculationTime, executionTime, providers, services, generations, fitness, fitness, fitness,
+            composition, -1, -1
+        );
+    }
+
+    public long getPreCalculationTime() {
+        return _preCalculationTime;
+    }
+
+    public long getExecutionTime() {
+        return _executionTime;
+    }
+
+    public int getProviders() {
+        return _providers;
+    }
+
+    public int getServices() {
+        return _services;
+    }
+
+    public long getGenerations() {
+        return _generations;
+    }
+
+    public double getBestFitness() {
+        return _bestFitness;
+    }
+
+    public double getMeanFitness() {
+        return _meanFitness;
+    }
+
+    public double getWorstFitness() {
+        return _worstFitness;
+    }
+
+    /**
+     * @return Composition (provider of each genotype position), it mustn't be modified
+     */
+    public int[] getComposition() {
+        return _composition;
+    }
+
+    public int getBatchSize() {
+        return _batchSize;
+    }
+
+    public int getSubProblems() {
+        return _subProblems;
+    }
+
+    public double getReductionRatio() {
+        return _reductionRatio;
+    }
+
+    public double getQuantizationError() {
+        return _quantizationError;
+    }
+
+    /**
+     * Return the fields given as a map of values by header (see `App.updateData`)
+     */
+    public Map<Header, Object> toMap() {
+        Map<Header, Object> information = new EnumMap<>(Header.class);
+        information.put(Header.PRE_CALCULATION_TIME, _preCalculationTime);
+        information.put(Header.EXECUTION_TIME, _executionTime);
+        information.put(Header.PROVIDERS, _providers);
+        information.put(Header.SERVICES, _services);
+        information.put(Header.GENERATIONS, _generations);
+        information.put(Header.BEST_FITNESS, _bestFitness);
+        information.put(Header.MEAN_FITNESS, _meanFitness);
+        information.put(Header.WORST_FITNESS, _worstFitness);
+        information.put(Header.GENOTYPE, Arrays.stream(_composition).boxed().collect(Collectors.toList()));
+
+        if (_batchSize >= 0) {
+            information.put(Header.BATCH_SIZE, _batchSize);
+        }
+
+        if (_subProblems >= 0) {
+            information.put(Header.SUB_PROBLEMS, _subProblems);
+        }
+
+        if (!Double.isNaN(_reductionRatio)) {
+            information.put(Header.REDUCTION_RATIO, _reductionRatio);
+        }
+
+        if (!Double.isNaN(_quantizationError)) {
+            information.put(Header.QUANTIZATION_ERROR, _quantizationError);
+        }
+
+        return information;
+    }
+}
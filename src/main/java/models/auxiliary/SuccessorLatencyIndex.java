@@ -0,0 +1,135 @@
+package models.auxiliary;
+
+import models.applications.Application;
+import models.geo.Geo;
+import models.geo.Location;
+import models.patterns.IndexService;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * For each component (genotype index) with successors in the graph of an application, the average latency from each of
+ * its candidates to all locations of its successors.
+ * <p>
+ * It's built walking the graph once and each component is calculated in parallel, once per class of candidates with
+ * the same location (see `LocationClasses`). Values are kept in primitive arrays in the candidates order, and the
+ * index can't be modified once built, so it can be shared by any resolver.
+ */
+public final class SuccessorLatencyIndex {
+    // Indexed by genotype index, null if the component has no successors
+    private final double[][] _latency;
+    private final double[] _min, _max;
+
+    public SuccessorLatencyIndex(Application app) {
+        // 1. Components (genotype index -> node) in the order of the graph
+        Map<Integer, Node> nodes = components(app);
+
+        int size = nodes.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        _latency = new double[size][];
+        _min = new double[size];
+        _max = new double[size];
+
+        // 2. Each component is independent of the others
+        nodes.entrySet().parallelStream().forEach(e -> {
+            int iGenotype = e.getKey();
+            double[] latency = latencies(app, e.getValue());
+
+            _latency[iGenotype] = latency;
+            _min[iGenotype] = Arrays.stream(latency).min().orElse(Double.MAX_VALUE);
+            _max[iGenotype] = Arrays.stream(latency).max().orElse(Double.MIN_VALUE);
+        });
+    }
+
+    /**
+     * Walk the graph once, from the root, keeping the components with successors.
+     */
+    private static Map<Integer, Node> components(Application app) {
+        Map<Integer, Node> nodes = new LinkedHashMap<>();
+
+        for (Node current : NodeTraversal.preOrder(app.getGraph())) {
+            // Initial and last nodes only have a location, they aren't components
+            if (current.getNext().isEmpty() || current.getLocation() != null) {
+                continue;
+            }
+
+            Integer iGenotype;
+
+            if (current.getGateID() >= 0) {
+                iGenotype = app.getGatesToExplore().get(current.getGateID());
+            } else if (current.getComponent() != null) {
+                iGenotype = app.getServicesToExplore().get(((IndexService) current.getComponent()).getIService());
+            } else {
+                throw new RuntimeException("Type of node doesn't recognise, please check it.");
+            }
+
+            if (iGenotype != null) {
+                nodes.putIfAbsent(iGenotype, current);
+            }
+        }
+
+        return nodes;
+    }
+
+    private static double[] latencies(Application app, Node node) {
+        List<Integer> candidates = (node.getGateID() >= 0)
+            ? app.getGate(node.getGateID()).getCandidates()
+            : ((IndexService) node.getComponent()).getService(app).getCandidates();
+
+        // Locations of all successors
+        Location[] locations = node.getNext().stream()
+            .map(Node::getLocations)
+            .flatMap(Collection::stream)
+            .toArray(Location[]::new);
+
+        // Latency only depends on the location of the provider, so it's computed once per class of candidates
+        LocationClasses classes = app.getCatalog().getLocationClasses();
+        DistanceMatrix distances = app.getDistances();
+        double[] latency = new double[classes.getNOfClasses()];
+
+        for (int c : classes.classesOf(candidates)) {
+            Location lProvider = classes.getLocation(c);
+            double sum = 0.;
+
+            for (Location lNext : locations) {
+                sum += Geo.latency(distances.distance(lNext, lProvider));
+            }
+
+            latency[c] = (locations.length == 0) ? 0. : sum / locations.length;
+        }
+
+        return classes.broadcast(candidates, latency);
+    }
+
+    /**
+     * @param iGenotype Genotype index of the component
+     * @return True if the component has latencies in this index
+     */
+    public boolean contains(int iGenotype) {
+        return iGenotype >= 0 && iGenotype < _latency.length && _latency[iGenotype] != null;
+    }
+
+    /**
+     * @param iGenotype  Genotype index of the component
+     * @param iCandidate Position of the provider in the candidates list of the component
+     * @return Average latency from that provider to the successors of the component
+     */
+    public double get(int iGenotype, int iCandidate) {
+        return _latency[iGenotype][iCandidate];
+    }
+
+    public double getMin(int iGenotype) {
+        return _min[iGenotype];
+    }
+
+    public double getMax(int iGenotype) {
+        return _max[iGenotype];
+    }
+
+    /**
+     * @return Genotype indexes of all components in this index
+     */
+    public int[] getComponents() {
+        return IntStream.range(0, _latency.length).filter(this::contains).toArray();
+    }
+}
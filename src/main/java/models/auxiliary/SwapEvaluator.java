@@ -0,0 +1,364 @@
+package models.auxiliary;
+
+import models.applications.Application;
+import models.applications.Provider;
+import models.enums.ObjectiveFunction;
+import models.enums.QoS;
+import models.geo.Location;
+import models.patterns.CompiledArchitecture;
+
+import java.util.*;
+
+/**
+ * Fitness of a composition that is changed one component at a time, without evaluating the whole application again.
+ * <p>
+ * The value of each node of the compiled architecture (provider QoS) and of each vertex of the compact graph (channel
+ * QoS) is kept, so changing a component only recomputes the patterns and the vertices before it. The fitness is the
+ * same as `Application.fitnessPair` when positions and global indexes of providers are the same (complete candidates
+ * lists).
+ * <p>
+ * Compositions are positions in the candidates lists by genotype index. Channel QoS are computed with the providers of
+ * those positions (global indexes), so a composition is always evaluated with the providers that it selects.
+ */
+public final class SwapEvaluator {
+    private final Application _app;
+    // Attributes in the order of the weights, with its weight, normalization and constraints
+    private final QoS[] _qos;
+    private final double[] _weights;
+    private final Normalization[] _norms;
+    private final Constraint[] _soft, _hard;
+    private final boolean _withConstraints;
+    // Value of each attribute for the current composition
+    private final double[] _values;
+    // Candidates of each genotype index and position selected
+    private final List<List<Integer>> _candidates;
+    private final int[] _positions;
+    // Provider QoS: compiled architecture and value of each node, by attribute (null for channel QoS)
+    private final CompiledArchitecture _compiled;
+    private final double[][] _nodes;
+    private final double[] _buffer;
+    // Channel QoS: graph, fathers of each vertex, vertices of each genotype index and selection of each vertex (null
+    // without channel QoS, the application hasn't a graph)
+    private final CompactGraph _graph;
+    private final int[][] _fathers, _vertices;
+    private final Location[] _locations;
+    private final Provider[] _providers;
+    private final double[] _latency, _throughput;
+    private final boolean _withLatency, _withThroughput;
+    // Vertices to recompute, marked with the number of the change
+    private final int[] _marks;
+    private int _change;
+
+    /**
+     * @param app       Application to evaluate
+     * @param positions Position in the candidates list of each genotype index (services and gates)
+     */
+    public SwapEvaluator(Application app, List<Integer> positions) {
+        int nOfServices = app.getServicesToExplore().size(), size = nOfServices + app.getGatesToExplore().size();
+
+        if (positions.size() != size) {
+            throw new RuntimeException(String.format(
+                "Composition has %d components but the application has %d, please check it.", positions.size(), size
+            ));
+        }
+
+        _app = app;
+
+        // 1. Candidates and positions of each genotype index
+        _candidates = new ArrayList<>(Collections.nCopies(size, null));
+        _positions = positions.stream().mapToInt(Integer::intValue).toArray();
+        app.getServicesToExplore().forEach((iService, iGenotype) -> _candidates.set(
+            iGenotype, app.getService(iService).getCandidates()
+        ));
+        app.getGatesToExplore().forEach((iGate, iGenotype) -> _candidates.set(
+            iGenotype, app.getGate(iGate).getCandidates()
+        ));
+
+        // 2. Attributes, in the same order as the fitness of the application
+        int n = app.getWeights().size();
+        _qos = new QoS[n];
+        _weights = new double[n];
+        _norms = new Normalization[n];
+        _soft = new Constraint[n];
+        _hard = new Constraint[n];
+        _values = new double[n];
+        _nodes = new double[n][];
+
+        int i = 0;
+
+        for (Map.Entry<QoS, Double> entry : app.getWeights().entrySet()) {
+            QoS k = entry.getKey();
+            _qos[i] = k;
+            _weights[i] = entry.getValue();
+            _norms[i] = app.getAppNorm().get(k);
+            _soft[i] = app.getSoftConstraints().get(k);
+            _hard[i] = app.getHardConstraints().get(k);
+            i++;
+        }
+
+        _withConstraints = !app.getSoftConstraints().isEmpty() || !app.getHardConstraints().isEmpty();
+        _withLatency = app.getWeights().containsKey(QoS.LATENCY);
+        _withThroughput = app.getWeights().containsKey(QoS.THROUGHPUT);
+
+        // 3. Provider QoS over the compiled architecture
+        _compiled = new CompiledArchitecture(app.getArchitecture(), app.getServicesToExplore());
+        _buffer = new double[_compiled.getStackSize()];
+        double[][] values = new double[size][n];
+
+        for (int iGenotype = 0; iGenotype < size; iGenotype++) {
+            Provider provider = getProvider(iGenotype, _positions[iGenotype]);
+
+            for (int k = 0; k < n; k++) {
+                if (!isChannel(_qos[k])) {
+                    values[iGenotype][k] = provider.getAttributeValue(_qos[k]);
+                }
+            }
+        }
+
+        for (int k = 0; k < n; k++) {
+            if (!isChannel(_qos[k])) {
+                _nodes[k] = _compiled.values(_qos[k], k, values);
+                _values[k] = _nodes[k][_nodes[k].length - 1];
+            }
+        }
+
+        // 4. Channel QoS over the compact graph
+        if (!_withLatency && !_withThroughput) {
+            _graph = null;
+            _locations = null;
+            _providers = null;
+            _latency = _throughput = null;
+            _marks = null;
+            _fathers = _vertices = null;
+            return;
+        }
+
+        _graph = app.getCompactGraph();
+        int nOfVertices = _graph.size();
+        _locations = new Location[nOfVertices];
+        _providers = new Provider[nOfVertices];
+        _latency = new double[nOfVertices];
+        _throughput = new double[nOfVertices];
+        _marks = new int[nOfVertices];
+        _fathers = fathers(_graph);
+        _vertices = vertices(app, _graph, size);
+
+        for (int v = 0; v < nOfVertices; v++) {
+            _locations[v] = _graph.getLocation(v);
+        }
+
+        for (int iGenotype = 0; iGenotype < size; iGenotype++) {
+            select(iGenotype, getProvider(iGenotype, _positions[iGenotype]));
+        }
+
+        // Successors are after its fathers, so they are already calculated
+        for (int v = nOfVertices - 1; v >= 0; v--) {
+            channel(v);
+        }
+
+        for (int k = 0; k < n; k++) {
+            if (_qos[k] == QoS.LATENCY) {
+                _values[k] = _latency[_graph.getRoot()];
+            } else if (_qos[k] == QoS.THROUGHPUT) {
+                _values[k] = _throughput[_graph.getRoot()];
+            }
+        }
+    }
+
+    private static boolean isChannel(QoS k) {
+        return k == QoS.LATENCY || k == QoS.THROUGHPUT;
+    }
+
+    /**
+     * Fathers of each vertex of the graph
+     */
+    private static int[][] fathers(CompactGraph g) {
+        List<List<Integer>> fathers = new ArrayList<>(g.size());
+
+        for (int v = 0; v < g.size(); v++) {
+            fathers.add(new ArrayList<>(1));
+        }
+
+        for (int v = 0; v < g.size(); v++) {
+            for (int e = g.getFirstEdge(v); e < g.getEndEdge(v); e++) {
+                fathers.get(g.getTarget(e)).add(v);
+            }
+        }
+
+        return fathers.stream().map(l -> l.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+    }
+
+    /**
+     * Vertices of each genotype index
+     */
+    private static int[][] vertices(Application app, CompactGraph g, int size) {
+        List<List<Integer>> vertices = new ArrayList<>(size);
+
+        for (int iGenotype = 0; iGenotype < size; iGenotype++) {
+            vertices.add(new ArrayList<>(1));
+        }
+
+        for (int v = 0; v < g.size(); v++) {
+            if (g.getKind(v) == CompactGraph.LOCATION) {
+                continue;
+            }
+
+            Integer iGenotype = (g.getKind(v) == CompactGraph.SERVICE)
+                ? app.getServiceToExplore(g.getServiceID(v))
+                : app.getGatesToExplore().get(g.getGateID(v));
+
+            if (iGenotype == null) {
+                throw new RuntimeException(String.format("Vertex %d isn't in the composition, please check it.", v));
+            }
+
+            vertices.get(iGenotype).add(v);
+        }
+
+        return vertices.stream().map(l -> l.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+    }
+
+    private Provider getProvider(int iGenotype, int position) {
+        return _app.getProvider(_candidates.get(iGenotype).get(position));
+    }
+
+    /**
+     * Select a provider in the vertices of a genotype index (without recomputing them)
+     */
+    private void select(int iGenotype, Provider provider) {
+        for (int v : _vertices[iGenotype]) {
+            _locations[v] = provider.getLocation();
+            _providers[v] = provider;
+        }
+    }
+
+    private void channel(int v) {
+        if (_withLatency) {
+            _latency[v] = Latency.vertex(_graph, v, _locations, _latency, _app.getDistances());
+        }
+
+        if (_withThroughput) {
+            _throughput[v] = Throughput.vertex(_graph, v, _providers, _throughput);
+        }
+    }
+
+    /**
+     * @return Fitness of the current composition
+     */
+    public double fitness() {
+        double fitness = 0., softConstraintsFailed = 0.;
+
+        for (int k = 0; k < _qos.length; k++) {
+            double val = _values[k];
+
+            if (_withConstraints) {
+                // If this composition doesn't satisfy a hard constraint, then its fitness is 0
+                if (_hard[k] != null && _hard[k].isInvalid(val)) {
+                    return 0.;
+                }
+
+                if (_soft[k] != null && _soft[k].isInvalid(val)) {
+                    softConstraintsFailed++;
+                }
+            }
+
+            // Normalize value and accumulate it multiply by its weight
+            boolean toMinimize = _qos[k].getObjective() == ObjectiveFunction.MINIMIZE;
+            fitness += _norms[k].normalize(val, toMinimize, _app.getMethod()) * _weights[k];
+        }
+
+        if (_withConstraints) {
+            // f = (n * penalty) + ((1 - penalty) * f)
+            double n = 1. - (softConstraintsFailed / Math.max(_app.getSoftConstraints().size(), 1.));
+            fitness = (n * _app.getSoftConstraintsW()) + ((1 - _app.getSoftConstraintsW()) * fitness);
+        }
+
+        return fitness;
+    }
+
+    /**
+     * Change the provider of a genotype index, recomputing only the values that depend on it
+     *
+     * @param iGenotype Genotype index
+     * @param position  Position in the candidates list of the genotype index
+     * @return Fitness of the new composition
+     */
+    public double set(int iGenotype, int position) {
+        if (_positions[iGenotype] == position) {
+            return fitness();
+        }
+
+        _positions[iGenotype] = position;
+        Provider provider = getProvider(iGenotype, position);
+
+        // 1. Provider QoS, only the patterns that contain the component
+        for (int k = 0; k < _qos.length; k++) {
+            if (_nodes[k] != null) {
+                _values[k] = _compiled.update(
+                    _qos[k], _nodes[k], iGenotype, provider.getAttributeValue(_qos[k]), _buffer
+                );
+            }
+        }
+
+        // 2. Channel QoS, only the vertices of the component and the vertices before them
+        if ((_withLatency || _withThroughput) && _vertices[iGenotype].length > 0) {
+            select(iGenotype, provider);
+            recompute(_vertices[iGenotype]);
+
+            for (int k = 0; k < _qos.length; k++) {
+                if (_qos[k] == QoS.LATENCY) {
+                    _values[k] = _latency[_graph.getRoot()];
+                } else if (_qos[k] == QoS.THROUGHPUT) {
+                    _values[k] = _throughput[_graph.getRoot()];
+                }
+            }
+        }
+
+        return fitness();
+    }
+
+    /**
+     * Recompute the vertices given and all vertices before them, successors first
+     */
+    private void recompute(int[] changed) {
+        _change++;
+        Deque<Integer> pending = new ArrayDeque<>();
+        List<Integer> dirty = new ArrayList<>();
+
+        for (int v : changed) {
+            _marks[v] = _change;
+            pending.push(v);
+        }
+
+        while (!pending.isEmpty()) {
+            int v = pending.pop();
+            dirty.add(v);
+
+            for (int father : _fathers[v]) {
+                if (_marks[father] != _change) {
+                    _marks[father] = _change;
+                    pending.push(father);
+                }
+            }
+        }
+
+        // Successors have greater numbers than its fathers
+        dirty.sort(Comparator.reverseOrder());
+
+        for (int v : dirty) {
+            channel(v);
+        }
+    }
+
+    /**
+     * @return Position in the candidates list of each genotype index
+     */
+    public List<Integer> getComposition() {
+        List<Integer> composition = new ArrayList<>(_positions.length);
+
+        for (int position : _positions) {
+            composition.add(position);
+        }
+
+        return composition;
+    }
+}
@@ -0,0 +1,89 @@
+package models.auxiliary;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Utilities of the candidates of a single component sorted in ascending order, with the provider of each one.
+ * <p>
+ * It's used to decode the utility required by the genetic algorithm into the provider with the closest utility using a
+ * binary search. When two providers are equally close, the provider that comes first in the candidates list wins, as
+ * the linear scan did.
+ */
+public class UtilityIndex {
+    private final double[] _utilities;
+    private final int[] _ids;
+    // Position of each provider in the candidates list
+    private final int[] _positions;
+
+    /**
+     * Build the index
+     *
+     * @param ids       Global index of each candidate provider, in the candidates list order
+     * @param utilities Utility of each candidate provider
+     */
+    public UtilityIndex(int[] ids, double[] utilities) {
+        if (ids.length != utilities.length) {
+            throw new IllegalArgumentException("Utilities and ids sizes don't match, please check it.");
+        }
+
+        // Stable sort by utility, so equal utilities keep the candidates order
+        _positions = IntStream.range(0, ids.length).boxed()
+            .sorted(Comparator.comparingDouble(i -> utilities[i]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        _utilities = Arrays.stream(_positions).mapToDouble(i -> utilities[i]).toArray();
+        _ids = Arrays.stream(_positions).map(i -> ids[i]).toArray();
+    }
+
+    public int size() {
+        return _ids.length;
+    }
+
+    /**
+     * Return the provider whose utility is the closest to the utility given
+     *
+     * @param utility Utility required
+     * @return Global index of the closest provider, or -1 if there are no candidates
+     */
+    public int closest(double utility) {
+        if (_ids.length == 0) {
+            return -1;
+        }
+
+        // First utility greater or equal than the required one, and the first one of the previous run
+        int upper = lowerBound(utility), lower = (upper > 0) ? lowerBound(_utilities[upper - 1]) : -1;
+
+        if (lower < 0) {
+            return _ids[upper];
+        } else if (upper >= _ids.length) {
+            return _ids[lower];
+        }
+
+        double dLower = Math.abs(utility - _utilities[lower]), dUpper = Math.abs(utility - _utilities[upper]);
+
+        if (dLower == dUpper) {
+            return (_positions[lower] < _positions[upper]) ? _ids[lower] : _ids[upper];
+        }
+
+        return (dLower < dUpper) ? _ids[lower] : _ids[upper];
+    }
+
+    private int lowerBound(double utility) {
+        int lo = 0, hi = _utilities.length;
+
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+
+            if (_utilities[mid] < utility) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo;
+    }
+}
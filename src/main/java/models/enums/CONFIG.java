@@ -5,6 +5,7 @@ package models.enums;
  */
 public enum CONFIG {
     PROVIDERS, BATCH_SIZE, SERVICES, MUTATION_PROB, CROSSOVER_PROB, CROSSOVER_POINTS, POPULATION, ELITE_COUNT,
-    MUTATOR_TYPE, SPLIT_PARALLELS, CONVERGENCE, SHOW_RESULTS, TIME_LIMIT, SLOPE, EVOLUTION, SURVIVORS_SIZE, STEADY_GENERATIONS, PRINTS
+    MUTATOR_TYPE, SPLIT_PARALLELS, CONVERGENCE, SHOW_RESULTS, TIME_LIMIT, SLOPE, EVOLUTION, SURVIVORS_SIZE, STEADY_GENERATIONS, PRINTS,
+    CLUSTER_LEVELS, SHORTLIST_SIZE, SKYLINE
 }
 
@@ -6,7 +6,8 @@ public enum Header {
     BEST_PROVIDER, BEST_PROVIDER_VALUE, WORST_PROVIDER, WORST_PROVIDER_VALUE, LIMIT_TIME, MUTATION_PROB, CROSSOVER_PROB,
     CROSSOVER_POINTS, POPULATION, ELITE_COUNT, PROVIDERS_METHOD, SLOPE, INTERCEPT, SPLIT_PARALLELS, VARIABLE_PROVIDERS,
     UTILITY_FITNESS, HEURISTIC, BEST_FITNESS_UNLIMITED, CONSTRAINT_FITNESS, FITNESS, CONVERGENCE, RESOLVER, BEST_BOUND,
-    WORST_BOUND, ID, TIME, PRE_CALCULATION_TIME, UTILITY_GA_TIME, FITNESS_WITH_UT_TIME, U_DEGREES, STEADY_GENERATIONS;
+    WORST_BOUND, ID, TIME, PRE_CALCULATION_TIME, UTILITY_GA_TIME, FITNESS_WITH_UT_TIME, U_DEGREES, STEADY_GENERATIONS,
+    REDUCTION_RATIO, QUANTIZATION_ERROR;
 
     @Override
     public String toString() {
@@ -4,6 +4,10 @@ public enum TransformFunction {
     IDENTITY, LOG_10, SIGMOID, N_SQRT;
 
     public Double apply(Double x, Double power) {
+        return applyAsDouble(x, power);
+    }
+
+    public double applyAsDouble(double x, double power) {
         return switch (this) {
             case IDENTITY -> x;
             case LOG_10 -> Math.log10(x);
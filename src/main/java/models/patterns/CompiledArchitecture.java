@@ -0,0 +1,328 @@
+package models.patterns;
+
+import models.enums.QoS;
+
+import java.util.*;
+
+/**
+ * Flat version of an architecture tree used to aggregate QoS values without streams, boxing or allocations.
+ * <p>
+ * The tree is stored in post-order: each service pushes its value into a stack and each pattern pops the values of its
+ * children and pushes the aggregated one, so the last value in the stack is the value of the architecture. Values are
+ * read from a matrix indexed by [component][QoS attribute], where the component is the genotype position of the
+ * service.
+ */
+public class CompiledArchitecture {
+    private static final int
+        SERVICE = 0,
+        SEQUENTIAL = 1,
+        PARALLEL = 2,
+        CONDITIONAL = 3,
+        ITERATIVE = 4;
+
+    // Kind of each node in post-order
+    private final int[] _kinds;
+    // Component index for services, number of children for patterns
+    private final int[] _args;
+    // Weight of each node (used by the transform functions)
+    private final double[] _weights;
+    // Iterative probability, or offset of the children probabilities for conditionals
+    private final double[] _probabilities;
+    // Children probabilities of all conditional patterns
+    private final double[] _conditionals;
+    // Max number of values in the stack at the same time
+    private final int _stackSize;
+    // Parent of each node (-1 for the root), and children of each pattern (`_children[_childOffsets[i]...]`)
+    private final int[] _parents, _childOffsets, _children;
+    // Nodes of each component
+    private final Map<Integer, int[]> _leaves;
+
+    /**
+     * Compile an architecture
+     *
+     * @param architecture Architecture to compile
+     * @param components   Map from index of service to its component index, services not found keep their index
+     */
+    public CompiledArchitecture(Component architecture, Map<Integer, Integer> components) {
+        List<Component> nodes = new ArrayList<>();
+        List<Double> conditionals = new ArrayList<>();
+        postOrder(architecture, nodes);
+
+        int n = nodes.size(), depth = 0, maxDepth = 0;
+        _kinds = new int[n];
+        _args = new int[n];
+        _weights = new double[n];
+        _probabilities = new double[n];
+        _parents = new int[n];
+        _childOffsets = new int[n + 1];
+        _children = new int[Math.max(n - 1, 0)];
+        Map<Integer, List<Integer>> leaves = new HashMap<>();
+        // Nodes whose parent isn't compiled yet, as the stack of values
+        int[] pending = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Component c = nodes.get(i);
+            _weights[i] = c.weight().doubleValue();
+
+            if (c instanceof BaseComponent) {
+                Integer iService = ((BaseComponent) c).getIService();
+                _kinds[i] = SERVICE;
+                _args[i] = components.getOrDefault(iService, iService);
+                leaves.computeIfAbsent(_args[i], a -> new ArrayList<>()).add(i);
+                _childOffsets[i + 1] = _childOffsets[i];
+                depth++;
+            } else {
+                _args[i] = ((Architecture) c).getComponents().size();
+                depth -= _args[i] - 1;
+
+                // Children are the last nodes pending, in order
+                _childOffsets[i + 1] = _childOffsets[i] + _args[i];
+
+                for (int j = 0; j < _args[i]; j++) {
+                    int child = pending[depth - 1 + j];
+                    _children[_childOffsets[i] + j] = child;
+                    _parents[child] = i;
+                }
+
+                if (c instanceof Sequential) {
+                    _kinds[i] = SEQUENTIAL;
+                } else if (c instanceof Parallel) {
+                    _kinds[i] = PARALLEL;
+                } else if (c instanceof Conditional) {
+                    _kinds[i] = CONDITIONAL;
+                    _probabilities[i] = conditionals.size();
+                    conditionals.addAll(((Conditional) c).getProbabilities());
+                } else if (c instanceof Iterative) {
+                    _kinds[i] = ITERATIVE;
+                    _probabilities[i] = ((Iterative) c).getProbability();
+                } else {
+                    throw new IllegalStateException("Unexpected pattern: " + c.getClass().getSimpleName());
+                }
+            }
+
+            pending[depth - 1] = i;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        if (n > 0) {
+            _parents[n - 1] = -1;
+        }
+
+        _leaves = new HashMap<>();
+        leaves.forEach((component, list) -> _leaves.put(
+            component, list.stream().mapToInt(Integer::intValue).toArray()
+        ));
+
+        _conditionals = conditionals.stream().mapToDouble(Double::doubleValue).toArray();
+        _stackSize = Math.max(maxDepth, 1);
+    }
+
+    private static void postOrder(Component c, List<Component> nodes) {
+        if (!c.isBase()) {
+            for (Component child : ((Architecture) c).getComponents()) {
+                postOrder(child, nodes);
+            }
+        }
+
+        nodes.add(c);
+    }
+
+    /**
+     * @return Size of the stack needed to evaluate this architecture
+     */
+    public int getStackSize() {
+        return _stackSize;
+    }
+
+    /**
+     * Aggregate the value of a QoS attribute for the whole architecture
+     *
+     * @param k      QoS attribute to aggregate
+     * @param kIndex Column of the attribute in values
+     * @param values Matrix of values indexed by [component][QoS attribute]
+     * @param stack  Auxiliary buffer with at least getStackSize() positions
+     * @return Aggregated value
+     */
+    public double value(QoS k, int kIndex, double[][] values, double[] stack) {
+        int top = 0;
+
+        for (int i = 0; i < _kinds.length; i++) {
+            if (_kinds[i] == SERVICE) {
+                stack[top++] = values[_args[i]][kIndex];
+                continue;
+            }
+
+            // Children values are the last positions of the stack
+            int from = top - _args[i];
+            double value = (_kinds[i] == CONDITIONAL)
+                ? conditional(stack, from, top, (int) _probabilities[i])
+                : pattern(k, _kinds[i], stack, from, top, _probabilities[i], _weights[i]);
+
+            top = from;
+            stack[top++] = value;
+        }
+
+        return stack[top - 1];
+    }
+
+    /**
+     * Same as `value(k, kIndex, values, stack)`, but keeping the value of each node, so it can be updated later when
+     * the value of a component changes (see `update`).
+     *
+     * @return Value of each node in post-order, the last one is the value of the architecture
+     */
+    public double[] values(QoS k, int kIndex, double[][] values) {
+        double[] nodes = new double[_kinds.length], buffer = new double[_stackSize];
+
+        for (int i = 0; i < _kinds.length; i++) {
+            nodes[i] = (_kinds[i] == SERVICE) ? values[_args[i]][kIndex] : node(k, i, nodes, buffer);
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Change the value of a component, recomputing only the patterns that contain it
+     *
+     * @param k         QoS attribute aggregated
+     * @param nodes     Value of each node (see `values`), it's updated
+     * @param component Component index
+     * @param value     New value of the component
+     * @param buffer    Auxiliary buffer with at least getStackSize() positions
+     * @return New value of the architecture
+     */
+    public double update(QoS k, double[] nodes, int component, double value, double[] buffer) {
+        for (int leaf : _leaves.getOrDefault(component, new int[0])) {
+            nodes[leaf] = value;
+
+            for (int i = _parents[leaf]; i >= 0; i = _parents[i]) {
+                nodes[i] = node(k, i, nodes, buffer);
+            }
+        }
+
+        return nodes[nodes.length - 1];
+    }
+
+    /**
+     * Value of a pattern from the values of its children
+     */
+    private double node(QoS k, int i, double[] nodes, double[] buffer) {
+        int size = _args[i];
+
+        for (int j = 0; j < size; j++) {
+            buffer[j] = nodes[_children[_childOffsets[i] + j]];
+        }
+
+        return (_kinds[i] == CONDITIONAL)
+            ? conditional(buffer, 0, size, (int) _probabilities[i])
+            : pattern(k, _kinds[i], buffer, 0, size, _probabilities[i], _weights[i]);
+    }
+
+    /**
+     * Aggregate the value of a QoS attribute for the whole architecture when all services have the same value, for
+     * example to know the bounds of the architecture.
+     *
+     * @param k     QoS attribute to aggregate
+     * @param leaf  Value of each service
+     * @param stack Auxiliary buffer with at least getStackSize() positions
+     * @return Aggregated value
+     */
+    public double value(QoS k, double leaf, double[] stack) {
+        int top = 0;
+
+        for (int i = 0; i < _kinds.length; i++) {
+            if (_kinds[i] == SERVICE) {
+                stack[top++] = leaf;
+                continue;
+            }
+
+            // Children values are the last positions of the stack
+            int from = top - _args[i];
+            double value = (_kinds[i] == CONDITIONAL)
+                ? conditional(stack, from, top, (int) _probabilities[i])
+                : pattern(k, _kinds[i], stack, from, top, _probabilities[i], _weights[i]);
+
+            top = from;
+            stack[top++] = value;
+        }
+
+        return stack[top - 1];
+    }
+
+    /**
+     * Aggregate the values of the children of a single pattern, as the compiled architecture does.
+     *
+     * @param k       QoS attribute to aggregate
+     * @param pattern Pattern of the children
+     * @param values  Value of each child, in the order of the pattern components
+     * @return Aggregated value
+     */
+    public static double aggregate(QoS k, Architecture pattern, double[] values) {
+        if (pattern instanceof Conditional) {
+            List<Double> probabilities = ((Conditional) pattern).getProbabilities();
+            double value = 0.;
+
+            for (int j = 0; j < values.length; j++) {
+                value += values[j] * probabilities.get(j);
+            }
+
+            return value;
+        }
+
+        int kind;
+        double probability = 0.;
+
+        if (pattern instanceof Sequential) {
+            kind = SEQUENTIAL;
+        } else if (pattern instanceof Parallel) {
+            kind = PARALLEL;
+        } else if (pattern instanceof Iterative) {
+            kind = ITERATIVE;
+            probability = ((Iterative) pattern).getProbability();
+        } else {
+            throw new IllegalStateException("Unexpected pattern: " + pattern.getClass().getSimpleName());
+        }
+
+        return pattern(k, kind, values, 0, values.length, probability, pattern.weight().doubleValue());
+    }
+
+    private double conditional(double[] stack, int from, int to, int offset) {
+        double value = 0.;
+
+        for (int j = from; j < to; j++) {
+            value += stack[j] * _conditionals[offset + j - from];
+        }
+
+        return value;
+    }
+
+    private static double pattern(QoS k, int kind, double[] stack, int from, int to, double probability, double weight) {
+        double value = switch (k) {
+            case RELIABILITY, AVAILABILITY -> {
+                double product = 1.;
+
+                for (int j = from; j < to; j++) {
+                    product *= stack[j];
+                }
+
+                // Iterative pattern repeat the components with the probability given
+                yield (kind == ITERATIVE) ? ((1. - probability) * product) / (1. - (probability * product)) : product;
+            }
+            case RESPONSE_TIME, COST -> {
+                // In parallel, the response time is given by the slowest component
+                boolean isMax = kind == PARALLEL && k == QoS.RESPONSE_TIME;
+                double aggregated = (isMax && to > from) ? Double.NEGATIVE_INFINITY : 0.;
+
+                for (int j = from; j < to; j++) {
+                    aggregated = isMax ? Math.max(aggregated, stack[j]) : aggregated + stack[j];
+                }
+
+                yield (kind == ITERATIVE) ? aggregated / (1. - probability) : aggregated;
+            }
+            default -> throw new IllegalStateException("Unexpected value: " + k);
+        };
+
+        // Apply transform function to return the value
+        return k.getTransform().applyAsDouble(value, weight);
+    }
+}
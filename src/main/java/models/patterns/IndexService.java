@@ -5,12 +5,12 @@ import io.jenetics.IntegerGene;
 import models.applications.Application;
 import models.applications.Provider;
 import models.applications.UtilityApplication;
+import models.auxiliary.ProviderSet;
 import models.enums.ConnRange;
 import models.enums.QoS;
 import models.geo.Location;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class IndexService extends BaseComponent {
     /**
@@ -86,15 +86,11 @@ public class IndexService extends BaseComponent {
     }
 
     public Set<Location> getLocations(Application app) {
-        return getService(app).getCandidates().parallelStream()
-            .map(i -> app.getProvider(i).getLocation())
-            .collect(Collectors.toSet());
+        return ProviderSet.keysIntersecting(app.getCatalog().getProvidersByLocation(), getProvidersIndex(app));
     }
 
     public Set<ConnRange> getConnRanges(Application app) {
-        return getService(app).getCandidates().parallelStream()
-            .map(i -> app.getProvider(i).getConnRange())
-            .collect(Collectors.toSet());
+        return ProviderSet.keysIntersecting(app.getCatalog().getProvidersByConnRange(), getProvidersIndex(app));
     }
 
     @Override
@@ -120,7 +116,7 @@ public class IndexService extends BaseComponent {
         return new IndexService(i);
     }
 
-    public Set<Integer> getProvidersIndex(Application app) {
-        return new HashSet<>(getService(app).getCandidates());
+    public ProviderSet getProvidersIndex(Application app) {
+        return getService(app).getCandidates().toProviderSet();
     }
 }
@@ -7,6 +7,7 @@ import io.jenetics.engine.Codec;
 import io.jenetics.util.ISeq;
 import io.jenetics.util.IntRange;
 import models.applications.Application;
+import models.auxiliary.CandidateView;
 
 import java.util.Arrays;
 import java.util.List;
@@ -31,6 +32,9 @@ public final class ApplicationProblem extends GeneralProblem<Application> {
      * @return A list of chromosomes
      */
     public static ISeq<IntegerChromosome> getChromosomes(Application app) {
+        // If the search is reduced, ranges are over the view of each component
+        CandidateView view = app.getCandidateView();
+
         // Get numbers of services and gates
         int nOfServices = app.getServicesToExplore().size();
         int nOfGates = app.getGatesToExplore().size();
@@ -43,9 +47,10 @@ public final class ApplicationProblem extends GeneralProblem<Application> {
             // Map each service as IntegerChromosome with only a IntegerGene, from 0 to candidates list's size (less 1).
             .forEach(e -> {
                 // Define the chromosome
-                IntegerChromosome chromosome = IntegerChromosome.of(
-                    IntRange.of(0, app.getService(e.getKey()).getCandidates().size() - 1)
-                );
+                int size = (view == null)
+                    ? app.getService(e.getKey()).getCandidates().size()
+                    : view.getService(e.getKey()).length;
+                IntegerChromosome chromosome = IntegerChromosome.of(IntRange.of(0, size - 1));
                 // Add chromosomes for this
                 chromosomes.set(e.getValue(), chromosome);
             });
@@ -53,9 +58,10 @@ public final class ApplicationProblem extends GeneralProblem<Application> {
         // Get gates to explore
         app.getGatesToExplore().entrySet().parallelStream()
             .forEach(e -> {
-                IntegerChromosome chromosome = IntegerChromosome.of(
-                    IntRange.of(0, app.getGate(e.getKey()).getCandidates().size() - 1)
-                );
+                int size = (view == null)
+                    ? app.getGate(e.getKey()).getCandidates().size()
+                    : view.getGate(e.getKey()).length;
+                IntegerChromosome chromosome = IntegerChromosome.of(IntRange.of(0, size - 1));
                 // Add chromosomes for this
                 chromosomes.set(e.getValue(), chromosome);
             });
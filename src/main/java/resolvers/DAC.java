@@ -20,6 +20,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class DAC {
@@ -70,7 +71,7 @@ public class DAC {
                 composition.putAll(partialComposition);
 
                 // Resolved services must be removed from services to explore
-                partialComposition.keySet().parallelStream().forEach(key -> app.getServicesToExplore().remove(key));
+                app.removeServicesToExplore(partialComposition.keySet());
 
             } else if ((archWeight - archProcessed) <= lowLazyBatchSize) {
                 // 3.2.2. If the rest of the architecture is lower than lowLazyBatchSize we can process them all
@@ -89,7 +90,7 @@ public class DAC {
                     composition.putAll(partialComposition);
 
                     // Resolved services must be removed from services to explore
-                    partialComposition.keySet().parallelStream().forEach(key -> app.getServicesToExplore().remove(key));
+                    app.removeServicesToExplore(partialComposition.keySet());
 
                     // Resolve components (from current component to last component)
                     result = resolveSubArchitecture(
@@ -102,7 +103,7 @@ public class DAC {
                     composition.putAll(partialComposition);
 
                     // Resolved services must be removed from services to explore
-                    partialComposition.keySet().parallelStream().forEach(key -> app.getServicesToExplore().remove(key));
+                    app.removeServicesToExplore(partialComposition.keySet());
 
                 } else {
                     // 3.2.2.2. Resolve components pending in the batch and rest of components of this architecture all
@@ -118,7 +119,7 @@ public class DAC {
                     composition.putAll(partialComposition);
 
                     // Resolved services must be removed from services to explore
-                    partialComposition.keySet().parallelStream().forEach(key -> app.getServicesToExplore().remove(key));
+                    app.removeServicesToExplore(partialComposition.keySet());
                 }
 
                 // Remove processed batch
@@ -142,7 +143,7 @@ public class DAC {
                 composition.putAll(partialComposition);
 
                 // Resolved services must be removed from services to explore
-                partialComposition.keySet().parallelStream().forEach(key -> app.getServicesToExplore().remove(key));
+                app.removeServicesToExplore(partialComposition.keySet());
 
                 cBatchSize = cWeight;
                 batch = new ArrayList<>(Collections.singletonList(c));
@@ -162,7 +163,7 @@ public class DAC {
             composition.putAll(partialComposition);
 
             // Resolved services must be removed from services to explore
-            partialComposition.keySet().parallelStream().forEach(key -> app.getServicesToExplore().remove(key));
+            app.removeServicesToExplore(partialComposition.keySet());
         }
 
         return new Triplet<>(generations, nOfProblems, composition);
@@ -305,8 +306,13 @@ public class DAC {
         int bestCandidate = -1, softConstraintsFailed;
         double bestFitness = -1., fitness;
 
+        // 1.3. If the search is reduced, only candidates of the view are checked
+        int[] positions = (app.getCandidateView() == null)
+            ? IntStream.range(0, service.getCandidates().size()).toArray()
+            : app.getCandidateView().getService(iService.getIService());
+
         // 2. For each provider available in this service
-        for (int iProviderPosition = 0; iProviderPosition < service.getCandidates().size(); iProviderPosition++) {
+        for (int iProviderPosition : positions) {
             // Set the provider position of candidates list
             app.setServiceComposition(threadId, iService.getIService(), iProviderPosition);
 
@@ -427,7 +433,7 @@ public class DAC {
             double responseTimeW = parallelApp.getWeights().get(QoS.RESPONSE_TIME), newLimit = 1. - responseTimeW;
 
             for (QoS key : parallelApp.getWeights().keySet()) {
-                parallelApp.getWeights().put(key, parallelApp.getWeights().get(key) / newLimit);
+                parallelApp.putWeights(key, parallelApp.getWeights().get(key) / newLimit);
             }
 
             // Set RESPONSE_TIME to zero
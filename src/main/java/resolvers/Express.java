@@ -1,21 +1,19 @@
 package resolvers;
 
 import executions.App;
+import io.jenetics.Genotype;
+import io.jenetics.IntegerChromosome;
+import io.jenetics.IntegerGene;
+import io.jenetics.util.ISeq;
 import models.applications.Application;
-import models.applications.Gate;
 import models.applications.Provider;
-import models.applications.Service;
-import models.auxiliary.DistanceMatrix;
-import models.auxiliary.MinMax;
-import models.auxiliary.Node;
 import models.auxiliary.Normalization;
+import models.auxiliary.RunResult;
+import models.auxiliary.SuccessorLatencyIndex;
 import models.enums.Header;
 import models.enums.NormalizedMethod;
 import models.enums.ObjectiveFunction;
 import models.enums.QoS;
-import models.geo.Geo;
-import models.geo.Location;
-import models.patterns.IndexService;
 import org.javatuples.Pair;
 import utils.Composition;
 
@@ -23,207 +21,233 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.BiConsumer;
 
 public class Express {
-    private static final Map<Integer, Map<Integer, Double>> _LATENCY = new ConcurrentHashMap<>();
-
     public static void resolve(Application app, Map<Header, List<Object>> data) {
+        App.updateData(data, resolve(app));
+    }
+
+    public static RunResult resolve(Application app) {
         // 0. Initial time counter
         Instant startInstant = Instant.now();
 
-        // 1. Calculate latency if is necessary
-        if (app.getQoSList().contains(QoS.LATENCY)) {
-            extractLatency(app);
-        }
+        // 1. Get latency index if is necessary (built once per application)
+        SuccessorLatencyIndex latency = app.getQoSList().contains(QoS.LATENCY) ? app.getLatencyIndex() : null;
 
         // 2. Get composition
-        List<Integer> composition = Composition.toList(getHighComposition(app));
+        List<Integer> composition = Composition.toList(getHighComposition(app, latency));
         long executionTime = Duration.between(startInstant, Instant.now()).toMillis();
 
         // 3. Calculate fitness
         double fitness = Application.fitnessPair(new Pair<>(app, composition));
 
         // 4. Save only data needed
-        App.updateData(data, Stream.of(
-            new AbstractMap.SimpleEntry<>(Header.PRE_CALCULATION_TIME, 0),
-            new AbstractMap.SimpleEntry<>(Header.EXECUTION_TIME, executionTime),
-            new AbstractMap.SimpleEntry<>(Header.PROVIDERS, app.getProviders().size()),
-            new AbstractMap.SimpleEntry<>(Header.SERVICES, app.getServices().size()),
-            new AbstractMap.SimpleEntry<>(Header.BEST_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.MEAN_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.WORST_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.GENOTYPE, composition),
-            new AbstractMap.SimpleEntry<>(Header.GENERATIONS, 1)
-        ).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
-    }
-
-    private static void extractLatency(Application app) {
-        // Clean previous latency values
-        _LATENCY.clear();
-        // Get root
-        Node root = app.getGraph();
-        // Filling latency dictionary
-        extractLatency(app, root, root.getNext(), new HashSet<>());
+        return new RunResult(
+            0, executionTime, app.getProviders().size(), app.getServices().size(), 1, fitness, composition
+        );
     }
 
-    private static void extractLatency(Application app, Node current, List<Node> next, Set<Integer> visited) {
-        if (!next.isEmpty()) {
-            // For each father's provider
-            if (current.getLocation() == null) {
-                Integer iGenotype;
-                List<Integer> candidates;
-
-                if (current.getGateID() >= 0) {
-                    Integer iGate = current.getGateID();
-                    iGenotype = app.getGatesToExplore().get(iGate);
-                    candidates = app.getGate(iGate).getCandidates();
-                } else if (current.getComponent() != null) {
-                    Integer iService = ((IndexService) current.getComponent()).getIService();
-                    iGenotype = app.getServicesToExplore().get(iService);
-                    candidates = app.getService(iService).getCandidates();
-                } else {
-                    throw new RuntimeException("Type of node doesn't recognise, please check it.");
+    /**
+     * Best candidate (position in its candidates list) for each genotype position.
+     *
+     * @param app     Application to resolve
+     * @param latency Latency index of the application, or null if latency is not used
+     * @return Map from genotype position to the position of the best candidate
+     */
+    public static Map<Integer, Integer> getHighComposition(Application app, SuccessorLatencyIndex latency) {
+        Scorer scorer = new Scorer(app, latency);
+        Map<Integer, Integer> composition = new ConcurrentHashMap<>();
+
+        // Each component is scored independently of the others
+        scorer.forEachComponent((iGenotype, candidates) -> {
+            double[] scores = scorer.scores(iGenotype, candidates);
+            double vBestProvider = Double.MIN_NORMAL;
+            int iBestProvider = -1;
+
+            for (int iProvider = 0; iProvider < scores.length; iProvider++) {
+                if (scores[iProvider] > vBestProvider) {
+                    vBestProvider = scores[iProvider];
+                    iBestProvider = iProvider;
                 }
-
-                if (visited.contains(iGenotype)) {
-                    // Avoid revisit same nodes.
-                    return;
-                } else {
-                    // Mark this service as visited
-                    visited.add(iGenotype);
-
-                    // Prepare map to save information
-                    _LATENCY.put(iGenotype, new ConcurrentHashMap<>());
-                }
-
-                List<Location> locations = next.parallelStream()
-                    .map(Node::getLocations)
-                    .flatMap(Collection::parallelStream)
-                    .collect(Collectors.toList());
-
-                // Get list of providers for parent service
-                for (Integer p : candidates) {
-                    Location lProvider = app.getProvider(p).getLocation();
-
-                    double lat = locations.parallelStream()
-                        .mapToDouble(cLoc -> {
-                            double distance = DistanceMatrix.get().distance(cLoc, lProvider);
-                            return Geo.latency(distance);
-                        })
-                        .average().orElse(0);
-
-                    // Add latency value in this provider
-                    _LATENCY.get(iGenotype).put(p, lat);
-                }
-
-                next.forEach(child -> extractLatency(app, child, child.getNext(), visited));
-            } else {
-                current.getNext().forEach(p -> extractLatency(app, p, p.getNext(), visited));
             }
-        }
-    }
-
-    private static Map<Integer, Integer> getHighComposition(Application app) {
-        Map<Integer, Integer> composition = new HashMap<>();
-
-        for (Map.Entry<Integer, Integer> entry : app.getServicesToExplore().entrySet()) {
-            // Extract indexes
-            int iService = entry.getKey(), iGenotype = entry.getValue();
-
-            // Extract service
-            Service s = app.getService(iService);
-
-            // Get best provider
-            Integer iBestProvider = getIBestProvider(app, iGenotype, s.getCandidates());
 
-            // Set service with best provider
+            // Set component with best provider
             composition.put(iGenotype, iBestProvider);
-        }
-
-        for (Map.Entry<Integer, Integer> entry : app.getGatesToExplore().entrySet()) {
-            // Extract indexes
-            int iGate = entry.getKey(), iGenotype = entry.getValue();
+        });
 
-            // Extract service
-            Gate g = app.getGate(iGate);
+        return composition;
+    }
 
-            // Get best provider
-            Integer iBestProvider = getIBestProvider(app, iGenotype, g.getCandidates());
+    /**
+     * Ranked shortlist with the k best candidates (positions in its candidates list) for each genotype position, so
+     * other resolvers can prune candidates or seed populations without scoring them again.
+     *
+     * @param app Application to resolve
+     * @param k   Max number of candidates per component
+     * @return Map from genotype position to the positions of its best candidates, best first
+     */
+    public static Map<Integer, int[]> getShortlists(Application app, int k) {
+        SuccessorLatencyIndex latency = app.getQoSList().contains(QoS.LATENCY) ? app.getLatencyIndex() : null;
+        Scorer scorer = new Scorer(app, latency);
+        Map<Integer, int[]> shortlists = new ConcurrentHashMap<>();
+
+        scorer.forEachComponent((iGenotype, candidates) -> shortlists.put(
+            iGenotype, topK(scorer.scores(iGenotype, candidates), k)
+        ));
+
+        return shortlists;
+    }
 
-            // Set service with best provider
-            composition.put(iGenotype, iBestProvider);
+    /**
+     * Initial population for a genetic resolver seeded with the shortlists: the first genotype is the Express
+     * composition and the others pick randomly one of the k best candidates of each component.
+     *
+     * @param app  Application to resolve (without a reduced view of candidates)
+     * @param k    Max number of candidates per component
+     * @param size Number of genotypes
+     * @param seed Seed of the random picks (negative for a random seed)
+     * @return Genotypes with positions in the candidates lists, as `PairProblem` encodes them
+     */
+    public static ISeq<Genotype<IntegerGene>> getPopulation(Application app, int k, int size, Long seed) {
+        if (k < 1) {
+            throw new RuntimeException("Shortlists must have one candidate at least, please check it.");
         }
 
-        return composition;
-    }
+        // 1. Shortlists and candidates list size of each genotype position
+        Map<Integer, int[]> shortlists = getShortlists(app, k);
+        int[] sizes = new int[shortlists.size()];
 
-    private static Integer getIBestProvider(Application app, Integer iGenotype, List<Integer> candidates) {
-        // Get normalization per component
-        Map<QoS, Normalization> componentNorm = getNormPerComponent(app, iGenotype);
+        app.getServicesToExplore().forEach((iService, iGenotype) -> {
+            sizes[iGenotype] = app.getService(iService).getCandidates().size();
+        });
 
-        double vBestProvider = Double.MIN_NORMAL;
-        int iBestProvider = -1, iProvider = 0;
+        app.getGatesToExplore().forEach((iGate, iGenotype) -> {
+            sizes[iGenotype] = app.getGate(iGate).getCandidates().size();
+        });
 
-        // For each candidate for that service
-        for (Integer candidate : candidates) {
-            Provider p = app.getProvider(candidate);
-            double value = 0;
+        // 2. Pick candidates of the shortlists
+        Random rnd = (seed >= 0) ? new Random(seed) : new Random();
+        List<Genotype<IntegerGene>> population = new ArrayList<>(size);
 
-            // For each weight
-            for (QoS k : app.getQoSList()) {
-                double weight = app.getWeights().get(k);
+        for (int i = 0; i < size; i++) {
+            List<IntegerChromosome> chromosomes = new ArrayList<>(sizes.length);
 
-                // Get normalization for this attribute
-                Normalization norm = componentNorm.get(k);
-                boolean toMinimize = k.getObjective() == ObjectiveFunction.MINIMIZE;
+            for (int iGenotype = 0; iGenotype < sizes.length; iGenotype++) {
+                int[] shortlist = shortlists.get(iGenotype);
+                int position = (i == 0) ? shortlist[0] : shortlist[rnd.nextInt(shortlist.length)];
+                chromosomes.add(IntegerChromosome.of(IntegerGene.of(position, 0, sizes[iGenotype] - 1)));
+            }
 
-                double v = switch (k) {
-                    case LATENCY -> _LATENCY.get(iGenotype).get(candidate);
-                    case THROUGHPUT -> p.getConnRange().getCapacity();
-                    default -> p.getAttributeValue(k);
-                };
+            population.add(Genotype.of(chromosomes));
+        }
 
-                // Apply transform function to value
-                double nValue = norm.normalize(v, toMinimize, NormalizedMethod.MIN_MAX);
+        return ISeq.of(population);
+    }
 
-                // Accumulate this value multiply by it weight
-                value += nValue * weight;
+    /**
+     * Positions of the k highest scores, ties are broken by position.
+     */
+    private static int[] topK(double[] scores, int k) {
+        int[] top = new int[Math.min(Math.max(k, 0), scores.length)];
+        int size = 0;
+
+        for (int i = 0; i < scores.length; i++) {
+            // Skip if it's not better than the worst one kept
+            if (size == top.length && (size == 0 || scores[i] <= scores[top[size - 1]])) {
+                continue;
             }
 
-            if (value > vBestProvider) {
-                vBestProvider = value;
-                iBestProvider = iProvider;
+            // Insert it keeping the order
+            int j = (size < top.length) ? size++ : size - 1;
+
+            while (j > 0 && scores[top[j - 1]] < scores[i]) {
+                top[j] = top[j - 1];
+                j--;
             }
 
-            // Increment provider index
-            iProvider++;
+            top[j] = i;
         }
 
-        return iBestProvider;
+        return top;
     }
 
-    private static Map<QoS, Normalization> getNormPerComponent(Application app, Integer iGenotype) {
-        Map<QoS, Normalization> componentNorm = new HashMap<>();
+    /**
+     * Weights, objectives and normalizations of an application in primitive arrays to score candidates quickly.
+     */
+    private static final class Scorer {
+        private final Application _app;
+        private final SuccessorLatencyIndex _latency;
+        private final QoS[] _qos;
+        private final double[] _weights;
+        private final boolean[] _toMinimize;
+        // Normalization of each attribute, latency normalization depends on the component
+        private final Normalization[] _norms;
+
+        private Scorer(Application app, SuccessorLatencyIndex latency) {
+            _app = app;
+            _latency = latency;
+            _qos = app.getQoSList().toArray(new QoS[0]);
+            _weights = new double[_qos.length];
+            _toMinimize = new boolean[_qos.length];
+            _norms = new Normalization[_qos.length];
+
+            for (int i = 0; i < _qos.length; i++) {
+                QoS k = _qos[i];
+                _weights[i] = app.getWeights().get(k);
+                _toMinimize[i] = k.getObjective() == ObjectiveFunction.MINIMIZE;
+                _norms[i] = switch (k) {
+                    case COST, RESPONSE_TIME, AVAILABILITY, RELIABILITY -> app.getProvidersNorm().get(k);
+                    case THROUGHPUT -> app.getAppNorm().get(k);
+                    case LATENCY -> null;
+                };
+            }
+        }
 
-        for (QoS k : app.getQoSList()) {
-            switch (k) {
-                case COST, RESPONSE_TIME, AVAILABILITY, RELIABILITY ->
-                    componentNorm.put(k, app.getProvidersNorm().get(k));
-                case THROUGHPUT -> componentNorm.put(k, app.getAppNorm().get(k));
-                case LATENCY -> {
-                    MinMax minMax = new MinMax();
+        private void forEachComponent(BiConsumer<Integer, List<Integer>> consumer) {
+            _app.getServicesToExplore().entrySet().parallelStream().forEach(
+                e -> consumer.accept(e.getValue(), _app.getService(e.getKey()).getCandidates())
+            );
 
-                    _LATENCY.get(iGenotype).entrySet().parallelStream()
-                        .mapToDouble(Map.Entry::getValue)
-                        .forEach(minMax::setMinMax);
+            _app.getGatesToExplore().entrySet().parallelStream().forEach(
+                e -> consumer.accept(e.getValue(), _app.getGate(e.getKey()).getCandidates())
+            );
+        }
 
-                    componentNorm.put(k, new Normalization(minMax.getMin(), minMax.getMax()));
+        /**
+         * Score of each candidate of a component, in the candidates order.
+         */
+        private double[] scores(Integer iGenotype, List<Integer> candidates) {
+            double[] scores = new double[candidates.size()];
+
+            // Latency normalization for this component
+            Normalization latencyNorm = (_latency == null)
+                ? null
+                : new Normalization(_latency.getMin(iGenotype), _latency.getMax(iGenotype));
+
+            for (int iProvider = 0; iProvider < scores.length; iProvider++) {
+                Provider p = _app.getProvider(candidates.get(iProvider));
+                double value = 0;
+
+                // For each weight
+                for (int i = 0; i < _qos.length; i++) {
+                    QoS k = _qos[i];
+                    Normalization norm = (k == QoS.LATENCY) ? latencyNorm : _norms[i];
+
+                    double v = switch (k) {
+                        case LATENCY -> _latency.get(iGenotype, iProvider);
+                        case THROUGHPUT -> p.getConnRange().getCapacity();
+                        default -> p.getAttributeValue(k);
+                    };
+
+                    // Accumulate the value normalized multiply by it weight
+                    value += norm.normalize(v, _toMinimize[i], NormalizedMethod.MIN_MAX) * _weights[i];
                 }
+
+                scores[iProvider] = value;
             }
-        }
 
-        return componentNorm;
+            return scores;
+        }
     }
 }
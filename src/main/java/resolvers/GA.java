@@ -6,6 +6,9 @@ import io.jenetics.engine.*;
 import io.jenetics.stat.DoubleMomentStatistics;
 import io.jenetics.util.ISeq;
 import models.applications.Application;
+import models.auxiliary.CandidateClusters;
+import models.auxiliary.CandidateSkyline;
+import models.auxiliary.RunResult;
 import models.auxiliary.TimeLimit;
 import models.enums.CONFIG;
 import models.enums.Header;
@@ -20,15 +23,23 @@ import utils.RunConf;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class GA {
+    // Evaluator pool shared by all engines, instead of creating (and leaking) a pool on each resolution
+    private static final ExecutorService EVALUATOR = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "ga-evaluator");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
     /**
      * Method to resolve an application and give statistics information
      *
@@ -40,8 +51,63 @@ public class GA {
         // 0. Initial time counter
         Instant startInstant = Instant.now();
         // 1. Run genetic algorithm and get data
-        Pair<EvolutionResult<IntegerGene, Double>, EvolutionStatistics<Double, DoubleMomentStatistics>> pair;
-        pair = GA.resolveByGA(app, population);
+        App.updateData(data, toResult(app, GA.resolveByGA(app, population), startInstant));
+    }
+
+    public static void resolveByGAPair(
+        Application app, Map<Header, List<Object>> data, ISeq<Genotype<IntegerGene>> population
+    ) {
+        App.updateData(data, resolvePair(app, population));
+    }
+
+    public static RunResult resolvePair(Application app, ISeq<Genotype<IntegerGene>> population) {
+        // 0. Initial time counter
+        Instant startInstant = Instant.now();
+        // 1. Run genetic algorithm and get data
+        return toResult(app, GA.resolveByGAPair(app, population), startInstant);
+    }
+
+    public static RunResult resolvePair(Application app) {
+        return resolvePair(app, ISeq.of());
+    }
+
+    /**
+     * Resolve with an initial population seeded with the k best candidates of each component found by Express
+     *
+     * @param k    Max number of candidates per component of the shortlists
+     * @param size Number of genotypes seeded, the rest of the population is random
+     * @param seed Seed of the random picks (negative for a random seed)
+     */
+    public static RunResult resolveSeeded(Application app, int k, int size, Long seed) {
+        // 0. Initial time counter
+        Instant startInstant = Instant.now();
+        // 1. Score candidates and build the population
+        ISeq<Genotype<IntegerGene>> population = Express.getPopulation(app, k, size, seed);
+        long preCalculationTime = Duration.between(startInstant, Instant.now()).toMillis();
+        // 2. Run genetic algorithm and get data
+        return toResult(app, GA.resolveByGAPair(app, population), preCalculationTime, startInstant, Double.NaN);
+    }
+
+    private static RunResult toResult(
+        Application app,
+        Pair<EvolutionResult<IntegerGene, Double>, EvolutionStatistics<Double, DoubleMomentStatistics>> pair,
+        Instant start
+    ) {
+        return toResult(app, pair, 0, start, Double.NaN);
+    }
+
+    /**
+     * Result of a genetic algorithm execution
+     *
+     * @param preCalculationTime Time spent before the genetic algorithm (ms), included in the execution time
+     * @param start              Instant when the resolution started
+     * @param reductionRatio     Ratio of candidates removed from the search, or NaN if the search isn't reduced
+     */
+    private static RunResult toResult(
+        Application app,
+        Pair<EvolutionResult<IntegerGene, Double>, EvolutionStatistics<Double, DoubleMomentStatistics>> pair,
+        long preCalculationTime, Instant start, double reductionRatio
+    ) {
         // 2. Decompose results
         EvolutionResult<IntegerGene, Double> result = pair.getValue0();
         EvolutionStatistics<Double, DoubleMomentStatistics> statistics = pair.getValue1();
@@ -54,59 +120,88 @@ public class GA {
 
         // Convert genotype into a legible composition
         List<Integer> legibleComposition = Composition.toList(genotype, app);
-        long executionTime = Duration.between(startInstant, Instant.now()).toMillis();
+        long executionTime = Duration.between(start, Instant.now()).toMillis();
 
         // 3. Update information
-        App.updateData(data, Stream.of(
-            new AbstractMap.SimpleEntry<>(Header.EXECUTION_TIME, executionTime),
-            new AbstractMap.SimpleEntry<>(Header.PROVIDERS, app.getProviders().size()),
-            new AbstractMap.SimpleEntry<>(Header.SERVICES, app.getServices().size()),
-            new AbstractMap.SimpleEntry<>(Header.GENERATIONS, statistics.evolveDuration().result().count()),
-            new AbstractMap.SimpleEntry<>(Header.BATCH_SIZE, 0),
-            new AbstractMap.SimpleEntry<>(Header.BEST_FITNESS, maxFitness),
-            new AbstractMap.SimpleEntry<>(Header.MEAN_FITNESS, meanFitness),
-            new AbstractMap.SimpleEntry<>(Header.WORST_FITNESS, minFitness),
-            new AbstractMap.SimpleEntry<>(Header.GENOTYPE, legibleComposition),
-            new AbstractMap.SimpleEntry<>(Header.SUB_PROBLEMS, 1)
-        ).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        return new RunResult(
+            preCalculationTime, executionTime, app.getProviders().size(), app.getServices().size(),
+            statistics.evolveDuration().result().count(), maxFitness, meanFitness, minFitness, legibleComposition, 0,
+            1, reductionRatio, Double.NaN
+        );
     }
 
-    public static void resolveByGAPair(
-        Application app, Map<Header, List<Object>> data, ISeq<Genotype<IntegerGene>> population
-    ) {
+    /**
+     * Resolve the application searching over clusters of similar candidates, and later refine the best composition
+     * found picking the concrete provider of each cluster.
+     *
+     * @param levels Number of cells per QoS attribute of the grid used to cluster candidates
+     */
+    public static void resolveByGAClustered(Application app, Map<Header, List<Object>> data, Integer levels) {
+        App.updateData(data, resolveClustered(app, levels));
+    }
+
+    /**
+     * See `resolveByGAClustered`
+     */
+    public static RunResult resolveClustered(Application app, Integer levels) {
         // 0. Initial time counter
         Instant startInstant = Instant.now();
-        // 1. Run genetic algorithm and get data
+        // 1. Group candidates, the original application isn't modified
+        Application copy = app.copy();
+        CandidateClusters clusters = new CandidateClusters(copy, levels);
+        copy.setCandidateView(clusters);
+        long preCalculationTime = Duration.between(startInstant, Instant.now()).toMillis();
+        // 2. Run genetic algorithm over representatives and get data
         Pair<EvolutionResult<IntegerGene, Double>, EvolutionStatistics<Double, DoubleMomentStatistics>> pair;
-        pair = GA.resolveByGAPair(app, population);
-        // 2. Decompose results
+        pair = GA.prepareEngine(new PairProblem(copy), copy, ISeq.of());
+        // 3. Decompose results
         EvolutionResult<IntegerGene, Double> result = pair.getValue0();
         EvolutionStatistics<Double, DoubleMomentStatistics> statistics = pair.getValue1();
 
         DoubleMomentStatistics fitness = statistics.fitness();
-        double maxFitness = fitness.max(), minFitness = fitness.min(), meanFitness = fitness.mean();
+        double meanFitness = fitness.mean(), minFitness = fitness.min();
 
-        // Get genotype
+        // 4. Pick the concrete provider of each cluster selected
         Genotype<IntegerGene> genotype = result.bestPhenotype().genotype();
+        List<Integer> genes = genotype.stream().map(c -> c.gene().allele()).collect(Collectors.toList());
+        Pair<List<Integer>, Double> refined = clusters.refine(copy, genes);
+        double maxFitness = refined.getValue1();
 
-        // Convert genotype into a legible composition
-        List<Integer> legibleComposition = Composition.toList(genotype, app);
+        // Convert composition into a legible composition
+        List<Integer> legibleComposition = Composition.toList(refined.getValue0(), copy);
         long executionTime = Duration.between(startInstant, Instant.now()).toMillis();
 
-        // 3. Update information
-        App.updateData(data, Stream.of(
-            new AbstractMap.SimpleEntry<>(Header.PRE_CALCULATION_TIME, 0),
-            new AbstractMap.SimpleEntry<>(Header.EXECUTION_TIME, executionTime),
-            new AbstractMap.SimpleEntry<>(Header.PROVIDERS, app.getProviders().size()),
-            new AbstractMap.SimpleEntry<>(Header.SERVICES, app.getServices().size()),
-            new AbstractMap.SimpleEntry<>(Header.GENERATIONS, statistics.evolveDuration().result().count()),
-            new AbstractMap.SimpleEntry<>(Header.BATCH_SIZE, 0),
-            new AbstractMap.SimpleEntry<>(Header.BEST_FITNESS, maxFitness),
-            new AbstractMap.SimpleEntry<>(Header.MEAN_FITNESS, meanFitness),
-            new AbstractMap.SimpleEntry<>(Header.WORST_FITNESS, minFitness),
-            new AbstractMap.SimpleEntry<>(Header.GENOTYPE, legibleComposition),
-            new AbstractMap.SimpleEntry<>(Header.SUB_PROBLEMS, 1)
-        ).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        // 5. Update information
+        return new RunResult(
+            preCalculationTime, executionTime, app.getProviders().size(), app.getServices().size(),
+            statistics.evolveDuration().result().count(), maxFitness, meanFitness, minFitness, legibleComposition, 0,
+            1, clusters.getReductionRatio(), clusters.getQuantizationError()
+        );
+    }
+
+    /**
+     * Resolve the application searching only over the candidates that aren't dominated by another candidate of the
+     * same component (see `CandidateSkyline`).
+     */
+    public static void resolveByGASkyline(Application app, Map<Header, List<Object>> data) {
+        App.updateData(data, resolveSkyline(app));
+    }
+
+    /**
+     * See `resolveByGASkyline`
+     */
+    public static RunResult resolveSkyline(Application app) {
+        // 0. Initial time counter
+        Instant startInstant = Instant.now();
+        // 1. Prune dominated candidates, the original application isn't modified
+        Application copy = app.copy();
+        CandidateSkyline skyline = new CandidateSkyline(copy);
+        copy.setCandidateView(skyline);
+        long preCalculationTime = Duration.between(startInstant, Instant.now()).toMillis();
+        // 2. Run genetic algorithm over the skyline, genotypes are decoded into the original candidates
+        return toResult(
+            copy, GA.resolveByGAPair(copy, ISeq.of()), preCalculationTime, startInstant, skyline.getReductionRatio()
+        );
     }
 
     public static void resolveByGA(Application app, Map<Header, List<Object>> data) {
@@ -164,8 +259,8 @@ public class GA {
             .populationSize(populationSize)
             .survivorsSize(survivorsSize)
             .selector(new TruncationSelector(survivorsSize))
-            // Use all available cores
-            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+            // Use all available cores, with the pool shared by all engines
+            .executor(EVALUATOR)
             // Define alters
             .alterers(
                 // This mutator type is the best option in general for mutate chromosomes
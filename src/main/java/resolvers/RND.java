@@ -4,6 +4,7 @@ import executions.App;
 import models.applications.Application;
 import models.applications.Gate;
 import models.applications.Service;
+import models.auxiliary.RunResult;
 import models.enums.Header;
 import org.javatuples.Pair;
 import utils.Composition;
@@ -11,12 +12,14 @@ import utils.Composition;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class RND {
 
     public static void resolve(Application app, Map<Header, List<Object>> data, Long seed) {
+        App.updateData(data, resolve(app, seed));
+    }
+
+    public static RunResult resolve(Application app, Long seed) {
         // 0. Initial time counter
         Instant startInstant = Instant.now();
         // 1. Run randomly resolution
@@ -49,18 +52,9 @@ public class RND {
         double fitness = Application.fitnessPair(new Pair<>(app, composition));
 
         // 5. Update information
-        App.updateData(data, Stream.of(
-            new AbstractMap.SimpleEntry<>(Header.PRE_CALCULATION_TIME, 0),
-            new AbstractMap.SimpleEntry<>(Header.EXECUTION_TIME, executionTime),
-            new AbstractMap.SimpleEntry<>(Header.PROVIDERS, app.getProviders().size()),
-            new AbstractMap.SimpleEntry<>(Header.SERVICES, app.getServices().size()),
-            new AbstractMap.SimpleEntry<>(Header.GENERATIONS, 1),
-            new AbstractMap.SimpleEntry<>(Header.BATCH_SIZE, 0),
-            new AbstractMap.SimpleEntry<>(Header.BEST_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.MEAN_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.WORST_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.GENOTYPE, composition),
-            new AbstractMap.SimpleEntry<>(Header.SUB_PROBLEMS, 1)
-        ).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        return new RunResult(
+            0, executionTime, app.getProviders().size(), app.getServices().size(), 1, fitness, fitness, fitness,
+            composition, 0, 1
+        );
     }
 }
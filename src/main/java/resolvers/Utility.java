@@ -9,6 +9,8 @@ import io.jenetics.stat.DoubleMomentStatistics;
 import io.jenetics.util.ISeq;
 import models.applications.Application;
 import models.applications.UtilityApplication;
+import models.applications.UtilityBase;
+import models.auxiliary.RunResult;
 import models.enums.Header;
 import org.javatuples.Pair;
 import problems.UtilityProblem;
@@ -16,11 +18,9 @@ import utils.Composition;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
 
 public class Utility {
     public static void resolve(Application app, Map<Header, List<Object>> data, Integer degrees) {
@@ -29,12 +29,52 @@ public class Utility {
 
     public static void resolve(
         Application app, Map<Header, List<Object>> data, ISeq<Genotype<IntegerGene>> population, Integer degrees
+    ) {
+        App.updateData(data, resolve(app, population, degrees));
+    }
+
+    /**
+     * Resolve reusing the tables that don't depend on the degrees (e.g. when the same application is resolved with
+     * different degrees). The time spent building them is added to the pre-calculation time of each resolution, so
+     * results are comparable with the ones that build everything.
+     */
+    public static void resolve(UtilityBase base, Map<Header, List<Object>> data, Integer degrees) {
+        resolve(base, data, ISeq.of(), degrees);
+    }
+
+    public static void resolve(
+        UtilityBase base, Map<Header, List<Object>> data, ISeq<Genotype<IntegerGene>> population, Integer degrees
+    ) {
+        App.updateData(data, resolve(base, population, degrees));
+    }
+
+    public static RunResult resolve(Application app, Integer degrees) {
+        return resolve(app, ISeq.of(), degrees);
+    }
+
+    public static RunResult resolve(Application app, ISeq<Genotype<IntegerGene>> population, Integer degrees) {
+        return _resolve(population, () -> new UtilityApplication(app, degrees), 0L);
+    }
+
+    public static RunResult resolve(UtilityBase base, Integer degrees) {
+        return resolve(base, ISeq.of(), degrees);
+    }
+
+    public static RunResult resolve(UtilityBase base, ISeq<Genotype<IntegerGene>> population, Integer degrees) {
+        return _resolve(population, () -> new UtilityApplication(base, degrees), base.getPreCalculationTime());
+    }
+
+    /**
+     * @param basePreCalculation Time spent building shared tables before (ms), added to the pre-calculation time
+     */
+    private static RunResult _resolve(
+        ISeq<Genotype<IntegerGene>> population, Supplier<UtilityApplication> builder, long basePreCalculation
     ) {
         // 0. Initial time counter
         Instant start = Instant.now();
         // 1. Create fitness application and fitness problem
-        UtilityApplication uApp = new UtilityApplication(app, degrees);
-        long preExecution = Duration.between(start, Instant.now()).toMillis();
+        UtilityApplication uApp = builder.get();
+        long preExecution = basePreCalculation + Duration.between(start, Instant.now()).toMillis();
         start = Instant.now();
         // 2. Run genetic algorithm and get data
         Pair<EvolutionResult<IntegerGene, Double>, EvolutionStatistics<Double, DoubleMomentStatistics>> pair;
@@ -54,17 +94,10 @@ public class Utility {
         double fitness = Application.fitnessPair(new Pair<>(uApp, composition));
 
         // 6. Update information
-        App.updateData(data, Stream.of(
-            new AbstractMap.SimpleEntry<>(Header.PRE_CALCULATION_TIME, preExecution),
-            new AbstractMap.SimpleEntry<>(Header.EXECUTION_TIME, executionTime),
-            new AbstractMap.SimpleEntry<>(Header.PROVIDERS, app.getProviders().size()),
-            new AbstractMap.SimpleEntry<>(Header.SERVICES, app.getServices().size()),
-            new AbstractMap.SimpleEntry<>(Header.GENERATIONS, statistics.evolveDuration().result().count()),
-            new AbstractMap.SimpleEntry<>(Header.BEST_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.MEAN_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.WORST_FITNESS, fitness),
-            new AbstractMap.SimpleEntry<>(Header.GENOTYPE, composition)
-        ).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        return new RunResult(
+            preExecution, executionTime, uApp.getProviders().size(), uApp.getServices().size(),
+            statistics.evolveDuration().result().count(), fitness, composition
+        );
     }
 
     public static Pair<EvolutionResult<IntegerGene, Double>, EvolutionStatistics<Double, DoubleMomentStatistics>>
@@ -0,0 +1,377 @@
+package utils;
+
+import models.applications.Provider;
+import models.applications.Service;
+import models.auxiliary.Candidates;
+import models.enums.ConnRange;
+import models.enums.QoS;
+import models.geo.Location;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming importer of datasets in CSV files with a header row (measured QoS of providers, locations and candidates
+ * of services).
+ * <p>
+ * Lines are read with a buffered reader and grouped in chunks, which are parsed in parallel while the next lines are
+ * read. Only a few chunks are in flight at the same time, so the memory used doesn't grow with the size of the file
+ * (only with the result) and the rows of the file are never kept all together. Rows are given in the order of the
+ * file. Quoted fields can have commas and escaped quotes, but not line breaks. Rows with fewer fields than the header
+ * aren't valid.
+ */
+public final class CSVImporter {
+    // Lines per chunk
+    private static final int CHUNK_SIZE = 8192;
+    // Chunks being parsed at the same time (bounded buffer)
+    private static final int MAX_CHUNKS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private CSVImporter() {
+    }
+
+    /**
+     * Parser of the rows of a file
+     *
+     * @param <T> Type of the rows parsed
+     */
+    @FunctionalInterface
+    public interface RowParser<T> {
+        /**
+         * @param row  Fields of the row
+         * @param line Number of the line in the file (starting at 1, the header), to report errors
+         * @return Row parsed
+         */
+        T parse(String[] row, long line);
+    }
+
+    /**
+     * Read a file parsing its rows in parallel chunks
+     *
+     * @param path     File to read
+     * @param header   Function that returns the parser of the rows from the header (p.e. to find its columns)
+     * @param consumer Consumer of the rows parsed, called in the order of the file from the calling thread
+     */
+    public static <T> void read(
+        Path path, Function<String[], RowParser<T>> header, Consumer<T> consumer
+    ) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+
+            // Empty file
+            if (line == null) {
+                return;
+            }
+
+            String[] fields = split(line);
+            RowParser<T> parser = header.apply(fields);
+            Deque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>();
+            // First line that failed, so the chunks after it that are still running stop (its rows aren't consumed)
+            AtomicLong failed = new AtomicLong(Long.MAX_VALUE);
+            List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+            long number = 1, first = 2;
+
+            try {
+                while ((line = reader.readLine()) != null) {
+                    number++;
+                    chunk.add(line);
+
+                    if (chunk.size() == CHUNK_SIZE) {
+                        // Wait for the oldest chunk if the buffer is full
+                        if (inFlight.size() >= MAX_CHUNKS) {
+                            inFlight.poll().join().forEach(consumer);
+                        }
+
+                        inFlight.add(submit(path, fields.length, chunk, first, parser, failed));
+                        chunk = new ArrayList<>(CHUNK_SIZE);
+                        first = number + 1;
+                    }
+                }
+
+                inFlight.add(submit(path, fields.length, chunk, first, parser, failed));
+
+                while (!inFlight.isEmpty()) {
+                    inFlight.poll().join().forEach(consumer);
+                }
+            } catch (IOException | RuntimeException | Error e) {
+                failed.set(0);
+                inFlight.forEach(task -> task.cancel(true));
+                throw e;
+            }
+        }
+    }
+
+    private static <T> ForkJoinTask<List<T>> submit(
+        Path path, int nOfColumns, List<String> chunk, long first, RowParser<T> parser, AtomicLong failed
+    ) {
+        return ForkJoinPool.commonPool().submit(() -> {
+            List<T> rows = new ArrayList<>(chunk.size());
+
+            for (int i = 0; i < chunk.size() && first + i < failed.get(); i++) {
+                // Skip empty lines
+                if (chunk.get(i).isBlank()) {
+                    continue;
+                }
+
+                String[] row = split(chunk.get(i));
+
+                if (row.length < nOfColumns) {
+                    failed.accumulateAndGet(first + i, Math::min);
+                    throw error(path, first + i, String.format(
+                        "Row has %d fields but the header has %d", row.length, nOfColumns
+                    ));
+                }
+
+                try {
+                    rows.add(parser.parse(row, first + i));
+                } catch (RuntimeException e) {
+                    failed.accumulateAndGet(first + i, Math::min);
+                    throw e;
+                }
+            }
+
+            return rows;
+        });
+    }
+
+    /**
+     * Split a line into its fields
+     */
+    public static String[] split(String line) {
+        // Most lines haven't quotes, so they are split without copying characters
+        if (line.indexOf('"') < 0) {
+            int n = 1;
+
+            for (int i = line.indexOf(','); i >= 0; i = line.indexOf(',', i + 1)) {
+                n++;
+            }
+
+            String[] fields = new String[n];
+
+            for (int f = 0, from = 0; f < n; f++) {
+                int to = (f == n - 1) ? line.length() : line.indexOf(',', from);
+                fields[f] = line.substring(from, to);
+                from = to + 1;
+            }
+
+            return fields;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    // Escaped quote
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Return the position of each column of the header (case-insensitive)
+     */
+    private static Map<String, Integer> columns(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        return columns;
+    }
+
+    private static int column(Map<String, Integer> columns, String name, Path path) {
+        Integer column = columns.get(name);
+
+        if (column == null) {
+            throw new RuntimeException(String.format("Column `%s` not found in %s, please check it.", name, path));
+        }
+
+        return column;
+    }
+
+    private static RuntimeException error(Path path, long line, String message) {
+        return new RuntimeException(String.format("%s (line %d): %s, please check it.", path, line, message));
+    }
+
+    // MARK: Datasets
+
+    /**
+     * Import locations from a file with the columns `name`, `latitude` and `longitude` (p.e. countries.csv)
+     */
+    public static List<Location> locations(Path path) throws IOException {
+        List<Location> locations = new ArrayList<>();
+
+        read(path, header -> {
+            Map<String, Integer> columns = columns(header);
+            int name = column(columns, "name", path), lat = column(columns, "latitude", path),
+                lon = column(columns, "longitude", path);
+
+            return (row, line) -> {
+                try {
+                    return new Location(row[name], Double.parseDouble(row[lat]), Double.parseDouble(row[lon]));
+                } catch (RuntimeException e) {
+                    throw error(path, line, "Location isn't valid");
+                }
+            };
+        }, locations::add);
+
+        return locations;
+    }
+
+    /**
+     * Import providers from a file with one provider per row and the columns:
+     * - `name` (optional)
+     * - `location`: name of a location given (optional)
+     * - `conn_range`: connection range, by name (L0...L5) or level (optional, L0 by default)
+     * - A column for each QoS attribute given, named as the attribute (p.e. `cost`, `response_time`)
+     *
+     * @param path      File to read
+     * @param qos       QoS attributes of the providers (channel attributes, latency and throughput, are ignored)
+     * @param locations Locations that providers can reference by name
+     * @return Providers in the order of the file (its global index is its row)
+     */
+    public static List<Provider> providers(Path path, List<QoS> qos, List<Location> locations) throws IOException {
+        Map<String, Location> byName = new HashMap<>();
+        locations.forEach(l -> byName.putIfAbsent(l.getName(), l));
+
+        List<QoS> providerQoS = qos.stream()
+            .filter(q -> !q.equals(QoS.LATENCY) && !q.equals(QoS.THROUGHPUT))
+            .collect(Collectors.toList());
+        List<Provider> providers = new ArrayList<>();
+
+        read(path, header -> {
+            Map<String, Integer> columns = columns(header);
+            int name = columns.getOrDefault("name", -1), location = columns.getOrDefault("location", -1),
+                connRange = columns.getOrDefault("conn_range", -1);
+            int[] attributes = providerQoS.stream()
+                .mapToInt(q -> column(columns, q.name().toLowerCase(Locale.ROOT), path))
+                .toArray();
+
+            return (row, line) -> {
+                Map<QoS, Double> values = new EnumMap<>(QoS.class);
+
+                try {
+                    for (int q = 0; q < attributes.length; q++) {
+                        values.put(providerQoS.get(q), Double.parseDouble(row[attributes[q]]));
+                    }
+                } catch (RuntimeException e) {
+                    throw error(path, line, "QoS attributes aren't valid");
+                }
+
+                Location l = null;
+
+                if (location >= 0) {
+                    l = byName.get(row[location]);
+
+                    if (l == null) {
+                        throw error(path, line, String.format("Location `%s` doesn't exist", row[location]));
+                    }
+                }
+
+                return new Provider(
+                    (name >= 0) ? row[name] : null, values, l,
+                    (connRange >= 0) ? connRange(row[connRange], path, line) : ConnRange.L0
+                );
+            };
+        }, providers::add);
+
+        return providers;
+    }
+
+    private static ConnRange connRange(String value, Path path, long line) {
+        try {
+            return value.chars().allMatch(Character::isDigit)
+                ? ConnRange.getRange(Integer.parseInt(value))
+                : ConnRange.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw error(path, line, String.format("Connection range `%s` doesn't exist", value));
+        }
+    }
+
+    /**
+     * Import the candidates of each service from a file with a row per (service, provider) pair and the columns
+     * `service` (name) and `provider` (global index of the provider, its row in the providers file).
+     *
+     * @param path         File to read
+     * @param nOfProviders Number of providers, to check indexes
+     * @return Services in order of its first row, with its candidates in the order of the file
+     */
+    public static List<Service> services(Path path, int nOfProviders) throws IOException {
+        // Candidates of each service, as growable int arrays
+        Map<String, int[]> candidates = new LinkedHashMap<>();
+        Map<String, Integer> sizes = new HashMap<>();
+
+        read(path, header -> {
+            Map<String, Integer> columns = columns(header);
+            int service = column(columns, "service", path), provider = column(columns, "provider", path);
+
+            return (row, line) -> {
+                int iProvider;
+
+                try {
+                    iProvider = Integer.parseInt(row[provider].trim());
+                } catch (RuntimeException e) {
+                    throw error(path, line, "Provider isn't valid");
+                }
+
+                if (iProvider < 0 || iProvider >= nOfProviders) {
+                    throw error(path, line, String.format("Provider %d doesn't exist", iProvider));
+                }
+
+                return new AbstractMap.SimpleEntry<>(row[service], iProvider);
+            };
+        }, pair -> {
+            int size = sizes.getOrDefault(pair.getKey(), 0);
+            int[] values = candidates.computeIfAbsent(pair.getKey(), k -> new int[8]);
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+                candidates.put(pair.getKey(), values);
+            }
+
+            values[size] = pair.getValue();
+            sizes.put(pair.getKey(), size + 1);
+        });
+
+        List<Service> services = new ArrayList<>(candidates.size());
+
+        for (Map.Entry<String, int[]> e : candidates.entrySet()) {
+            services.add(new Service(
+                e.getKey(), Candidates.of(Arrays.copyOf(e.getValue(), sizes.get(e.getKey())))
+            ));
+        }
+
+        return services;
+    }
+}
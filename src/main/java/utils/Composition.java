@@ -3,7 +3,6 @@ package utils;
 import io.jenetics.Genotype;
 import io.jenetics.IntegerGene;
 import models.applications.Application;
-import models.applications.Gate;
 import models.applications.Service;
 import models.applications.UtilityApplication;
 
@@ -11,6 +10,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Composition {
     public static List<Integer> toList(Map<Integer, Integer> composition) {
@@ -30,6 +30,29 @@ public class Composition {
         return compositionList;
     }
 
+    /**
+     * Same as `toMap(genotype, app)`, but from the positions (in the candidates lists) of a composition.
+     *
+     * @param positions Position of the provider selected for each genotype index
+     * @return List of the global providers selected
+     */
+    public static List<Integer> toList(List<Integer> positions, Application app) {
+        List<Integer> compositionList = Arrays.asList(new Integer[positions.size()]);
+        int nOfServices = app.getServicesToExplore().size();
+
+        for (Map.Entry<Integer, Integer> e : app.getServicesToExplore().entrySet()) {
+            int iService = e.getKey(), iGenotypePosition = e.getValue();
+            compositionList.set(iService, app.getService(iService).getCandidate(positions.get(iGenotypePosition)));
+        }
+
+        for (Map.Entry<Integer, Integer> e : app.getGatesToExplore().entrySet()) {
+            int iGate = e.getKey(), iGenotypePosition = e.getValue();
+            compositionList.set(iGate + nOfServices, app.getGate(iGate).getCandidate(positions.get(iGenotypePosition)));
+        }
+
+        return compositionList;
+    }
+
     public static List<Integer> toList(List<Service> services, Map<Service, Integer> composition) {
         return Composition.toList(Composition.toMap(services, composition));
     }
@@ -46,6 +69,11 @@ public class Composition {
         // MARK: This function is so important, if we believe that could exist an error on compositions check this.
         Map<Integer, Integer> composition = new HashMap<>();
 
+        // Genes of a reduced search are positions over the view
+        if (app.getCandidateView() != null) {
+            genotype = app.getCandidateView().toOriginal(app, genotype);
+        }
+
         // Get number of services
         int nOfServices = app.getServicesToExplore().size();
 
@@ -76,42 +104,23 @@ public class Composition {
      */
     public static Map<Integer, Integer> toUtility(Map<Integer, Double> utilities, UtilityApplication uApp) {
         // MARK: This function is so important, if we believe that could exist an error on compositions check this.
-        Map<Integer, Integer> composition = new HashMap<>();
-
-        for (Map.Entry<Integer, Integer> e : uApp.getServicesToExplore().entrySet()) {
-            Integer iService = e.getKey(), iGenotype = e.getValue();
-            Service s = uApp.getService(iService);
-
-            _toUtility(utilities, uApp, composition, iGenotype, s.getCandidates());
-        }
+        Map<Integer, Integer> composition = new ConcurrentHashMap<>();
 
-        for (Map.Entry<Integer, Integer> e : uApp.getGatesToExplore().entrySet()) {
-            Integer iGate = e.getKey(), iGenotype = e.getValue();
-            Gate g = uApp.getGate(iGate);
+        // Each component is decoded independently, so do it in parallel
+        uApp.getServicesToExplore().values().parallelStream()
+            .forEach(iGenotype -> _toUtility(utilities, uApp, composition, iGenotype));
 
-            _toUtility(utilities, uApp, composition, iGenotype, g.getCandidates());
-        }
+        uApp.getGatesToExplore().values().parallelStream()
+            .forEach(iGenotype -> _toUtility(utilities, uApp, composition, iGenotype));
 
         return composition;
     }
 
     private static void _toUtility(
-        Map<Integer, Double> utilities, UtilityApplication uApp, Map<Integer, Integer> composition, Integer iGenotype,
-        List<Integer> candidates
+        Map<Integer, Double> utilities, UtilityApplication uApp, Map<Integer, Integer> composition, Integer iGenotype
     ) {
-        double bestApprox = Double.MAX_VALUE;
-        int bestProvider = -1;
-
-        for (Integer p : candidates) {
-            double utility = uApp.getUtilityProvider().get(iGenotype).get(p);
-            double approx = Math.abs(utilities.get(iGenotype) - utility);
-
-            // New, this is if we want to approximate to the fitness required...
-            if (approx < bestApprox) {
-                bestProvider = p;
-                bestApprox = approx;
-            }
-        }
+        // Binary search of the provider closest to the fitness required
+        int bestProvider = uApp.getUtilityIndex(iGenotype).closest(utilities.get(iGenotype));
 
         composition.put(iGenotype, bestProvider);
     }
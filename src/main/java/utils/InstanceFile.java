@@ -0,0 +1,678 @@
+package utils;
+
+import generators.GenerationContext;
+import models.applications.Application;
+import models.applications.Gate;
+import models.applications.Provider;
+import models.applications.Service;
+import models.auxiliary.Candidates;
+import models.auxiliary.Normalization;
+import models.enums.ConnRange;
+import models.enums.NormalizedMethod;
+import models.enums.QoS;
+import models.geo.Location;
+import models.patterns.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Binary file of a problem instance, written once and opened with `FileChannel.map`, so the same instance is given
+ * to every resolver without generating it again.
+ * <p>
+ * The file (little endian) has a header with a magic number, the version of the format and the offset of each
+ * section, followed by the sections:
+ * - LOCATIONS: latitude and longitude columns and names. The first location is the input and output point.
+ * - PROVIDERS: location and connection range of each provider, a column per QoS attribute (original and normalized
+ * values) and names.
+ * - CANDIDATES: distinct lists of candidates, flattened with its offsets (services and gates with the same
+ * candidates share the same list).
+ * - SERVICES and GATES: list of candidates of each one, and names of services.
+ * - ARCHITECTURE: components in pre-order, with the gate ids and locations of each pattern and the probabilities of
+ * iterative and conditional patterns.
+ * - SETTINGS: normalization method, QoS attributes, weights and normalization bounds of providers and application.
+ * <p>
+ * Columns are read as views over the mapped file (without copying them), and the application is only built when
+ * `toApplication` is called. Constraints aren't kept (generated instances don't have them). A file is mapped with a
+ * single buffer, so it can't be greater than 2GB.
+ */
+public final class InstanceFile {
+    // "LCSI" (Locasc instance)
+    private static final int MAGIC = 0x4C435349;
+    // Version of the format, files of other versions can't be read
+    public static final int VERSION = 1;
+
+    // Sections of the file, in order
+    private static final int LOCATIONS = 0, PROVIDERS = 1, CANDIDATES = 2, SERVICES = 3, GATES = 4,
+        ARCHITECTURE = 5, SETTINGS = 6, N_SECTIONS = 7;
+
+    // Kinds of components of the architecture
+    private static final int SERVICE = 0, SEQUENTIAL = 1, ITERATIVE = 2, CONDITIONAL = 3, PARALLEL = 4;
+    // Integers per component: kind, service id or number of components, gate ids and gate locations
+    private static final int COMPONENT_INTS = 6;
+
+    private final ByteBuffer _buffer;
+    private final int[] _offsets = new int[N_SECTIONS];
+
+    // Header of each section, read when the file is opened
+    private final List<QoS> _qosList, _providerQoS;
+    private final NormalizedMethod _nMethod;
+    private final int _nOfLocations, _nOfProviders, _nOfLists, _nOfServices, _nOfGates, _nOfComponents;
+
+    private InstanceFile(ByteBuffer buffer) {
+        _buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (_buffer.limit() < 8 + 8 * N_SECTIONS || _buffer.getInt(0) != MAGIC) {
+            throw new RuntimeException("File isn't an instance file, please check it.");
+        } else if (_buffer.getInt(4) != VERSION) {
+            throw new RuntimeException(String.format(
+                "Instance file has version %d, but only version %d can be read, please check it.",
+                _buffer.getInt(4), VERSION
+            ));
+        }
+
+        for (int s = 0; s < N_SECTIONS; s++) {
+            _offsets[s] = (int) _buffer.getLong(8 + 8 * s);
+        }
+
+        _nOfLocations = _buffer.getInt(_offsets[LOCATIONS]);
+        _nOfProviders = _buffer.getInt(_offsets[PROVIDERS]);
+        _providerQoS = readQoS(_offsets[PROVIDERS] + 4);
+        _nOfLists = _buffer.getInt(_offsets[CANDIDATES]);
+        _nOfServices = _buffer.getInt(_offsets[SERVICES]);
+        _nOfGates = _buffer.getInt(_offsets[GATES]);
+        _nOfComponents = _buffer.getInt(_offsets[ARCHITECTURE]);
+        _nMethod = NormalizedMethod.values()[_buffer.getInt(_offsets[SETTINGS])];
+        _qosList = readQoS(_offsets[SETTINGS] + 4);
+    }
+
+    /**
+     * Open an instance file, mapping it in memory (read only)
+     */
+    public static InstanceFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new RuntimeException("Instance file is greater than 2GB, please check it.");
+            }
+
+            // The mapping is still valid when the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new InstanceFile(buffer);
+        }
+    }
+
+    // MARK: Views
+
+    public List<QoS> getQoSList() {
+        return _qosList;
+    }
+
+    public NormalizedMethod getMethod() {
+        return _nMethod;
+    }
+
+    public int getNOfProviders() {
+        return _nOfProviders;
+    }
+
+    public int getNOfServices() {
+        return _nOfServices;
+    }
+
+    public int getNOfGates() {
+        return _nOfGates;
+    }
+
+    /**
+     * Values of a QoS attribute of all providers (view over the file)
+     */
+    public DoubleBuffer getAttributes(QoS qos) {
+        return doubles(attributesOffset(qos, false), _nOfProviders);
+    }
+
+    /**
+     * Normalized values of a QoS attribute of all providers (view over the file)
+     */
+    public DoubleBuffer getNormalized(QoS qos) {
+        return doubles(attributesOffset(qos, true), _nOfProviders);
+    }
+
+    /**
+     * Global indexes of the candidates of a service (view over the file)
+     */
+    public IntBuffer getServiceCandidates(int service) {
+        return candidates(listOf(SERVICES, service, _nOfServices));
+    }
+
+    /**
+     * Global indexes of the candidates of a gate (view over the file)
+     */
+    public IntBuffer getGateCandidates(int gate) {
+        return candidates(listOf(GATES, gate, _nOfGates));
+    }
+
+    public String getProviderName(int provider) {
+        return string(providerNamesOffset(), provider);
+    }
+
+    public String getServiceName(int service) {
+        return string(_offsets[SERVICES] + 4 + 4 * _nOfServices, service);
+    }
+
+    // MARK: Application
+
+    /**
+     * Build the application of this instance. Providers names are read from the file the first time that they're
+     * needed.
+     */
+    public Application toApplication() {
+        // 1. Locations, the first one is the input and output point
+        int lats = align(_offsets[LOCATIONS] + 4), longs = lats + 8 * _nOfLocations, names = longs + 8 * _nOfLocations;
+        List<Location> locations = IntStream.range(0, _nOfLocations).mapToObj(l -> new Location(
+            string(names, l), _buffer.getDouble(lats + 8 * l), _buffer.getDouble(longs + 8 * l)
+        )).collect(Collectors.toList());
+        GenerationContext context = new GenerationContext(locations);
+
+        // 2. Providers
+        int providersLocations = _offsets[PROVIDERS] + 8 + 4 * _providerQoS.size();
+        int providersConnRanges = providersLocations + 4 * _nOfProviders;
+        DoubleBuffer[] values = new DoubleBuffer[_providerQoS.size()], normalized = new DoubleBuffer[values.length];
+
+        for (int q = 0; q < values.length; q++) {
+            values[q] = getAttributes(_providerQoS.get(q));
+            normalized[q] = getNormalized(_providerQoS.get(q));
+        }
+
+        List<Provider> providers = IntStream.range(0, _nOfProviders).parallel().mapToObj(p -> {
+            Map<QoS, Double> attributes = new HashMap<>(), normalizedValues = new HashMap<>();
+
+            for (int q = 0; q < values.length; q++) {
+                attributes.put(_providerQoS.get(q), values[q].get(p));
+                normalizedValues.put(_providerQoS.get(q), normalized[q].get(p));
+            }
+
+            int location = _buffer.getInt(providersLocations + 4 * p);
+            Provider provider = new Provider(
+                () -> getProviderName(p), attributes, (location < 0) ? null : locations.get(location),
+                ConnRange.values()[_buffer.getInt(providersConnRanges + 4 * p)]
+            );
+            provider.setNormalized(normalizedValues);
+
+            return provider;
+        }).collect(Collectors.toList());
+
+        // 3. Lists of candidates (each one is built once)
+        List<Candidates> lists = IntStream.range(0, _nOfLists).parallel().mapToObj(i -> {
+            IntBuffer view = candidates(i);
+            int[] candidates = new int[view.remaining()];
+            view.get(candidates);
+            return Candidates.of(candidates);
+        }).collect(Collectors.toList());
+
+        List<Service> services = IntStream.range(0, _nOfServices).mapToObj(
+            s -> new Service(getServiceName(s), lists.get(listOf(SERVICES, s, _nOfServices)))
+        ).collect(Collectors.toList());
+
+        // 4. Architecture and application
+        Architecture architecture = (Architecture) readArchitecture(locations);
+        Application app = new Application(
+            context, architecture, services, providers, readWeights(), _nMethod, _qosList
+        );
+
+        // 5. Gates (extracted from the graph) and its candidates
+        if (app.getGates().size() != _nOfGates) {
+            throw new RuntimeException("Gates of the architecture don't match with the instance file, please check it.");
+        }
+
+        for (Gate g : app.getGates()) {
+            g.setCandidates(lists.get(listOf(GATES, g.getID(), _nOfGates)));
+        }
+
+        if (!app.getChannelQoS().isEmpty()) {
+            app.updateGatesToExplore();
+        }
+
+        // 6. Normalization bounds, without computing them again
+        app.setProvidersNorm(readNormalization(0));
+        app.setAppNorm(readNormalization(1));
+
+        return app;
+    }
+
+    private Component readArchitecture(List<Location> locations) {
+        int components = _offsets[ARCHITECTURE] + 4;
+        int probabilities = align(components + 4 * COMPONENT_INTS * _nOfComponents);
+        // Position of the next component and the next probability
+        int[] next = {0, 0};
+
+        return readComponent(components, probabilities, next, locations);
+    }
+
+    private Component readComponent(int components, int probabilities, int[] next, List<Location> locations) {
+        int base = components + 4 * COMPONENT_INTS * next[0]++;
+        int kind = _buffer.getInt(base), value = _buffer.getInt(base + 4);
+
+        if (kind == SERVICE) {
+            return IndexService.i(value);
+        }
+
+        // Probabilities of the pattern are before the ones of its sub-components (pre-order)
+        List<Double> pattern = new ArrayList<>();
+        int nOfProbabilities = (kind == ITERATIVE) ? 1 : (kind == CONDITIONAL) ? value : 0;
+
+        for (int i = 0; i < nOfProbabilities; i++) {
+            pattern.add(_buffer.getDouble(probabilities + 8 * next[1]++));
+        }
+
+        List<Component> subComponents = new ArrayList<>(value);
+
+        for (int i = 0; i < value; i++) {
+            subComponents.add(readComponent(components, probabilities, next, locations));
+        }
+
+        Architecture architecture = switch (kind) {
+            case SEQUENTIAL -> new Sequential(subComponents);
+            case PARALLEL -> new Parallel(subComponents);
+            case ITERATIVE -> new Iterative(subComponents, pattern.get(0));
+            case CONDITIONAL -> new Conditional(subComponents, pattern);
+            default -> throw new RuntimeException(String.format("Component kind %d doesn't recognise.", kind));
+        };
+
+        int inLocation = _buffer.getInt(base + 16), outLocation = _buffer.getInt(base + 20);
+        architecture.setInGateID(_buffer.getInt(base + 8));
+        architecture.setOutGateID(_buffer.getInt(base + 12));
+        architecture.setInputGate((inLocation < 0) ? null : locations.get(inLocation));
+        architecture.setOutputGate((outLocation < 0) ? null : locations.get(outLocation));
+
+        return architecture;
+    }
+
+    /**
+     * Weights of the QoS attributes (attributes without weight are NaN in the file)
+     */
+    private Map<QoS, Double> readWeights() {
+        int weights = align(_offsets[SETTINGS] + 8 + 4 * _qosList.size());
+        Map<QoS, Double> values = new HashMap<>();
+
+        for (int q = 0; q < _qosList.size(); q++) {
+            double w = _buffer.getDouble(weights + 8 * q);
+
+            if (!Double.isNaN(w)) {
+                values.put(_qosList.get(q), w);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Normalization bounds of the providers (0) or the application (1), attributes without bounds are NaN in the file
+     */
+    private Map<QoS, Normalization> readNormalization(int map) {
+        int n = _qosList.size(), bounds = align(_offsets[SETTINGS] + 8 + 4 * n) + 8 * n + 16 * n * map;
+        Map<QoS, Normalization> values = new HashMap<>();
+
+        for (int q = 0; q < n; q++) {
+            double min = _buffer.getDouble(bounds + 16 * q), max = _buffer.getDouble(bounds + 16 * q + 8);
+
+            if (!Double.isNaN(min)) {
+                values.put(_qosList.get(q), new Normalization(min, max));
+            }
+        }
+
+        return values;
+    }
+
+    // MARK: Low level reading
+
+    private List<QoS> readQoS(int position) {
+        int n = _buffer.getInt(position);
+        return IntStream.range(0, n)
+            .mapToObj(q -> QoS.values()[_buffer.getInt(position + 4 + 4 * q)])
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private int attributesOffset(QoS qos, boolean normalized) {
+        int q = _providerQoS.indexOf(qos);
+
+        if (q < 0) {
+            throw new RuntimeException(String.format("Providers of this instance haven't attribute %s.", qos));
+        }
+
+        int columns = align(_offsets[PROVIDERS] + 8 + 4 * _providerQoS.size() + 8 * _nOfProviders);
+        return columns + 8 * _nOfProviders * (normalized ? _providerQoS.size() + q : q);
+    }
+
+    private int providerNamesOffset() {
+        return align(_offsets[PROVIDERS] + 8 + 4 * _providerQoS.size() + 8 * _nOfProviders)
+            + 16 * _nOfProviders * _providerQoS.size();
+    }
+
+    private int listOf(int section, int i, int n) {
+        if (i < 0 || i >= n) {
+            throw new IndexOutOfBoundsException(i);
+        }
+
+        return _buffer.getInt(_offsets[section] + 4 + 4 * i);
+    }
+
+    private IntBuffer candidates(int list) {
+        int offsets = _offsets[CANDIDATES] + 4, values = offsets + 4 * (_nOfLists + 1);
+        int from = _buffer.getInt(offsets + 4 * list), to = _buffer.getInt(offsets + 4 * (list + 1));
+        return _buffer.slice(values + 4 * from, 4 * (to - from)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private DoubleBuffer doubles(int position, int n) {
+        return _buffer.slice(position, 8 * n).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    /**
+     * Read a string of a column of strings (number of strings, offsets and UTF-8 bytes)
+     */
+    private String string(int column, int i) {
+        int n = _buffer.getInt(column), offsets = column + 4, bytes = offsets + 4 * (n + 1);
+        int from = _buffer.getInt(offsets + 4 * i), to = _buffer.getInt(offsets + 4 * (i + 1));
+        byte[] string = new byte[to - from];
+        _buffer.get(bytes + from, string);
+        return new String(string, StandardCharsets.UTF_8);
+    }
+
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    // MARK: Writing
+
+    /**
+     * Write the instance of an application into a file (replacing it if it exists)
+     */
+    public static void write(Application app, Path path) throws IOException {
+        Output out = new Output();
+        long[] offsets = new long[N_SECTIONS];
+
+        // Header, offsets are written at the end
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+
+        for (int s = 0; s < N_SECTIONS; s++) {
+            out.putLong(0);
+        }
+
+        // 1. Locations of the application (input point first), its gates and its providers
+        Map<Location, Integer> locations = new IdentityHashMap<>();
+        List<Location> locationsList = new ArrayList<>();
+        List<Location> used = new ArrayList<>();
+        used.add(app.getInputPoint());
+        used.add(app.getOutputPoint());
+        collectLocations(app, app.getArchitecture(), used);
+        app.getProviders().forEach(p -> used.add(p.getLocation()));
+
+        for (Location l : used) {
+            if (l != null && !locations.containsKey(l)) {
+                locations.put(l, locationsList.size());
+                locationsList.add(l);
+            }
+        }
+
+        offsets[LOCATIONS] = out.position();
+        out.putInt(locationsList.size());
+        out.align();
+        locationsList.forEach(l -> out.putDouble(l.getLat()));
+        locationsList.forEach(l -> out.putDouble(l.getLong()));
+        out.putStrings(locationsList.stream().map(Location::getName).collect(Collectors.toList()));
+
+        // 2. Providers
+        List<Provider> providers = app.getProviders();
+        List<QoS> providerQoS = app.getProviderQoS();
+
+        offsets[PROVIDERS] = out.position();
+        out.putInt(providers.size());
+        out.putInt(providerQoS.size());
+        providerQoS.forEach(q -> out.putInt(q.ordinal()));
+        providers.forEach(p -> out.putInt((p.getLocation() == null) ? -1 : locations.get(p.getLocation())));
+        providers.forEach(p -> out.putInt(p.getConnRange().ordinal()));
+        out.align();
+
+        for (QoS q : providerQoS) {
+            providers.forEach(p -> out.putDouble(p.getAttributeValue(q)));
+        }
+
+        for (QoS q : providerQoS) {
+            providers.forEach(p -> out.putDouble(p.getNormalizedValue(q)));
+        }
+
+        out.putStrings(providers.stream().map(Provider::getName).collect(Collectors.toList()));
+
+        // 3. Distinct lists of candidates (they are interned, so equal lists are the same instance)
+        Map<Candidates, Integer> lists = new IdentityHashMap<>();
+        List<Candidates> listsList = new ArrayList<>();
+        int[] servicesLists = app.getServices().stream().mapToInt(s -> listIndex(s.getCandidates(), lists, listsList))
+            .toArray();
+        int[] gatesLists = app.getGates().stream().mapToInt(g -> listIndex(g.getCandidates(), lists, listsList))
+            .toArray();
+
+        offsets[CANDIDATES] = out.position();
+        out.putInt(listsList.size());
+        int offset = 0;
+        out.putInt(offset);
+
+        for (Candidates c : listsList) {
+            offset += c.size();
+            out.putInt(offset);
+        }
+
+        listsList.forEach(c -> out.putInts(c.toIntArray()));
+        out.align();
+
+        // 4. Services and gates
+        offsets[SERVICES] = out.position();
+        out.putInt(servicesLists.length);
+        out.putInts(servicesLists);
+        out.putStrings(app.getServices().stream().map(Service::getName).collect(Collectors.toList()));
+
+        offsets[GATES] = out.position();
+        out.putInt(gatesLists.length);
+        out.putInts(gatesLists);
+        out.align();
+
+        // 5. Architecture in pre-order
+        List<int[]> components = new ArrayList<>();
+        List<Double> probabilities = new ArrayList<>();
+        collectComponents(app, app.getArchitecture(), locations, components, probabilities);
+
+        offsets[ARCHITECTURE] = out.position();
+        out.putInt(components.size());
+        components.forEach(out::putInts);
+        out.align();
+        probabilities.forEach(out::putDouble);
+
+        // 6. Settings
+        List<QoS> qosList = app.getQoSList();
+
+        offsets[SETTINGS] = out.position();
+        out.putInt(app.getMethod().ordinal());
+        out.putInt(qosList.size());
+        qosList.forEach(q -> out.putInt(q.ordinal()));
+        out.align();
+        qosList.forEach(q -> out.putDouble(app.getWeights().getOrDefault(q, Double.NaN)));
+
+        for (Map<QoS, Normalization> norm : List.of(app.getProvidersNorm(), app.getAppNorm())) {
+            for (QoS q : qosList) {
+                Normalization n = norm.get(q);
+                out.putDouble((n == null) ? Double.NaN : n.getMin());
+                out.putDouble((n == null) ? Double.NaN : n.getMax());
+            }
+        }
+
+        // Offsets of the sections
+        for (int s = 0; s < N_SECTIONS; s++) {
+            out.putLong(8 + 8 * s, offsets[s]);
+        }
+
+        try (FileChannel channel = FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            ByteBuffer buffer = out.toBuffer();
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static int listIndex(Candidates candidates, Map<Candidates, Integer> lists, List<Candidates> listsList) {
+        return lists.computeIfAbsent(candidates, c -> {
+            listsList.add(c);
+            return listsList.size() - 1;
+        });
+    }
+
+    private static void collectLocations(Application app, Component c, List<Location> locations) {
+        if (c instanceof Iterative || c instanceof Conditional || c instanceof Parallel) {
+            locations.add(c.getInputGate(app, null));
+            locations.add(c.getOutputGate(app, null));
+        }
+
+        if (c instanceof Architecture) {
+            for (Component subC : ((Architecture) c).getComponents()) {
+                collectLocations(app, subC, locations);
+            }
+        }
+    }
+
+    private static void collectComponents(
+        Application app, Component c, Map<Location, Integer> locations, List<int[]> components,
+        List<Double> probabilities
+    ) {
+        if (c instanceof IndexService) {
+            components.add(new int[]{SERVICE, ((IndexService) c).getIService(), -1, -1, -1, -1});
+            return;
+        }
+
+        Architecture architecture = (Architecture) c;
+        int kind, inLocation = -1, outLocation = -1;
+
+        if (c instanceof Sequential) {
+            kind = SEQUENTIAL;
+        } else {
+            if (c instanceof Iterative) {
+                kind = ITERATIVE;
+                probabilities.add(((Iterative) c).getProbability());
+            } else if (c instanceof Conditional) {
+                kind = CONDITIONAL;
+                probabilities.addAll(((Conditional) c).getProbabilities());
+            } else if (c instanceof Parallel) {
+                kind = PARALLEL;
+            } else {
+                throw new RuntimeException(String.format("We cannot write component %s.", c));
+            }
+
+            Location in = c.getInputGate(app, null), out = c.getOutputGate(app, null);
+            inLocation = (in == null) ? -1 : locations.get(in);
+            outLocation = (out == null) ? -1 : locations.get(out);
+        }
+
+        components.add(new int[]{
+            kind, architecture.getComponents().size(), architecture.getInGateID(), architecture.getOutGateID(),
+            inLocation, outLocation
+        });
+
+        for (Component subC : architecture.getComponents()) {
+            collectComponents(app, subC, locations, components, probabilities);
+        }
+    }
+
+    /**
+     * Growable little endian buffer to write the file
+     */
+    private static final class Output {
+        private ByteBuffer _buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        private void ensure(int bytes) {
+            if (_buffer.remaining() < bytes) {
+                long capacity = Math.max(2L * _buffer.capacity(), (long) _buffer.position() + bytes);
+
+                if (capacity > Integer.MAX_VALUE) {
+                    throw new RuntimeException("Instance is too big to write it into a file, please check it.");
+                }
+
+                ByteBuffer buffer = ByteBuffer.allocate((int) capacity).order(ByteOrder.LITTLE_ENDIAN);
+                _buffer.flip();
+                buffer.put(_buffer);
+                _buffer = buffer;
+            }
+        }
+
+        int position() {
+            return _buffer.position();
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            _buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(8);
+            _buffer.putLong(value);
+        }
+
+        void putLong(int position, long value) {
+            _buffer.putLong(position, value);
+        }
+
+        void putDouble(double value) {
+            ensure(8);
+            _buffer.putDouble(value);
+        }
+
+        void putInts(int[] values) {
+            ensure(4 * values.length);
+            _buffer.asIntBuffer().put(values);
+            _buffer.position(_buffer.position() + 4 * values.length);
+        }
+
+        /**
+         * Number of strings, offsets of its UTF-8 bytes and the bytes (aligned at the end)
+         */
+        void putStrings(List<String> strings) {
+            List<byte[]> bytes = strings.stream()
+                .map(s -> (s == null) ? new byte[0] : s.getBytes(StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+
+            putInt(bytes.size());
+            int offset = 0;
+            putInt(offset);
+
+            for (byte[] b : bytes) {
+                offset += b.length;
+                putInt(offset);
+            }
+
+            ensure(offset);
+            bytes.forEach(_buffer::put);
+            align();
+        }
+
+        void align() {
+            int padding = InstanceFile.align(_buffer.position()) - _buffer.position();
+            ensure(padding);
+            _buffer.position(_buffer.position() + padding);
+        }
+
+        ByteBuffer toBuffer() {
+            return _buffer.duplicate().flip();
+        }
+    }
+}
@@ -0,0 +1,697 @@
+package utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import generators.GenerationContext;
+import models.applications.Application;
+import models.applications.Gate;
+import models.applications.Provider;
+import models.applications.Service;
+import models.auxiliary.Candidates;
+import models.auxiliary.Normalization;
+import models.enums.ConnRange;
+import models.enums.NormalizedMethod;
+import models.enums.QoS;
+import models.geo.Location;
+import models.patterns.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * JSON file of a problem instance, written and read with a streaming writer and reader (without building a tree of
+ * JSON elements), so big instances are exported with constant memory and read without keeping the text.
+ * <p>
+ * It has the same information as `InstanceFile`, so the application rebuilt is the same as the exported one:
+ * <pre>
+ * {
+ *   "version": 1, "method": "MIN_MAX", "qos": ["COST", ...], "weights": {"COST": .2, ...},
+ *   "locations": [{"name": "Spain", "latitude": 40.4, "longitude": -3.7}, ...],
+ *   "providers": [{"name": "...", "location": 0, "conn_range": "L0", "attributes": {...}, "normalized": {...}}, ...],
+ *   "candidates": [[0, 4, 7], ...],
+ *   "services": [{"name": "...", "candidates": 0}, ...],
+ *   "gates": [1, ...],
+ *   "architecture": {"type": "Sequential", "in_gate": -1, "out_gate": -1, "components": [0, {...}, 1]},
+ *   "providers_norm": {"COST": [min, max], ...}, "app_norm": {...}
+ * }
+ * </pre>
+ * Locations are referenced by its index (the first one is the input and output point), services and gates by the
+ * index of its list of candidates, and components of the architecture are service indexes or nested patterns (with
+ * its gate ids, gate locations and probabilities). Locations must be before providers and the architecture.
+ * Constraints aren't kept (generated instances don't have them).
+ */
+public final class InstanceJson {
+    // Version of the format, files of other versions can't be read
+    public static final int VERSION = 1;
+
+    private InstanceJson() {
+    }
+
+    // MARK: Writing
+
+    /**
+     * Write the instance of an application into a file (replacing it if it exists)
+     */
+    public static void write(Application app, Path path) throws IOException {
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            write(app, writer);
+        }
+    }
+
+    public static void write(Application app, Writer out) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        write(app, writer);
+        writer.flush();
+    }
+
+    private static void write(Application app, JsonWriter writer) throws IOException {
+        // Normalized values can be NaN (attributes with the same min and max values)
+        writer.setLenient(true);
+        writer.beginObject();
+
+        // 1. Settings
+        writer.name("version").value(VERSION);
+        writer.name("method").value(app.getMethod().name());
+        writer.name("qos").beginArray();
+
+        for (QoS q : app.getQoSList()) {
+            writer.value(q.name());
+        }
+
+        writer.endArray();
+        writer.name("weights");
+        writeValues(writer, app.getWeights(), app.getQoSList());
+
+        // 2. Locations of the application (input point first), its gates and its providers
+        Map<Location, Integer> locations = new IdentityHashMap<>();
+        writer.name("locations").beginArray();
+        writeLocation(writer, app.getInputPoint(), locations);
+        writeLocation(writer, app.getOutputPoint(), locations);
+        writeLocations(writer, app, app.getArchitecture(), locations);
+
+        for (Provider p : app.getProviders()) {
+            writeLocation(writer, p.getLocation(), locations);
+        }
+
+        writer.endArray();
+
+        // 3. Providers
+        writer.name("providers").beginArray();
+
+        for (Provider p : app.getProviders()) {
+            writer.beginObject();
+            writer.name("name").value(p.getName());
+            writer.name("location").value((p.getLocation() == null) ? -1 : locations.get(p.getLocation()));
+            writer.name("conn_range").value(p.getConnRange().name());
+            writer.name("attributes").beginObject();
+
+            for (QoS q : app.getProviderQoS()) {
+                writer.name(q.name()).value(p.getAttributeValue(q));
+            }
+
+            writer.endObject();
+            writer.name("normalized").beginObject();
+
+            for (QoS q : app.getProviderQoS()) {
+                writer.name(q.name()).value(p.getNormalizedValue(q));
+            }
+
+            writer.endObject();
+            writer.endObject();
+        }
+
+        writer.endArray();
+
+        // 4. Distinct lists of candidates (they are interned, so equal lists are the same instance)
+        Map<Candidates, Integer> lists = new IdentityHashMap<>();
+        writer.name("candidates").beginArray();
+
+        for (Service s : app.getServices()) {
+            writeCandidates(writer, s.getCandidates(), lists);
+        }
+
+        for (Gate g : app.getGates()) {
+            writeCandidates(writer, g.getCandidates(), lists);
+        }
+
+        writer.endArray();
+
+        // 5. Services and gates
+        writer.name("services").beginArray();
+
+        for (Service s : app.getServices()) {
+            writer.beginObject();
+            writer.name("name").value(s.getName());
+            writer.name("candidates").value(lists.get(s.getCandidates()));
+            writer.endObject();
+        }
+
+        writer.endArray();
+        writer.name("gates").beginArray();
+
+        for (Gate g : app.getGates()) {
+            writer.value(lists.get(g.getCandidates()));
+        }
+
+        writer.endArray();
+
+        // 6. Architecture
+        writer.name("architecture");
+        writeComponent(writer, app, app.getArchitecture(), locations);
+
+        // 7. Normalization bounds
+        writer.name("providers_norm");
+        writeNormalization(writer, app.getProvidersNorm(), app.getQoSList());
+        writer.name("app_norm");
+        writeNormalization(writer, app.getAppNorm(), app.getQoSList());
+
+        writer.endObject();
+    }
+
+    private static void writeValues(JsonWriter writer, Map<QoS, Double> values, List<QoS> qosList) throws IOException {
+        writer.beginObject();
+
+        for (QoS q : qosList) {
+            if (values.containsKey(q)) {
+                writer.name(q.name()).value(values.get(q));
+            }
+        }
+
+        writer.endObject();
+    }
+
+    private static void writeNormalization(
+        JsonWriter writer, Map<QoS, Normalization> norm, List<QoS> qosList
+    ) throws IOException {
+        writer.beginObject();
+
+        for (QoS q : qosList) {
+            Normalization n = norm.get(q);
+
+            if (n != null) {
+                writer.name(q.name()).beginArray().value(n.getMin()).value(n.getMax()).endArray();
+            }
+        }
+
+        writer.endObject();
+    }
+
+    /**
+     * Write a location if it's not written yet
+     */
+    private static void writeLocation(
+        JsonWriter writer, Location l, Map<Location, Integer> locations
+    ) throws IOException {
+        if (l == null || locations.containsKey(l)) {
+            return;
+        }
+
+        locations.put(l, locations.size());
+        writer.beginObject();
+        writer.name("name").value(l.getName());
+        writer.name("latitude").value(l.getLat());
+        writer.name("longitude").value(l.getLong());
+        writer.endObject();
+    }
+
+    private static void writeLocations(
+        JsonWriter writer, Application app, Component c, Map<Location, Integer> locations
+    ) throws IOException {
+        if (c instanceof Iterative || c instanceof Conditional || c instanceof Parallel) {
+            writeLocation(writer, c.getInputGate(app, null), locations);
+            writeLocation(writer, c.getOutputGate(app, null), locations);
+        }
+
+        if (c instanceof Architecture) {
+            for (Component subC : ((Architecture) c).getComponents()) {
+                writeLocations(writer, app, subC, locations);
+            }
+        }
+    }
+
+    /**
+     * Write a list of candidates if it's not written yet
+     */
+    private static void writeCandidates(
+        JsonWriter writer, Candidates candidates, Map<Candidates, Integer> lists
+    ) throws IOException {
+        if (lists.containsKey(candidates)) {
+            return;
+        }
+
+        lists.put(candidates, lists.size());
+        writer.beginArray();
+
+        for (int i = 0; i < candidates.size(); i++) {
+            writer.value(candidates.getInt(i));
+        }
+
+        writer.endArray();
+    }
+
+    private static void writeComponent(
+        JsonWriter writer, Application app, Component c, Map<Location, Integer> locations
+    ) throws IOException {
+        if (c instanceof IndexService) {
+            writer.value(((IndexService) c).getIService());
+            return;
+        }
+
+        Architecture architecture = (Architecture) c;
+        writer.beginObject();
+        writer.name("type").value(architecture.getName());
+        writer.name("in_gate").value(architecture.getInGateID());
+        writer.name("out_gate").value(architecture.getOutGateID());
+
+        if (!(c instanceof Sequential)) {
+            Location in = c.getInputGate(app, null), out = c.getOutputGate(app, null);
+            writer.name("in_location").value((in == null) ? -1 : locations.get(in));
+            writer.name("out_location").value((out == null) ? -1 : locations.get(out));
+        }
+
+        if (c instanceof Iterative) {
+            writer.name("probability").value(((Iterative) c).getProbability());
+        } else if (c instanceof Conditional) {
+            writer.name("probabilities").beginArray();
+
+            for (double p : ((Conditional) c).getProbabilities()) {
+                writer.value(p);
+            }
+
+            writer.endArray();
+        }
+
+        writer.name("components").beginArray();
+
+        for (Component subC : architecture.getComponents()) {
+            writeComponent(writer, app, subC, locations);
+        }
+
+        writer.endArray();
+        writer.endObject();
+    }
+
+    // MARK: Reading
+
+    /**
+     * Read an instance file and build its application
+     */
+    public static Application read(Path path) throws IOException {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            return read(reader);
+        }
+    }
+
+    public static Application read(Reader in) throws IOException {
+        return read(new JsonReader(in));
+    }
+
+    private static Application read(JsonReader reader) throws IOException {
+        reader.setLenient(true);
+
+        NormalizedMethod nMethod = null;
+        List<QoS> qosList = new ArrayList<>();
+        Map<QoS, Double> weights = new HashMap<>();
+        List<Location> locations = new ArrayList<>();
+        List<Provider> providers = new ArrayList<>();
+        List<Candidates> lists = new ArrayList<>();
+        List<String> servicesNames = new ArrayList<>();
+        List<Integer> servicesLists = new ArrayList<>(), gatesLists = new ArrayList<>();
+        Component architecture = null;
+        Map<QoS, Normalization> providersNorm = null, appNorm = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+
+            switch (name) {
+                case "version" -> {
+                    int version = reader.nextInt();
+
+                    if (version != VERSION) {
+                        throw new RuntimeException(String.format(
+                            "Instance file has version %d, but only version %d can be read, please check it.",
+                            version, VERSION
+                        ));
+                    }
+                }
+                case "method" -> nMethod = NormalizedMethod.valueOf(reader.nextString());
+                case "qos" -> {
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        qosList.add(QoS.valueOf(reader.nextString()));
+                    }
+
+                    reader.endArray();
+                }
+                case "weights" -> weights = readValues(reader);
+                case "locations" -> {
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        locations.add(readLocation(reader));
+                    }
+
+                    reader.endArray();
+                }
+                case "providers" -> {
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        providers.add(readProvider(reader, locations));
+                    }
+
+                    reader.endArray();
+                }
+                case "candidates" -> {
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        lists.add(Candidates.of(readInts(reader)));
+                    }
+
+                    reader.endArray();
+                }
+                case "services" -> {
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        reader.beginObject();
+                        String sName = null;
+                        int list = -1;
+
+                        while (reader.hasNext()) {
+                            switch (reader.nextName()) {
+                                case "name" -> sName = nextString(reader);
+                                case "candidates" -> list = reader.nextInt();
+                                default -> reader.skipValue();
+                            }
+                        }
+
+                        reader.endObject();
+                        servicesNames.add(sName);
+                        servicesLists.add(list);
+                    }
+
+                    reader.endArray();
+                }
+                case "gates" -> {
+                    for (int list : readInts(reader)) {
+                        gatesLists.add(list);
+                    }
+                }
+                case "architecture" -> architecture = readComponent(reader, locations);
+                case "providers_norm" -> providersNorm = readNormalization(reader);
+                case "app_norm" -> appNorm = readNormalization(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        if (nMethod == null || !(architecture instanceof Architecture)) {
+            throw new RuntimeException("Instance file hasn't method or architecture, please check it.");
+        }
+
+        // 1. Services
+        List<Service> services = new ArrayList<>(servicesNames.size());
+
+        for (int s = 0; s < servicesNames.size(); s++) {
+            services.add(new Service(servicesNames.get(s), list(lists, servicesLists.get(s))));
+        }
+
+        // 2. Application
+        Application app = new Application(
+            new GenerationContext(locations), (Architecture) architecture, services, providers, weights, nMethod,
+            qosList
+        );
+
+        // 3. Gates (extracted from the graph) and its candidates
+        if (app.getGates().size() != gatesLists.size()) {
+            throw new RuntimeException("Gates of the architecture don't match with the instance file, please check it.");
+        }
+
+        for (Gate g : app.getGates()) {
+            g.setCandidates(list(lists, gatesLists.get(g.getID())));
+        }
+
+        if (!app.getChannelQoS().isEmpty()) {
+            app.updateGatesToExplore();
+        }
+
+        // 4. Normalization bounds, without computing them again
+        if (providersNorm != null) {
+            app.setProvidersNorm(providersNorm);
+        }
+
+        if (appNorm != null) {
+            app.setAppNorm(appNorm);
+        }
+
+        return app;
+    }
+
+    private static Candidates list(List<Candidates> lists, int list) {
+        if (list < 0 || list >= lists.size()) {
+            throw new RuntimeException(String.format("List of candidates %d doesn't exist, please check it.", list));
+        }
+
+        return lists.get(list);
+    }
+
+    private static Location readLocation(JsonReader reader) throws IOException {
+        String name = null;
+        double latitude = 0, longitude = 0;
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> name = nextString(reader);
+                case "latitude" -> latitude = reader.nextDouble();
+                case "longitude" -> longitude = reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+        return new Location(name, latitude, longitude);
+    }
+
+    private static Provider readProvider(JsonReader reader, List<Location> locations) throws IOException {
+        String name = null;
+        Location location = null;
+        ConnRange connRange = ConnRange.L0;
+        Map<QoS, Double> attributes = new HashMap<>(), normalized = null;
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> name = nextString(reader);
+                case "location" -> location = location(locations, reader.nextInt());
+                case "conn_range" -> connRange = ConnRange.valueOf(reader.nextString());
+                case "attributes" -> attributes = readValues(reader);
+                case "normalized" -> normalized = readValues(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+        Provider provider = new Provider(name, attributes, location, connRange);
+
+        if (normalized != null) {
+            provider.setNormalized(normalized);
+        }
+
+        return provider;
+    }
+
+    private static Component readComponent(JsonReader reader, List<Location> locations) throws IOException {
+        // Services are given by its index
+        if (reader.peek() == JsonToken.NUMBER) {
+            return IndexService.i(reader.nextInt());
+        }
+
+        String type = null;
+        int inGate = -1, outGate = -1;
+        Location in = null, out = null;
+        List<Double> probabilities = new ArrayList<>();
+        List<Component> components = new ArrayList<>();
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "type" -> type = reader.nextString();
+                case "in_gate" -> inGate = reader.nextInt();
+                case "out_gate" -> outGate = reader.nextInt();
+                case "in_location" -> in = location(locations, reader.nextInt());
+                case "out_location" -> out = location(locations, reader.nextInt());
+                case "probability" -> probabilities.add(reader.nextDouble());
+                case "probabilities" -> {
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        probabilities.add(reader.nextDouble());
+                    }
+
+                    reader.endArray();
+                }
+                case "components" -> {
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        components.add(readComponent(reader, locations));
+                    }
+
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        Architecture architecture = switch (String.valueOf(type)) {
+            case "Sequential" -> new Sequential(components);
+            case "Parallel" -> new Parallel(components);
+            case "Iterative" -> new Iterative(components, probabilities.get(0));
+            case "Conditional" -> new Conditional(components, probabilities);
+            default -> throw new RuntimeException(String.format("Component type %s doesn't recognise.", type));
+        };
+
+        architecture.setInGateID(inGate);
+        architecture.setOutGateID(outGate);
+
+        if (!(architecture instanceof Sequential)) {
+            architecture.setInputGate(in);
+            architecture.setOutputGate(out);
+        }
+
+        return architecture;
+    }
+
+    private static Map<QoS, Double> readValues(JsonReader reader) throws IOException {
+        Map<QoS, Double> values = new HashMap<>();
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            values.put(QoS.valueOf(reader.nextName()), reader.nextDouble());
+        }
+
+        reader.endObject();
+        return values;
+    }
+
+    private static Map<QoS, Normalization> readNormalization(JsonReader reader) throws IOException {
+        Map<QoS, Normalization> values = new HashMap<>();
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            QoS q = QoS.valueOf(reader.nextName());
+            reader.beginArray();
+            values.put(q, new Normalization(reader.nextDouble(), reader.nextDouble()));
+            reader.endArray();
+        }
+
+        reader.endObject();
+        return values;
+    }
+
+    /**
+     * Read an array of integers, as a growable int array
+     */
+    private static int[] readInts(JsonReader reader) throws IOException {
+        int[] values = new int[16];
+        int size = 0;
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+
+            values[size++] = reader.nextInt();
+        }
+
+        reader.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        return reader.nextString();
+    }
+
+    private static Location location(List<Location> locations, int location) {
+        if (location >= locations.size()) {
+            throw new RuntimeException(String.format(
+                "Location %d doesn't exist (locations must be before it), please check it.", location
+            ));
+        }
+
+        return (location < 0) ? null : locations.get(location);
+    }
+
+    // MARK: Compositions
+
+    /**
+     * Write a composition (provider of each genotype position) as an array of integers
+     */
+    public static void writeComposition(List<Integer> composition, Path path) throws IOException {
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            writer.beginArray();
+
+            for (int provider : composition) {
+                writer.value(provider);
+            }
+
+            writer.endArray();
+        }
+    }
+
+    /**
+     * Read a composition written by `writeComposition`, or a solution of `Extractor` (objects with the provider in
+     * the `provider` property)
+     */
+    public static List<Integer> readComposition(Path path) throws IOException {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            List<Integer> composition = new ArrayList<>();
+            reader.beginArray();
+
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonToken.NUMBER) {
+                    composition.add(reader.nextInt());
+                    continue;
+                }
+
+                Integer provider = null;
+                reader.beginObject();
+
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("provider")) {
+                        provider = reader.nextInt();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+
+                reader.endObject();
+                composition.add(provider);
+            }
+
+            reader.endArray();
+            return composition;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Recorder of latencies that keeps the last samples in a ring buffer, to report its percentiles without keeping all
+ * of them. The count and the max value are of all samples recorded.
+ */
+public final class LatencyRecorder {
+    // Last samples, in nanoseconds
+    private final long[] _samples;
+    private long _count, _max;
+
+    public LatencyRecorder(int capacity) {
+        _samples = new long[capacity];
+    }
+
+    public synchronized void record(long nanos) {
+        _samples[(int) (_count % _samples.length)] = nanos;
+        _count++;
+        _max = Math.max(_max, nanos);
+    }
+
+    public synchronized long getCount() {
+        return _count;
+    }
+
+    /**
+     * @return Max latency recorded, in milliseconds
+     */
+    public synchronized double getMax() {
+        return _max / 1E6;
+    }
+
+    /**
+     * Percentiles of the last samples (nearest rank), in milliseconds (0 if there isn't any sample)
+     *
+     * @param percentiles Percentiles to compute, between 0 and 100
+     */
+    public double[] percentiles(double... percentiles) {
+        long[] sorted;
+
+        synchronized (this) {
+            sorted = Arrays.copyOf(_samples, (int) Math.min(_count, _samples.length));
+        }
+
+        Arrays.sort(sorted);
+        double[] values = new double[percentiles.length];
+
+        for (int i = 0; i < percentiles.length && sorted.length > 0; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100. * sorted.length);
+            values[i] = sorted[Math.min(Math.max(rank, 1), sorted.length) - 1] / 1E6;
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,309 @@
+package utils;
+
+import models.auxiliary.RunResult;
+import models.enums.Header;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Column-oriented accumulator of results, with a primitive array per header.
+ * <p>
+ * Each row is started with `add` (usually with the result of a resolver) and completed with `set`, which gives values
+ * to the last row. Numbers are kept in `long` columns (decimals by its bits), texts by its id in a dictionary and
+ * lists (compositions, fitness evolution...) in shared pools, so millions of results only take a few arrays and
+ * values are only boxed when they are exported.
+ */
+public class ResultColumns {
+    /**
+     * Type of values of a header
+     */
+    private enum Kind {
+        LONG, DOUBLE, TEXT, INTS, LONGS, DOUBLES
+    }
+
+    private final List<Header> _headers;
+    private final Map<Header, Column> _columns;
+    // Texts dictionary
+    private final List<String> _texts = new ArrayList<>();
+    private final Map<String, Integer> _textIDs = new HashMap<>();
+    // Pools of lists: integers (compositions) and numbers (decimals by its bits)
+    private int[] _ints = new int[1024];
+    private long[] _longs = new long[1024];
+    private int _nOfInts, _nOfLongs;
+    private int _size;
+
+    public ResultColumns(List<Header> headers) {
+        _headers = List.copyOf(headers);
+        _columns = new EnumMap<>(Header.class);
+
+        for (Header h : _headers) {
+            _columns.put(h, new Column(kind(h)));
+        }
+    }
+
+    private static Kind kind(Header header) {
+        return switch (header) {
+            case BEST_FITNESS, MEAN_FITNESS, WORST_FITNESS, BEST_PROVIDER_VALUE, WORST_PROVIDER_VALUE, MUTATION_PROB,
+                CROSSOVER_PROB, SLOPE, INTERCEPT, UTILITY_FITNESS, BEST_FITNESS_UNLIMITED, CONSTRAINT_FITNESS,
+                CONVERGENCE, BEST_BOUND, WORST_BOUND, REDUCTION_RATIO, QUANTIZATION_ERROR -> Kind.DOUBLE;
+            case RESOLVER, PROVIDERS_METHOD, HEURISTIC, SPLIT_PARALLELS, VARIABLE_PROVIDERS -> Kind.TEXT;
+            case GENOTYPE -> Kind.INTS;
+            case TIME -> Kind.LONGS;
+            case FITNESS -> Kind.DOUBLES;
+            default -> Kind.LONG;
+        };
+    }
+
+    public List<Header> getHeaders() {
+        return _headers;
+    }
+
+    /**
+     * Number of rows
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Start a new row without values
+     */
+    public void add() {
+        _size++;
+
+        for (Column column : _columns.values()) {
+            column.grow(_size);
+        }
+    }
+
+    /**
+     * Start a new row with the values of a result
+     */
+    public void add(RunResult result) {
+        add();
+        set(Header.PRE_CALCULATION_TIME, result.getPreCalculationTime());
+        set(Header.EXECUTION_TIME, result.getExecutionTime());
+        set(Header.PROVIDERS, result.getProviders());
+        set(Header.SERVICES, result.getServices());
+        set(Header.GENERATIONS, result.getGenerations());
+        set(Header.BEST_FITNESS, result.getBestFitness());
+        set(Header.MEAN_FITNESS, result.getMeanFitness());
+        set(Header.WORST_FITNESS, result.getWorstFitness());
+        set(Header.GENOTYPE, result.getComposition());
+
+        if (result.getBatchSize() >= 0) {
+            set(Header.BATCH_SIZE, result.getBatchSize());
+        }
+
+        if (result.getSubProblems() >= 0) {
+            set(Header.SUB_PROBLEMS, result.getSubProblems());
+        }
+
+        if (!Double.isNaN(result.getReductionRatio())) {
+            set(Header.REDUCTION_RATIO, result.getReductionRatio());
+        }
+
+        if (!Double.isNaN(result.getQuantizationError())) {
+            set(Header.QUANTIZATION_ERROR, result.getQuantizationError());
+        }
+    }
+
+    /**
+     * Set a value of the last row (headers that aren't in the table are skipped, as `App.updateData`)
+     */
+    public void set(Header header, long value) {
+        Column column = column(header, Kind.LONG, Kind.DOUBLE);
+
+        if (column != null) {
+            column.set(_size - 1, (column._kind == Kind.DOUBLE) ? Double.doubleToRawLongBits(value) : value);
+        }
+    }
+
+    public void set(Header header, double value) {
+        Column column = column(header, Kind.DOUBLE);
+
+        if (column != null) {
+            column.set(_size - 1, Double.doubleToRawLongBits(value));
+        }
+    }
+
+    public void set(Header header, String value) {
+        Column column = column(header, Kind.TEXT);
+
+        if (column != null) {
+            column.set(_size - 1, _textIDs.computeIfAbsent(value, v -> {
+                _texts.add(v);
+                return _texts.size() - 1;
+            }));
+        }
+    }
+
+    public void set(Header header, int[] values) {
+        Column column = column(header, Kind.INTS);
+
+        if (column != null) {
+            if (_nOfInts + values.length > _ints.length) {
+                _ints = Arrays.copyOf(_ints, Math.max(2 * _ints.length, _nOfInts + values.length));
+            }
+
+            System.arraycopy(values, 0, _ints, _nOfInts, values.length);
+            column.set(_size - 1, slice(_nOfInts, values.length));
+            _nOfInts += values.length;
+        }
+    }
+
+    /**
+     * Set a list of numbers of the last row (p.e. the fitness of each generation)
+     */
+    public void set(Header header, List<? extends Number> values) {
+        Column column = column(header, Kind.LONGS, Kind.DOUBLES);
+
+        if (column != null) {
+            if (_nOfLongs + values.size() > _longs.length) {
+                _longs = Arrays.copyOf(_longs, Math.max(2 * _longs.length, _nOfLongs + values.size()));
+            }
+
+            for (int i = 0; i < values.size(); i++) {
+                Number value = values.get(i);
+                _longs[_nOfLongs + i] = (column._kind == Kind.DOUBLES)
+                    ? Double.doubleToRawLongBits(value.doubleValue())
+                    : value.longValue();
+            }
+
+            column.set(_size - 1, slice(_nOfLongs, values.size()));
+            _nOfLongs += values.size();
+        }
+    }
+
+    private Column column(Header header, Kind... kinds) {
+        Column column = _columns.get(header);
+
+        if (column == null) {
+            return null;
+        }
+
+        if (_size == 0) {
+            throw new RuntimeException("There isn't any row to set, please check it.");
+        }
+
+        if (!Arrays.asList(kinds).contains(column._kind)) {
+            throw new RuntimeException(String.format(
+                "%s values are %s, please check it.", header, column._kind.toString().toLowerCase()
+            ));
+        }
+
+        return column;
+    }
+
+    private static long slice(int offset, int length) {
+        return ((long) offset << 32) | length;
+    }
+
+    /**
+     * Return a value boxed as it's exported (decimals rounded with 5 decimals, lists as List), or null if it isn't set
+     */
+    public Object get(Header header, int row) {
+        Column column = _columns.get(header);
+
+        if (column == null || !column._present.get(row)) {
+            return null;
+        }
+
+        long value = column._values[row];
+        int offset = (int) (value >>> 32), length = (int) value;
+
+        return switch (column._kind) {
+            case LONG -> value;
+            case DOUBLE -> Math.round(Double.longBitsToDouble(value) * 1E5) / 1E5;
+            case TEXT -> _texts.get((int) value);
+            case INTS -> {
+                List<Integer> values = new ArrayList<>(length);
+
+                for (int i = offset; i < offset + length; i++) {
+                    values.add(_ints[i]);
+                }
+
+                yield values;
+            }
+            case LONGS, DOUBLES -> {
+                List<Number> values = new ArrayList<>(length);
+
+                for (int i = offset; i < offset + length; i++) {
+                    // Not with a conditional expression, it would promote longs to double
+                    if (column._kind == Kind.DOUBLES) {
+                        values.add(Double.longBitsToDouble(_longs[i]));
+                    } else {
+                        values.add(_longs[i]);
+                    }
+                }
+
+                yield values;
+            }
+        };
+    }
+
+    /**
+     * Append all rows to a sink, in one pass and in the headers order of the sink
+     */
+    public void write(ResultSink sink) throws IOException {
+        List<Object> row = new ArrayList<>(sink.getHeaders().size());
+
+        for (int r = 0; r < _size; r++) {
+            row.clear();
+
+            for (Header h : sink.getHeaders()) {
+                row.add(get(h, r));
+            }
+
+            sink.append(row);
+        }
+    }
+
+    /**
+     * Append all rows to a sink and remove them, so only the rows not written yet are kept in memory
+     */
+    public void drainTo(ResultSink sink) throws IOException {
+        write(sink);
+        clear();
+    }
+
+    /**
+     * Remove all rows (arrays are kept to be reused)
+     */
+    public void clear() {
+        for (Column column : _columns.values()) {
+            column._present.clear();
+        }
+
+        _texts.clear();
+        _textIDs.clear();
+        _nOfInts = _nOfLongs = _size = 0;
+    }
+
+    /**
+     * Values of a header, by rows
+     */
+    private static final class Column {
+        private final Kind _kind;
+        // Numbers, decimals by its bits, texts by its id and lists by its slice (offset and length) of the pool
+        private long[] _values = new long[64];
+        // Rows with value
+        private final BitSet _present = new BitSet();
+
+        private Column(Kind kind) {
+            _kind = kind;
+        }
+
+        private void grow(int size) {
+            if (size > _values.length) {
+                _values = Arrays.copyOf(_values, 2 * _values.length);
+            }
+        }
+
+        private void set(int row, long value) {
+            _values[row] = value;
+            _present.set(row);
+        }
+    }
+}
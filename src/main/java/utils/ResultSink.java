@@ -0,0 +1,273 @@
+package utils;
+
+import models.enums.Header;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * Append-only sink of results in a CSV file (a column per header).
+ * <p>
+ * Rows are appended to the end of the file through a buffered channel, so the file isn't rewritten every time and
+ * only the rows that haven't been written yet are kept in memory. Rows are flushed every `flushEvery` rows (and on
+ * close), and optionally forced to disk (fsync), so a run that is stopped keeps all rows flushed before.
+ * <p>
+ * Optionally, rows are written too in a compact binary file next to the CSV file (same name with `.bin` extension):
+ * magic number, version, number of headers and its names, and then each value as a tag and its payload (see
+ * `writeValue`). Strings are written as its length in bytes and its UTF-8 bytes.
+ */
+public class ResultSink implements Closeable {
+    // Binary file format
+    private static final int MAGIC = 0x4C435352, VERSION = 2;
+    private static final byte NULL = 0, LONG = 1, DOUBLE = 2, BOOLEAN = 3, STRING = 4, LIST = 5;
+
+    private final List<Header> _headers;
+    private final FileChannel _channel;
+    private final CSVPrinter _printer;
+    // Rows between flushes (0 or less to flush only on close)
+    private final int _flushEvery;
+    private final boolean _fsync;
+    private final FileChannel _binChannel;
+    private final DataOutputStream _bin;
+    private int _pending;
+
+    /**
+     * @param headers    Columns of the file
+     * @param path       CSV file (truncated if it exists)
+     * @param flushEvery Rows between flushes (0 or less to flush only on close)
+     * @param fsync      Force rows to disk on each flush
+     * @param binary     Write rows too in a binary file next to the CSV file
+     */
+    public ResultSink(
+        List<Header> headers, Path path, int flushEvery, boolean fsync, boolean binary
+    ) throws IOException {
+        _headers = List.copyOf(headers);
+        _flushEvery = flushEvery;
+        _fsync = fsync;
+
+        // 1. CSV file with its header
+        _channel = open(path);
+        _printer = new CSVPrinter(
+            new BufferedWriter(Channels.newWriter(_channel, StandardCharsets.UTF_8)),
+            CSVFormat.DEFAULT.withHeader(_headers.stream().map(Enum::toString).toArray(String[]::new))
+        );
+
+        // 2. Binary file with its header
+        if (binary) {
+            _binChannel = open(path.resolveSibling(binaryName(path.getFileName().toString())));
+            _bin = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(_binChannel)));
+            _bin.writeInt(MAGIC);
+            _bin.writeInt(VERSION);
+            _bin.writeInt(_headers.size());
+
+            for (Header h : _headers) {
+                writeString(h.toString());
+            }
+        } else {
+            _binChannel = null;
+            _bin = null;
+        }
+    }
+
+    /**
+     * Open a sink in the data folder of today (`data/yyyy_MM_dd/fileName.csv`), as `CSV.save`, flushing each row
+     *
+     * @param headers  Columns of the file
+     * @param fileName Name of the CSV file
+     */
+    public static ResultSink open(List<Header> headers, String fileName) throws IOException {
+        return open(headers, fileName, 1, false, false);
+    }
+
+    public static ResultSink open(
+        List<Header> headers, String fileName, int flushEvery, boolean fsync, boolean binary
+    ) throws IOException {
+        // Today
+        final String date = (new SimpleDateFormat("yyyy_MM_dd")).format(new Date());
+        // Get file and create folders
+        File file = ProjectPath.fromDataFile(date, String.format("%s.csv", fileName));
+
+        return new ResultSink(headers, file.toPath(), flushEvery, fsync, binary);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+        );
+    }
+
+    private static String binaryName(String fileName) {
+        return (fileName.endsWith(".csv") ? fileName.substring(0, fileName.length() - 4) : fileName) + ".bin";
+    }
+
+    public List<Header> getHeaders() {
+        return _headers;
+    }
+
+    /**
+     * Append a row
+     *
+     * @param row Values in the headers order
+     */
+    public synchronized void append(List<?> row) throws IOException {
+        if (row.size() != _headers.size()) {
+            throw new RuntimeException(String.format(
+                "Row has %d values, but sink has %d headers, please check it.", row.size(), _headers.size()
+            ));
+        }
+
+        _printer.printRecord(row);
+
+        if (_bin != null) {
+            for (Object value : row) {
+                writeValue(value);
+            }
+        }
+
+        _pending++;
+
+        if (_flushEvery > 0 && _pending >= _flushEvery) {
+            flush();
+        }
+    }
+
+    /**
+     * Append a row
+     *
+     * @param row Value of each header (missing headers are written as empty values)
+     */
+    public void append(Map<Header, ?> row) throws IOException {
+        List<Object> values = new ArrayList<>(_headers.size());
+
+        for (Header h : _headers) {
+            values.add(row.get(h));
+        }
+
+        append(values);
+    }
+
+    /**
+     * Append the complete rows of a data map (see `Data.getDataMap`) and remove them from it, so the map only keeps
+     * rows in flight (with values of some headers yet).
+     *
+     * @param data Values of each header, by rows
+     * @return Number of rows appended
+     */
+    public synchronized int drain(Map<Header, List<Object>> data) throws IOException {
+        // 1. Rows with values of all headers
+        int rows = Integer.MAX_VALUE;
+
+        for (Header h : _headers) {
+            List<Object> column = data.get(h);
+
+            if (column == null) {
+                throw new RuntimeException(String.format("%s attribute information is missing, please check it.", h));
+            }
+
+            rows = Math.min(rows, column.size());
+        }
+
+        // 2. Append them
+        List<Object> row = new ArrayList<>(_headers.size());
+
+        for (int i = 0; i < rows; i++) {
+            row.clear();
+
+            for (Header h : _headers) {
+                row.add(data.get(h).get(i));
+            }
+
+            append(row);
+        }
+
+        // 3. Remove them from the map
+        for (Header h : _headers) {
+            data.get(h).subList(0, rows).clear();
+        }
+
+        return rows;
+    }
+
+    /**
+     * Write the rows appended into the file (and force them to disk if fsync is enabled)
+     */
+    public synchronized void flush() throws IOException {
+        _printer.flush();
+
+        if (_bin != null) {
+            _bin.flush();
+        }
+
+        if (_fsync) {
+            _channel.force(false);
+
+            if (_binChannel != null) {
+                _binChannel.force(false);
+            }
+        }
+
+        _pending = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            _printer.close();
+
+            if (_bin != null) {
+                _bin.close();
+            }
+        }
+    }
+
+    /**
+     * Write a value as a tag and its payload: integer numbers as long, decimal numbers as double, booleans, lists
+     * (size and values) and null. Other values are written as strings.
+     */
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            _bin.writeByte(NULL);
+        } else if (value instanceof Double || value instanceof Float) {
+            _bin.writeByte(DOUBLE);
+            _bin.writeDouble(((Number) value).doubleValue());
+        } else if (
+            value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+        ) {
+            _bin.writeByte(LONG);
+            _bin.writeLong(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            _bin.writeByte(BOOLEAN);
+            _bin.writeBoolean((Boolean) value);
+        } else if (value instanceof Collection) {
+            Collection<?> values = (Collection<?>) value;
+            _bin.writeByte(LIST);
+            _bin.writeInt(values.size());
+
+            for (Object v : values) {
+                writeValue(v);
+            }
+        } else {
+            _bin.writeByte(STRING);
+            writeString(value.toString());
+        }
+    }
+
+    /**
+     * Write a string of any length (`writeUTF` is limited to 65535 bytes)
+     */
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        _bin.writeInt(bytes.length);
+        _bin.write(bytes);
+    }
+}